@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanComparator;
+import com.noveogroup.bean.BeanEquality;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures comparisons and hash codes of beans by an {@code int} and
+ * a {@code String} property. {@code direct*} benchmarks are comparators
+ * and hash codes written by hand to compare with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparatorBenchmark {
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final SmallBean a = new SmallBean();
+    private final SmallBean b = new SmallBean();
+
+    private BeanComparator<SmallBean> comparator;
+    private BeanEquality<SmallBean> equality;
+    private Comparator<SmallBean> directComparator;
+
+    @Setup
+    public void setUp() {
+        Bean<SmallBean> bean = Registries.create(strategy).get(SmallBean.class);
+        comparator = BeanComparator.create(bean, "value0", "value1");
+        equality = BeanEquality.create(bean, "value0", "value1");
+        directComparator = new Comparator<SmallBean>() {
+            @Override
+            public int compare(SmallBean a, SmallBean b) {
+                int result = Integer.compare(a.getValue0(), b.getValue0());
+                return result != 0 ? result : a.getValue1().compareTo(b.getValue1());
+            }
+        };
+        a.setValue0(42);
+        a.setValue1("a");
+        b.setValue0(42);
+        b.setValue1("b");
+    }
+
+    @Benchmark
+    public int compare() {
+        return comparator.compare(a, b);
+    }
+
+    @Benchmark
+    public int directCompare() {
+        return directComparator.compare(a, b);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return equality.hashCode(a);
+    }
+
+    @Benchmark
+    public int directHashCode() {
+        return 31 * (31 + a.getValue0()) + a.getValue1().hashCode();
+    }
+
+}
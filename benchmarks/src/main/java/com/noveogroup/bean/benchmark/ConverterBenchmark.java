@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.ConvertingProperty;
+import com.noveogroup.bean.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting setters of an {@code int} property.
+ * {@code parseAndSet} parses and boxes the value before
+ * {@code Property.setValue()} to compare with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final SmallBean bean = new SmallBean();
+    private final String text = "12345";
+    private final Long longValue = 12345L;
+
+    private Property<SmallBean> property;
+    private ConvertingProperty<SmallBean> convertingProperty;
+
+    @Setup
+    public void setUp() {
+        Bean<SmallBean> beanInfo = Registries.create(strategy).get(SmallBean.class);
+        property = beanInfo.getProperty("value0");
+        convertingProperty = new ConvertingProperty<SmallBean>(property);
+    }
+
+    @Benchmark
+    public void setString() throws IllegalAccessException, InvocationTargetException {
+        convertingProperty.setString(bean, text);
+    }
+
+    @Benchmark
+    public void setConvertedValue() throws IllegalAccessException, InvocationTargetException {
+        convertingProperty.setValue(bean, longValue);
+    }
+
+    @Benchmark
+    public void parseAndSet() throws IllegalAccessException, InvocationTargetException {
+        property.setValue(bean, Integer.valueOf(text.trim()));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.DelimitedReader;
+import com.noveogroup.bean.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading of 10000 rows of a bean with 4 properties.
+ * {@code naive} splits lines into strings, looks properties up by
+ * names and converts strings to values for every cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DelimitedReaderBenchmark {
+
+    private static final int ROWS = 10000;
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private String text;
+    private Bean<SmallBean> bean;
+    private DelimitedReader<SmallBean> reader;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("value0,value1,value2,value3\n");
+        for (int i = 0; i < ROWS; i++) {
+            builder.append(i).append(",name").append(i).append(',').append(i * 31L).append(',').append(i / 8.0).append('\n');
+        }
+        text = builder.toString();
+        bean = Registries.create(strategy).get(SmallBean.class);
+        reader = new DelimitedReader<SmallBean>(bean);
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        long sum = 0;
+        DelimitedReader.Rows<SmallBean> rows = reader.open(new StringReader(text));
+        while (rows.hasNext()) {
+            sum += rows.next().getValue0();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long naive() throws IOException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
+        long sum = 0;
+        BufferedReader input = new BufferedReader(new StringReader(text));
+        String[] names = input.readLine().split(",");
+        String line;
+        while ((line = input.readLine()) != null) {
+            String[] cells = line.split(",");
+            SmallBean value = bean.newBean();
+            for (int i = 0; i < cells.length; i++) {
+                Property<SmallBean> property = bean.getProperty(names[i]);
+                Class<?> type = property.getType();
+                if (type == int.class) {
+                    property.setValue(value, Integer.valueOf(cells[i]));
+                } else if (type == long.class) {
+                    property.setValue(value, Long.valueOf(cells[i]));
+                } else if (type == double.class) {
+                    property.setValue(value, Double.valueOf(cells[i]));
+                } else {
+                    property.setValue(value, cells[i]);
+                }
+            }
+            sum += value.getValue0();
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanDiff;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dirty checks of a bean with 16 properties that is not changed
+ * since its snapshot. {@code boxedSnapshot} compares values read by
+ * {@code Bean.readValues(Object, Object[])} with a boxed snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffBenchmark {
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final MediumBean bean = new MediumBean();
+    private final BitSet changed = new BitSet();
+
+    private Bean<MediumBean> beanInfo;
+    private BeanDiff<MediumBean> diff;
+    private BeanDiff.Snapshot<MediumBean> snapshot;
+    private Object[] boxedSnapshot;
+    private Object[] values;
+
+    @Setup
+    public void setUp() throws IllegalAccessException, InvocationTargetException {
+        beanInfo = Registries.create(strategy).get(MediumBean.class);
+        diff = new BeanDiff<MediumBean>(beanInfo);
+        snapshot = diff.snapshot(bean);
+        boxedSnapshot = new Object[beanInfo.getPropertyCount()];
+        values = new Object[beanInfo.getPropertyCount()];
+        beanInfo.readValues(bean, boxedSnapshot);
+    }
+
+    @Benchmark
+    public boolean isDirty() throws IllegalAccessException, InvocationTargetException {
+        return diff.isDirty(snapshot, bean);
+    }
+
+    @Benchmark
+    public int diff() throws IllegalAccessException, InvocationTargetException {
+        return diff.diff(snapshot, bean, changed);
+    }
+
+    @Benchmark
+    public boolean boxedSnapshot() throws IllegalAccessException, InvocationTargetException {
+        beanInfo.readValues(bean, values);
+        for (int i = 0; i < values.length; i++) {
+            Object x = boxedSnapshot[i];
+            Object y = values[i];
+            if (x != y && (x == null || !x.equals(y))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+public class LargeBean {
+
+    private int value0;
+    private String value1;
+    private long value2;
+    private double value3;
+    private int value4;
+    private String value5;
+    private long value6;
+    private double value7;
+    private int value8;
+    private String value9;
+    private long value10;
+    private double value11;
+    private int value12;
+    private String value13;
+    private long value14;
+    private double value15;
+    private int value16;
+    private String value17;
+    private long value18;
+    private double value19;
+    private int value20;
+    private String value21;
+    private long value22;
+    private double value23;
+    private int value24;
+    private String value25;
+    private long value26;
+    private double value27;
+    private int value28;
+    private String value29;
+    private long value30;
+    private double value31;
+    private int value32;
+    private String value33;
+    private long value34;
+    private double value35;
+    private int value36;
+    private String value37;
+    private long value38;
+    private double value39;
+    private int value40;
+    private String value41;
+    private long value42;
+    private double value43;
+    private int value44;
+    private String value45;
+    private long value46;
+    private double value47;
+    private int value48;
+    private String value49;
+    private long value50;
+    private double value51;
+    private int value52;
+    private String value53;
+    private long value54;
+    private double value55;
+    private int value56;
+    private String value57;
+    private long value58;
+    private double value59;
+    private int value60;
+    private String value61;
+    private long value62;
+    private double value63;
+
+    public int getValue0() {
+        return value0;
+    }
+
+    public void setValue0(int value0) {
+        this.value0 = value0;
+    }
+
+    public String getValue1() {
+        return value1;
+    }
+
+    public void setValue1(String value1) {
+        this.value1 = value1;
+    }
+
+    public long getValue2() {
+        return value2;
+    }
+
+    public void setValue2(long value2) {
+        this.value2 = value2;
+    }
+
+    public double getValue3() {
+        return value3;
+    }
+
+    public void setValue3(double value3) {
+        this.value3 = value3;
+    }
+
+    public int getValue4() {
+        return value4;
+    }
+
+    public void setValue4(int value4) {
+        this.value4 = value4;
+    }
+
+    public String getValue5() {
+        return value5;
+    }
+
+    public void setValue5(String value5) {
+        this.value5 = value5;
+    }
+
+    public long getValue6() {
+        return value6;
+    }
+
+    public void setValue6(long value6) {
+        this.value6 = value6;
+    }
+
+    public double getValue7() {
+        return value7;
+    }
+
+    public void setValue7(double value7) {
+        this.value7 = value7;
+    }
+
+    public int getValue8() {
+        return value8;
+    }
+
+    public void setValue8(int value8) {
+        this.value8 = value8;
+    }
+
+    public String getValue9() {
+        return value9;
+    }
+
+    public void setValue9(String value9) {
+        this.value9 = value9;
+    }
+
+    public long getValue10() {
+        return value10;
+    }
+
+    public void setValue10(long value10) {
+        this.value10 = value10;
+    }
+
+    public double getValue11() {
+        return value11;
+    }
+
+    public void setValue11(double value11) {
+        this.value11 = value11;
+    }
+
+    public int getValue12() {
+        return value12;
+    }
+
+    public void setValue12(int value12) {
+        this.value12 = value12;
+    }
+
+    public String getValue13() {
+        return value13;
+    }
+
+    public void setValue13(String value13) {
+        this.value13 = value13;
+    }
+
+    public long getValue14() {
+        return value14;
+    }
+
+    public void setValue14(long value14) {
+        this.value14 = value14;
+    }
+
+    public double getValue15() {
+        return value15;
+    }
+
+    public void setValue15(double value15) {
+        this.value15 = value15;
+    }
+
+    public int getValue16() {
+        return value16;
+    }
+
+    public void setValue16(int value16) {
+        this.value16 = value16;
+    }
+
+    public String getValue17() {
+        return value17;
+    }
+
+    public void setValue17(String value17) {
+        this.value17 = value17;
+    }
+
+    public long getValue18() {
+        return value18;
+    }
+
+    public void setValue18(long value18) {
+        this.value18 = value18;
+    }
+
+    public double getValue19() {
+        return value19;
+    }
+
+    public void setValue19(double value19) {
+        this.value19 = value19;
+    }
+
+    public int getValue20() {
+        return value20;
+    }
+
+    public void setValue20(int value20) {
+        this.value20 = value20;
+    }
+
+    public String getValue21() {
+        return value21;
+    }
+
+    public void setValue21(String value21) {
+        this.value21 = value21;
+    }
+
+    public long getValue22() {
+        return value22;
+    }
+
+    public void setValue22(long value22) {
+        this.value22 = value22;
+    }
+
+    public double getValue23() {
+        return value23;
+    }
+
+    public void setValue23(double value23) {
+        this.value23 = value23;
+    }
+
+    public int getValue24() {
+        return value24;
+    }
+
+    public void setValue24(int value24) {
+        this.value24 = value24;
+    }
+
+    public String getValue25() {
+        return value25;
+    }
+
+    public void setValue25(String value25) {
+        this.value25 = value25;
+    }
+
+    public long getValue26() {
+        return value26;
+    }
+
+    public void setValue26(long value26) {
+        this.value26 = value26;
+    }
+
+    public double getValue27() {
+        return value27;
+    }
+
+    public void setValue27(double value27) {
+        this.value27 = value27;
+    }
+
+    public int getValue28() {
+        return value28;
+    }
+
+    public void setValue28(int value28) {
+        this.value28 = value28;
+    }
+
+    public String getValue29() {
+        return value29;
+    }
+
+    public void setValue29(String value29) {
+        this.value29 = value29;
+    }
+
+    public long getValue30() {
+        return value30;
+    }
+
+    public void setValue30(long value30) {
+        this.value30 = value30;
+    }
+
+    public double getValue31() {
+        return value31;
+    }
+
+    public void setValue31(double value31) {
+        this.value31 = value31;
+    }
+
+    public int getValue32() {
+        return value32;
+    }
+
+    public void setValue32(int value32) {
+        this.value32 = value32;
+    }
+
+    public String getValue33() {
+        return value33;
+    }
+
+    public void setValue33(String value33) {
+        this.value33 = value33;
+    }
+
+    public long getValue34() {
+        return value34;
+    }
+
+    public void setValue34(long value34) {
+        this.value34 = value34;
+    }
+
+    public double getValue35() {
+        return value35;
+    }
+
+    public void setValue35(double value35) {
+        this.value35 = value35;
+    }
+
+    public int getValue36() {
+        return value36;
+    }
+
+    public void setValue36(int value36) {
+        this.value36 = value36;
+    }
+
+    public String getValue37() {
+        return value37;
+    }
+
+    public void setValue37(String value37) {
+        this.value37 = value37;
+    }
+
+    public long getValue38() {
+        return value38;
+    }
+
+    public void setValue38(long value38) {
+        this.value38 = value38;
+    }
+
+    public double getValue39() {
+        return value39;
+    }
+
+    public void setValue39(double value39) {
+        this.value39 = value39;
+    }
+
+    public int getValue40() {
+        return value40;
+    }
+
+    public void setValue40(int value40) {
+        this.value40 = value40;
+    }
+
+    public String getValue41() {
+        return value41;
+    }
+
+    public void setValue41(String value41) {
+        this.value41 = value41;
+    }
+
+    public long getValue42() {
+        return value42;
+    }
+
+    public void setValue42(long value42) {
+        this.value42 = value42;
+    }
+
+    public double getValue43() {
+        return value43;
+    }
+
+    public void setValue43(double value43) {
+        this.value43 = value43;
+    }
+
+    public int getValue44() {
+        return value44;
+    }
+
+    public void setValue44(int value44) {
+        this.value44 = value44;
+    }
+
+    public String getValue45() {
+        return value45;
+    }
+
+    public void setValue45(String value45) {
+        this.value45 = value45;
+    }
+
+    public long getValue46() {
+        return value46;
+    }
+
+    public void setValue46(long value46) {
+        this.value46 = value46;
+    }
+
+    public double getValue47() {
+        return value47;
+    }
+
+    public void setValue47(double value47) {
+        this.value47 = value47;
+    }
+
+    public int getValue48() {
+        return value48;
+    }
+
+    public void setValue48(int value48) {
+        this.value48 = value48;
+    }
+
+    public String getValue49() {
+        return value49;
+    }
+
+    public void setValue49(String value49) {
+        this.value49 = value49;
+    }
+
+    public long getValue50() {
+        return value50;
+    }
+
+    public void setValue50(long value50) {
+        this.value50 = value50;
+    }
+
+    public double getValue51() {
+        return value51;
+    }
+
+    public void setValue51(double value51) {
+        this.value51 = value51;
+    }
+
+    public int getValue52() {
+        return value52;
+    }
+
+    public void setValue52(int value52) {
+        this.value52 = value52;
+    }
+
+    public String getValue53() {
+        return value53;
+    }
+
+    public void setValue53(String value53) {
+        this.value53 = value53;
+    }
+
+    public long getValue54() {
+        return value54;
+    }
+
+    public void setValue54(long value54) {
+        this.value54 = value54;
+    }
+
+    public double getValue55() {
+        return value55;
+    }
+
+    public void setValue55(double value55) {
+        this.value55 = value55;
+    }
+
+    public int getValue56() {
+        return value56;
+    }
+
+    public void setValue56(int value56) {
+        this.value56 = value56;
+    }
+
+    public String getValue57() {
+        return value57;
+    }
+
+    public void setValue57(String value57) {
+        this.value57 = value57;
+    }
+
+    public long getValue58() {
+        return value58;
+    }
+
+    public void setValue58(long value58) {
+        this.value58 = value58;
+    }
+
+    public double getValue59() {
+        return value59;
+    }
+
+    public void setValue59(double value59) {
+        this.value59 = value59;
+    }
+
+    public int getValue60() {
+        return value60;
+    }
+
+    public void setValue60(int value60) {
+        this.value60 = value60;
+    }
+
+    public String getValue61() {
+        return value61;
+    }
+
+    public void setValue61(String value61) {
+        this.value61 = value61;
+    }
+
+    public long getValue62() {
+        return value62;
+    }
+
+    public void setValue62(long value62) {
+        this.value62 = value62;
+    }
+
+    public double getValue63() {
+        return value63;
+    }
+
+    public void setValue63(double value63) {
+        this.value63 = value63;
+    }
+
+}
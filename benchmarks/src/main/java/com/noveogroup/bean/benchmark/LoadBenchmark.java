@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanRegistry;
+import com.noveogroup.bean.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading of a bean depending on the number of its properties
+ * and the accessor strategy. {@code lazyLoad} loads a lazy bean and gets
+ * one of its properties. {@code snapshotLoad} imports a metadata snapshot
+ * and loads the bean from it instead of the introspection, checksums of
+ * class files are cached per class after the first iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int size;
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private Class<?> beanClass;
+    private File snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (size) {
+            case 4:
+                beanClass = SmallBean.class;
+                break;
+            case 16:
+                beanClass = MediumBean.class;
+                break;
+            case 64:
+                beanClass = LargeBean.class;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown size: " + size);
+        }
+        BeanRegistry registry = Registries.create(strategy);
+        registry.get(beanClass);
+        snapshot = File.createTempFile("beans", ".snapshot");
+        snapshot.deleteOnExit();
+        registry.exportSnapshot(snapshot);
+    }
+
+    @Benchmark
+    public Bean<?> load() {
+        return Registries.create(strategy).get(beanClass);
+    }
+
+    @Benchmark
+    public Property<?> lazyLoad() {
+        BeanRegistry registry = Registries.create(strategy);
+        registry.setLazy(true);
+        return registry.get(beanClass).getProperty(0);
+    }
+
+    @Benchmark
+    public Bean<?> snapshotLoad() throws IOException {
+        BeanRegistry registry = Registries.create(strategy);
+        registry.importSnapshot(snapshot);
+        return registry.get(beanClass);
+    }
+
+}
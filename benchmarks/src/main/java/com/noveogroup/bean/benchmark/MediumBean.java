@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+public class MediumBean {
+
+    private int value0;
+    private String value1;
+    private long value2;
+    private double value3;
+    private int value4;
+    private String value5;
+    private long value6;
+    private double value7;
+    private int value8;
+    private String value9;
+    private long value10;
+    private double value11;
+    private int value12;
+    private String value13;
+    private long value14;
+    private double value15;
+
+    public int getValue0() {
+        return value0;
+    }
+
+    public void setValue0(int value0) {
+        this.value0 = value0;
+    }
+
+    public String getValue1() {
+        return value1;
+    }
+
+    public void setValue1(String value1) {
+        this.value1 = value1;
+    }
+
+    public long getValue2() {
+        return value2;
+    }
+
+    public void setValue2(long value2) {
+        this.value2 = value2;
+    }
+
+    public double getValue3() {
+        return value3;
+    }
+
+    public void setValue3(double value3) {
+        this.value3 = value3;
+    }
+
+    public int getValue4() {
+        return value4;
+    }
+
+    public void setValue4(int value4) {
+        this.value4 = value4;
+    }
+
+    public String getValue5() {
+        return value5;
+    }
+
+    public void setValue5(String value5) {
+        this.value5 = value5;
+    }
+
+    public long getValue6() {
+        return value6;
+    }
+
+    public void setValue6(long value6) {
+        this.value6 = value6;
+    }
+
+    public double getValue7() {
+        return value7;
+    }
+
+    public void setValue7(double value7) {
+        this.value7 = value7;
+    }
+
+    public int getValue8() {
+        return value8;
+    }
+
+    public void setValue8(int value8) {
+        this.value8 = value8;
+    }
+
+    public String getValue9() {
+        return value9;
+    }
+
+    public void setValue9(String value9) {
+        this.value9 = value9;
+    }
+
+    public long getValue10() {
+        return value10;
+    }
+
+    public void setValue10(long value10) {
+        this.value10 = value10;
+    }
+
+    public double getValue11() {
+        return value11;
+    }
+
+    public void setValue11(double value11) {
+        this.value11 = value11;
+    }
+
+    public int getValue12() {
+        return value12;
+    }
+
+    public void setValue12(int value12) {
+        this.value12 = value12;
+    }
+
+    public String getValue13() {
+        return value13;
+    }
+
+    public void setValue13(String value13) {
+        this.value13 = value13;
+    }
+
+    public long getValue14() {
+        return value14;
+    }
+
+    public void setValue14(long value14) {
+        this.value14 = value14;
+    }
+
+    public double getValue15() {
+        return value15;
+    }
+
+    public void setValue15(double value15) {
+        this.value15 = value15;
+    }
+
+}
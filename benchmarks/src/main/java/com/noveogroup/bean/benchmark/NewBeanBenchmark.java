@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanRegistry;
+import com.noveogroup.bean.RecyclingBeanPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Bean#newBean()} compared to the constructor call,
+ * creation of batches and reusing beans of a pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NewBeanBenchmark {
+
+    private static final int BATCH_SIZE = 16;
+
+    private Bean<SampleBean> bean;
+    private RecyclingBeanPool<SampleBean> pool;
+
+    @Setup
+    public void setUp() {
+        bean = BeanRegistry.getInstance().get(SampleBean.class);
+        pool = new RecyclingBeanPool<SampleBean>(bean, BATCH_SIZE, true);
+    }
+
+    @Benchmark
+    public SampleBean newBean() throws InstantiationException, IllegalAccessException {
+        return bean.newBean();
+    }
+
+    @Benchmark
+    public SampleBean constructor() {
+        return new SampleBean();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public SampleBean[] newBeans() throws InstantiationException, IllegalAccessException {
+        return bean.newBeans(BATCH_SIZE);
+    }
+
+    @Benchmark
+    public SampleBean pooled() throws InstantiationException, IllegalAccessException {
+        SampleBean instance = pool.acquire();
+        pool.release(instance);
+        return instance;
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures property access of field and getter backed properties
+ * of primitive and reference types for every accessor strategy.
+ * {@code direct*} benchmarks are plain Java accesses to compare with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessBenchmark {
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final AccessBean bean = new AccessBean();
+    private final Integer intValue = 42;
+    private final String stringValue = "value";
+
+    private Bean<AccessBean> beanInfo;
+    private Property<AccessBean> fieldInt;
+    private Property<AccessBean> fieldString;
+    private Property<AccessBean> getterInt;
+    private Property<AccessBean> getterString;
+
+    @Setup
+    public void setUp() {
+        beanInfo = Registries.create(strategy).get(AccessBean.class);
+        fieldInt = beanInfo.getProperty("fieldInt");
+        fieldString = beanInfo.getProperty("fieldString");
+        getterInt = beanInfo.getProperty("getterInt");
+        getterString = beanInfo.getProperty("getterString");
+        bean.fieldString = stringValue;
+        bean.setGetterString(stringValue);
+    }
+
+    @Benchmark
+    public Object getFieldInt() throws IllegalAccessException, InvocationTargetException {
+        return fieldInt.getValue(bean);
+    }
+
+    @Benchmark
+    public int getFieldIntTyped() throws IllegalAccessException, InvocationTargetException {
+        return fieldInt.getInt(bean);
+    }
+
+    @Benchmark
+    public Object getFieldString() throws IllegalAccessException, InvocationTargetException {
+        return fieldString.getValue(bean);
+    }
+
+    @Benchmark
+    public Object getGetterInt() throws IllegalAccessException, InvocationTargetException {
+        return getterInt.getValue(bean);
+    }
+
+    @Benchmark
+    public int getGetterIntTyped() throws IllegalAccessException, InvocationTargetException {
+        return getterInt.getInt(bean);
+    }
+
+    @Benchmark
+    public Object getGetterString() throws IllegalAccessException, InvocationTargetException {
+        return getterString.getValue(bean);
+    }
+
+    @Benchmark
+    public void setFieldInt() throws IllegalAccessException, InvocationTargetException {
+        fieldInt.setValue(bean, intValue);
+    }
+
+    @Benchmark
+    public void setFieldIntTyped() throws IllegalAccessException, InvocationTargetException {
+        fieldInt.setInt(bean, 42);
+    }
+
+    @Benchmark
+    public void setFieldString() throws IllegalAccessException, InvocationTargetException {
+        fieldString.setValue(bean, stringValue);
+    }
+
+    @Benchmark
+    public void setGetterInt() throws IllegalAccessException, InvocationTargetException {
+        getterInt.setValue(bean, intValue);
+    }
+
+    @Benchmark
+    public void setGetterIntTyped() throws IllegalAccessException, InvocationTargetException {
+        getterInt.setInt(bean, 42);
+    }
+
+    @Benchmark
+    public void setGetterString() throws IllegalAccessException, InvocationTargetException {
+        getterString.setValue(bean, stringValue);
+    }
+
+    @Benchmark
+    public int directGetterInt() {
+        return bean.getGetterInt();
+    }
+
+    @Benchmark
+    public String directGetterString() {
+        return bean.getGetterString();
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.BeanRegistry;
+import com.noveogroup.bean.Property;
+import com.noveogroup.bean.PropertyPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures evaluation of the three hop path {@code child.child.name}.
+ * {@code properties} chains properties resolved beforehand and
+ * {@code direct} is the plain Java call chain to compare with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyPathBenchmark {
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final NestedBean bean = new NestedBean();
+
+    private PropertyPath<NestedBean> path;
+    private Property<NestedBean> child;
+    private Property<NestedBean> name;
+
+    @Setup
+    public void setUp() {
+        BeanRegistry registry = Registries.create(strategy);
+        path = PropertyPath.compile(registry, NestedBean.class, "child.child.name", false);
+        child = registry.get(NestedBean.class).getProperty("child");
+        name = registry.get(NestedBean.class).getProperty("name");
+        bean.setChild(new NestedBean());
+        bean.getChild().setChild(new NestedBean());
+        bean.getChild().getChild().setName("name");
+    }
+
+    @Benchmark
+    public Object path() throws IllegalAccessException, InvocationTargetException {
+        return path.getValue(bean);
+    }
+
+    @Benchmark
+    public Object properties() throws IllegalAccessException, InvocationTargetException {
+        NestedBean value = (NestedBean) child.getValue(bean);
+        value = (NestedBean) child.getValue(value);
+        return name.getValue(value);
+    }
+
+    @Benchmark
+    public Object direct() {
+        return bean.getChild().getChild().getName();
+    }
+
+}
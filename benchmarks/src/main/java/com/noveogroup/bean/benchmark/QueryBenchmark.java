@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanCollection;
+import com.noveogroup.bean.BeanPredicate;
+import com.noveogroup.bean.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a query {@code amount > 900 and quantity = 3} over 100000 beans.
+ * {@code scan} tests a compiled predicate on every bean, {@code indexed}
+ * selects candidates by a hash index of {@code quantity} and {@code naive}
+ * compares boxed values returned by {@code Property.getValue()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int SIZE = 100000;
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final List<SampleBean> beans = new ArrayList<SampleBean>(SIZE);
+    private Property<SampleBean> quantity;
+    private Property<SampleBean> amount;
+    private BeanCollection<SampleBean> collection;
+    private BeanCollection<SampleBean> indexedCollection;
+    private BeanPredicate<SampleBean> predicate;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IllegalAccessException, InvocationTargetException {
+        Bean<SampleBean> bean = Registries.create(strategy).get(SampleBean.class);
+        quantity = bean.getProperty("quantity");
+        amount = bean.getProperty("amount");
+        collection = new BeanCollection<SampleBean>(bean);
+        indexedCollection = new BeanCollection<SampleBean>(bean);
+        indexedCollection.createIndex("quantity", false);
+        for (int i = 0; i < SIZE; i++) {
+            SampleBean sampleBean = new SampleBean();
+            sampleBean.setId(i);
+            sampleBean.setQuantity(i % 10);
+            sampleBean.setAmount(i % 1000);
+            beans.add(sampleBean);
+            collection.add(sampleBean);
+            indexedCollection.add(sampleBean);
+        }
+        predicate = BeanPredicate.and(BeanPredicate.greater(amount, 900), BeanPredicate.equal(quantity, 3));
+    }
+
+    @Benchmark
+    public List<SampleBean> scan() throws IllegalAccessException, InvocationTargetException {
+        return collection.select(predicate);
+    }
+
+    @Benchmark
+    public List<SampleBean> indexed() throws IllegalAccessException, InvocationTargetException {
+        return indexedCollection.select(predicate);
+    }
+
+    @Benchmark
+    public List<SampleBean> naive() throws IllegalAccessException, InvocationTargetException {
+        List<SampleBean> list = new ArrayList<SampleBean>();
+        Integer status = 3;
+        for (SampleBean bean : beans) {
+            if ((Double) amount.getValue(bean) > 900 && status.equals(quantity.getValue(bean))) {
+                list.add(bean);
+            }
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.BeanRegistry;
+import com.noveogroup.bean.LambdaAccessorFactory;
+import com.noveogroup.bean.MethodHandleAccessorFactory;
+import com.noveogroup.bean.ReflectionAccessorFactory;
+
+/**
+ * Creates registries for accessor strategies used as benchmark parameters.
+ */
+final class Registries {
+
+    public static final String REFLECTION = "reflection";
+    public static final String METHOD_HANDLE = "methodHandle";
+    public static final String LAMBDA = "lambda";
+    public static final String COMPILED = "compiled";
+
+    private Registries() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static BeanRegistry create(String strategy) {
+        if (REFLECTION.equals(strategy)) {
+            return new BeanRegistry(new ReflectionAccessorFactory());
+        } else if (METHOD_HANDLE.equals(strategy)) {
+            return new BeanRegistry(new MethodHandleAccessorFactory());
+        } else if (LAMBDA.equals(strategy)) {
+            return new BeanRegistry(new LambdaAccessorFactory());
+        } else if (COMPILED.equals(strategy)) {
+            return new BeanRegistry(new MethodHandleAccessorFactory(), true);
+        } else {
+            throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+}
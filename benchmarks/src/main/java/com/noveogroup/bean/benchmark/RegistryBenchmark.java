@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanRegistry;
+import com.noveogroup.bean.MethodHandleAccessorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BeanRegistry#get(Class)} hits and misses.
+ * <p>
+ * A miss is measured on a new registry, so it includes the introspection.
+ * {@code missContended} runs misses in several threads at once to show
+ * how introspection scales, contended hits are measured by
+ * {@link RegistryContentionBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+
+    private BeanRegistry registry;
+    private Bean<SampleBean> bean;
+
+    @Setup
+    public void setUp() {
+        registry = new BeanRegistry(new MethodHandleAccessorFactory());
+        // keep the bean reachable so every lookup is a cache hit
+        bean = registry.get(SampleBean.class);
+    }
+
+    @Benchmark
+    public Bean<SampleBean> hit() {
+        return registry.get(SampleBean.class);
+    }
+
+    @Benchmark
+    public Bean<SampleBean> miss() {
+        return new BeanRegistry(new MethodHandleAccessorFactory()).get(SampleBean.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Bean<SampleBean> missContended() {
+        return new BeanRegistry(new MethodHandleAccessorFactory()).get(SampleBean.class);
+    }
+
+}
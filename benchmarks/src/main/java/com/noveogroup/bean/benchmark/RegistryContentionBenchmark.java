@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BeanRegistry#get(Class)} cache hits under contention.
+ * <p>
+ * {@code globalLock} serializes lookups on a single monitor the way
+ * the registry used to do, {@code lockFree} is the current registry.
+ * Compare both with a growing number of threads ({@code -t}).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class RegistryContentionBenchmark {
+
+    public static class First {
+        public int value;
+    }
+
+    public static class Second {
+        public String value;
+    }
+
+    public static class Third {
+        public long value;
+    }
+
+    private static final Class<?>[] CLASSES = {SampleBean.class, First.class, Second.class, Third.class};
+
+    private final Object lock = new Object();
+
+    private BeanRegistry registry;
+    private Bean<?>[] beans;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        public Class<?> next() {
+            position = (position + 1) & (CLASSES.length - 1);
+            return CLASSES[position];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        registry = BeanRegistry.getInstance();
+        // keep the beans reachable so every lookup is a cache hit
+        beans = new Bean<?>[CLASSES.length];
+        for (int i = 0; i < CLASSES.length; i++) {
+            beans[i] = registry.get(CLASSES[i]);
+        }
+    }
+
+    @Benchmark
+    public Bean<?> lockFree(Cursor cursor) {
+        return registry.get(cursor.next());
+    }
+
+    @Benchmark
+    public Bean<?> globalLock(Cursor cursor) {
+        Class<?> beanClass = cursor.next();
+        synchronized (lock) {
+            return registry.get(beanClass);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.BeanSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing of a bean with 16 properties to a byte buffer
+ * and reading it back for every accessor strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({Registries.REFLECTION, Registries.METHOD_HANDLE, Registries.LAMBDA, Registries.COMPILED})
+    public String strategy;
+
+    private final MediumBean bean = new MediumBean();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+
+    private BeanSerializer<MediumBean> serializer;
+
+    @Setup
+    public void setUp() throws IllegalAccessException, InvocationTargetException {
+        serializer = new BeanSerializer<MediumBean>(Registries.create(strategy).get(MediumBean.class));
+        bean.setValue1("value");
+        bean.setValue5("value");
+        bean.setValue9("value");
+        bean.setValue13("value");
+    }
+
+    @Benchmark
+    public int write() throws IllegalAccessException, InvocationTargetException {
+        buffer.clear();
+        serializer.write(bean, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public MediumBean writeRead()
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        buffer.clear();
+        serializer.write(bean, buffer);
+        buffer.flip();
+        return serializer.read(buffer);
+    }
+
+}
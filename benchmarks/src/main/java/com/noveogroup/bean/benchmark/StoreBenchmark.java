@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.benchmark;
+
+import com.noveogroup.bean.Bean;
+import com.noveogroup.bean.BeanRegistry;
+import com.noveogroup.bean.BeanStore;
+import com.noveogroup.bean.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a sum of a double property over 100000 beans kept in
+ * a {@code BeanStore} and read through a flyweight, compared to the same
+ * property of bean instances in an array.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+    private static final int SIZE = 100000;
+
+    private SampleBean[] beans;
+    private Property<SampleBean> amount;
+    private BeanStore<SampleBean> store;
+    private BeanStore.Flyweight<SampleBean> flyweight;
+    private Property<BeanStore.Flyweight<SampleBean>> storedAmount;
+
+    @Setup
+    public void setUp() throws IllegalAccessException, InvocationTargetException {
+        Bean<SampleBean> bean = BeanRegistry.getInstance().get(SampleBean.class);
+        amount = bean.getProperty("amount");
+        store = BeanStore.allocate(bean, SIZE);
+        flyweight = store.flyweight();
+        storedAmount = store.getProperty("amount");
+        beans = new SampleBean[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            beans[i] = new SampleBean();
+            beans[i].setId(i);
+            beans[i].setAmount(i * 0.5);
+            store.add(beans[i]);
+        }
+    }
+
+    @Benchmark
+    public double sumStore() throws IllegalAccessException, InvocationTargetException {
+        double sum = 0;
+        for (long i = 0, size = store.size(); i < size; i++) {
+            sum += storedAmount.getDouble(flyweight.moveTo(i));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double sumBeans() throws IllegalAccessException, InvocationTargetException {
+        double sum = 0;
+        for (SampleBean bean : beans) {
+            sum += amount.getDouble(bean);
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,640 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean.processor;
+
+import com.noveogroup.bean.GenerateBean;
+import com.noveogroup.bean.GeneratedBean;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates {@link GeneratedBean} implementations for classes annotated by
+ * {@link GenerateBean}. Properties are resolved the same way as
+ * {@link com.noveogroup.bean.BeanRegistry} does, public members are accessed
+ * by the generated code directly and other ones are left to the reflection.
+ */
+@SupportedAnnotationTypes("com.noveogroup.bean.GenerateBean")
+public class BeanProcessor extends AbstractProcessor {
+
+    private static final String IS_PREFIX = "is";
+    private static final String GET_PREFIX = "get";
+    private static final String SET_PREFIX = "set";
+
+    private static final String[] KIND_NAMES = {
+            "Boolean", "Byte", "Short", "Char", "Int", "Long", "Float", "Double"
+    };
+    private static final TypeKind[] KINDS = {
+            TypeKind.BOOLEAN, TypeKind.BYTE, TypeKind.SHORT, TypeKind.CHAR,
+            TypeKind.INT, TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE
+    };
+    private static final String[] WRAPPERS = {
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Short", "java.lang.Character",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double"
+    };
+
+    private static class PropertyMembers {
+
+        private final String name;
+        private final TypeMirror type;
+        private final VariableElement field;
+        private final ExecutableElement getter;
+        private final ExecutableElement setter;
+
+        private boolean isReadable;
+        private boolean isWritable;
+        private boolean isDirectRead;
+        private boolean isDirectWrite;
+
+        public PropertyMembers(String name, TypeMirror type,
+                               VariableElement field, ExecutableElement getter, ExecutableElement setter) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+    }
+
+    private Types types;
+    private Elements elements;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateBean.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateBean is applicable to classes only");
+                continue;
+            }
+            TypeElement beanElement = (TypeElement) element;
+            if (!isAccessible(beanElement, getPackageName(beanElement))) {
+                error(element, "bean class should not be private");
+                continue;
+            }
+            try {
+                generate(beanElement);
+            } catch (IOException e) {
+                error(element, "cannot generate bean: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    // type utilities
+
+    private String getPackageName(TypeElement element) {
+        return elements.getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private TypeElement getSuperclass(TypeElement element) {
+        TypeMirror superclass = element.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+    }
+
+    private TypeMirror erasure(TypeMirror type) {
+        return type.getKind() == TypeKind.VOID ? type : types.erasure(type);
+    }
+
+    private static boolean isPrimitive(TypeMirror type) {
+        return type.getKind().isPrimitive() || type.getKind() == TypeKind.VOID;
+    }
+
+    // mirrors Class.isAssignableFrom() on erased types
+    private boolean isAssignableFrom(TypeMirror type, TypeMirror from) {
+        if (isPrimitive(type) || isPrimitive(from)) {
+            return type.getKind() == from.getKind();
+        }
+        return types.isSubtype(erasure(from), erasure(type));
+    }
+
+    // the generated code cannot call a member that declares checked exceptions without handling them
+    private boolean hasCheckedExceptions(ExecutableElement method) {
+        TypeMirror runtimeException = elements.getTypeElement("java.lang.RuntimeException").asType();
+        TypeMirror error = elements.getTypeElement("java.lang.Error").asType();
+        for (TypeMirror thrownType : method.getThrownTypes()) {
+            if (!types.isSubtype(thrownType, runtimeException) && !types.isSubtype(thrownType, error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBoolean(TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN || (type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement())
+                .getQualifiedName().contentEquals("java.lang.Boolean"));
+    }
+
+    private static int getKindIndex(TypeMirror type) {
+        for (int i = 0; i < KINDS.length; i++) {
+            if (KINDS[i] == type.getKind()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPublic(Element element) {
+        return element.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    // the class and all its enclosing classes are public
+    private static boolean isPublic(TypeElement element) {
+        for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeElement element, String packageName) {
+        boolean samePackage = getPackageName(element).equals(packageName);
+        for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!modifiers.contains(Modifier.PUBLIC) && !samePackage)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror type, String packageName) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return isAccessible(((ArrayType) type).getComponentType(), packageName);
+            case DECLARED:
+                return isAccessible((TypeElement) types.asElement(type), packageName);
+            default:
+                return true;
+        }
+    }
+
+    private String getTypeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return getTypeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+            default:
+                return type.toString();
+        }
+    }
+
+    private String getBinaryName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                TypeMirror componentType = ((ArrayType) type).getComponentType();
+                String name = getBinaryName(componentType);
+                if (componentType.getKind() == TypeKind.ARRAY) {
+                    return "[" + name;
+                }
+                if (componentType.getKind() == TypeKind.DECLARED) {
+                    return "[L" + name + ";";
+                }
+                return "[" + getDescriptor(componentType.getKind());
+            case DECLARED:
+                return elements.getBinaryName((TypeElement) types.asElement(type)).toString();
+            default:
+                return type.toString();
+        }
+    }
+
+    private static String getDescriptor(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case SHORT:
+                return "S";
+            case CHAR:
+                return "C";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            default:
+                return "D";
+        }
+    }
+
+    private String getClassLiteral(TypeMirror type, String beanName, String packageName) {
+        if (isAccessible(type, packageName)) {
+            return getTypeName(type) + ".class";
+        }
+        return "findClass(" + beanName + ".class, \"" + getBinaryName(type) + "\")";
+    }
+
+    // property introspection, it mirrors BeanRegistry and DefaultProperty
+
+    private Map<String, VariableElement> getFields(TypeElement beanElement) {
+        Map<String, VariableElement> map = new HashMap<String, VariableElement>();
+        for (TypeElement element = beanElement; element != null; element = getSuperclass(element)) {
+            if (element.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    map.put(field.getSimpleName().toString(), field);
+                }
+            }
+        }
+        return map;
+    }
+
+    private Map<String, ExecutableElement> getMethods(TypeElement beanElement) {
+        Map<String, ExecutableElement> map = new HashMap<String, ExecutableElement>();
+        for (TypeElement element = beanElement; element != null; element = getSuperclass(element)) {
+            if (element.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                Set<Modifier> modifiers = method.getModifiers();
+                String name = method.getSimpleName().toString();
+                if (!modifiers.contains(Modifier.STATIC) && modifiers.contains(Modifier.PUBLIC)
+                        && (name.startsWith(IS_PREFIX) || name.startsWith(GET_PREFIX) || name.startsWith(SET_PREFIX))) {
+                    map.put(name, method);
+                }
+            }
+        }
+        return map;
+    }
+
+    private static Set<String> getMethodPropertyNames(Collection<String> methodNames) {
+        Set<String> set = new HashSet<String>(methodNames.size());
+        for (String name : methodNames) {
+            if (name.startsWith(IS_PREFIX) && name.length() > IS_PREFIX.length()) {
+                name = name.substring(IS_PREFIX.length());
+                name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                set.add(name);
+            }
+            if (name.startsWith(GET_PREFIX) && name.length() > GET_PREFIX.length()) {
+                name = name.substring(GET_PREFIX.length());
+                name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                set.add(name);
+            }
+            if (name.startsWith(SET_PREFIX) && name.length() > SET_PREFIX.length()) {
+                name = name.substring(SET_PREFIX.length());
+                name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                set.add(name);
+            }
+        }
+        return set;
+    }
+
+    private boolean isValid(PropertyMembers members) {
+        // void properties cannot be accessed by the default accessors and are dropped by the registry
+        if (members.type.getKind() == TypeKind.VOID) {
+            return false;
+        }
+        if (members.field != null && !isAssignableFrom(members.type, erasure(members.field.asType()))) {
+            return false;
+        }
+        if (members.getter != null) {
+            if (!isAssignableFrom(members.type, erasure(members.getter.getReturnType()))
+                    || !members.getter.getParameters().isEmpty()) {
+                return false;
+            }
+        }
+        if (members.setter != null) {
+            if (members.setter.getReturnType().getKind() != TypeKind.VOID
+                    || members.setter.getParameters().size() != 1
+                    || !isAssignableFrom(erasure(members.setter.getParameters().get(0).asType()), members.type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<PropertyMembers> getPropertyMembers(TypeElement beanElement, String packageName) {
+        Map<String, VariableElement> fields = getFields(beanElement);
+        Map<String, ExecutableElement> methods = getMethods(beanElement);
+
+        Set<String> propertyNames = new TreeSet<String>();
+        propertyNames.addAll(fields.keySet());
+        propertyNames.addAll(getMethodPropertyNames(methods.keySet()));
+
+        List<PropertyMembers> list = new ArrayList<PropertyMembers>(propertyNames.size());
+        for (String propertyName : propertyNames) {
+            String suffix = Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+            VariableElement field = fields.get(propertyName);
+            ExecutableElement getter1 = methods.get(IS_PREFIX + suffix);
+            ExecutableElement getter2 = methods.get(GET_PREFIX + suffix);
+            ExecutableElement setter = methods.get(SET_PREFIX + suffix);
+
+            TypeMirror type = elements.getTypeElement("java.lang.Object").asType();
+            if (field != null) {
+                type = erasure(field.asType());
+            } else if (getter1 != null) {
+                type = erasure(getter1.getReturnType());
+            } else if (getter2 != null) {
+                type = erasure(getter2.getReturnType());
+            } else if (setter != null) {
+                if (!setter.getParameters().isEmpty()) {
+                    type = erasure(setter.getParameters().get(0).asType());
+                }
+            }
+
+            ExecutableElement getter;
+            if (isBoolean(type)) {
+                getter = getter1 != null ? getter1 : getter2;
+            } else {
+                getter = getter2;
+            }
+
+            PropertyMembers members = new PropertyMembers(propertyName, type, field, getter, setter);
+            if (!isValid(members)) {
+                continue;
+            }
+
+            boolean isFieldPublic = field != null && isPublic(field);
+            boolean isFieldFinal = field != null && field.getModifiers().contains(Modifier.FINAL);
+            members.isReadable = isFieldPublic || getter != null;
+            members.isWritable = (isFieldPublic && !isFieldFinal) || setter != null;
+
+            // direct access is used only where the reflection would be allowed to access the member
+            // and where the generated code would compile, the other members fall back to the reflection
+            if (getter != null) {
+                members.isDirectRead = isPublic((TypeElement) getter.getEnclosingElement())
+                        && !hasCheckedExceptions(getter);
+            } else {
+                members.isDirectRead = isFieldPublic && isPublic((TypeElement) field.getEnclosingElement());
+            }
+            if (setter != null) {
+                members.isDirectWrite = isPublic((TypeElement) setter.getEnclosingElement())
+                        && !hasCheckedExceptions(setter)
+                        && isAccessible(erasure(setter.getParameters().get(0).asType()), packageName);
+            } else {
+                members.isDirectWrite = isFieldPublic && !isFieldFinal
+                        && isPublic((TypeElement) field.getEnclosingElement())
+                        && isAccessible(type, packageName);
+            }
+
+            list.add(members);
+        }
+        return list;
+    }
+
+    // code generation
+
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+
+    private static String getOwner(Element member) {
+        return "((" + ((TypeElement) member.getEnclosingElement()).getQualifiedName() + ") bean)";
+    }
+
+    private String getReadExpression(PropertyMembers members) {
+        if (members.getter != null) {
+            return getOwner(members.getter) + "." + members.getter.getSimpleName() + "()";
+        } else {
+            return getOwner(members.field) + "." + members.field.getSimpleName();
+        }
+    }
+
+    private String getWriteStatement(PropertyMembers members, String value) {
+        if (members.setter != null) {
+            return getOwner(members.setter) + "." + members.setter.getSimpleName() + "(" + value + ");";
+        } else {
+            return getOwner(members.field) + "." + members.field.getSimpleName() + " = " + value + ";";
+        }
+    }
+
+    private String getConversion(PropertyMembers members) {
+        TypeMirror type = members.setter != null
+                ? erasure(members.setter.getParameters().get(0).asType())
+                : members.type;
+        int kind = getKindIndex(type);
+        if (kind < 0) {
+            return "(" + getTypeName(type) + ") value";
+        }
+        return "((" + WRAPPERS[kind] + ") value)." + type.getKind().name().toLowerCase(Locale.US) + "Value()";
+    }
+
+    private static void writeMethodEnd(StringBuilder builder, boolean hasCases) {
+        if (hasCases) {
+            builder.append("                default:\n");
+            builder.append("                    throw new IllegalArgumentException();\n");
+            builder.append("            }\n");
+        } else {
+            builder.append("            throw new IllegalArgumentException();\n");
+        }
+        builder.append("        }\n");
+    }
+
+    private void writeAccessor(StringBuilder builder, List<PropertyMembers> list) {
+        builder.append("    private static final class PropertyAccessor implements com.noveogroup.bean.BeanAccessor {\n");
+
+        builder.append("\n        @Override\n");
+        builder.append("        public Object get(Object bean, int index) {\n");
+        StringBuilder cases = new StringBuilder();
+        for (int index = 0; index < list.size(); index++) {
+            PropertyMembers members = list.get(index);
+            if (members.isDirectRead) {
+                cases.append("                case ").append(index).append(":\n");
+                cases.append("                    return ").append(getReadExpression(members)).append(";\n");
+            }
+        }
+        writeSwitch(builder, cases);
+
+        builder.append("\n        @Override\n");
+        builder.append("        public void set(Object bean, int index, Object value) {\n");
+        cases = new StringBuilder();
+        for (int index = 0; index < list.size(); index++) {
+            PropertyMembers members = list.get(index);
+            if (members.isDirectWrite) {
+                cases.append("                case ").append(index).append(":\n");
+                cases.append("                    ").append(getWriteStatement(members, getConversion(members))).append("\n");
+                cases.append("                    return;\n");
+            }
+        }
+        writeSwitch(builder, cases);
+
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            String typeName = KINDS[kind].name().toLowerCase(Locale.US);
+
+            builder.append("\n        @Override\n");
+            builder.append("        public ").append(typeName).append(" get").append(KIND_NAMES[kind])
+                    .append("(Object bean, int index) {\n");
+            cases = new StringBuilder();
+            for (int index = 0; index < list.size(); index++) {
+                PropertyMembers members = list.get(index);
+                if (members.isDirectRead && members.type.getKind() == KINDS[kind]) {
+                    cases.append("                case ").append(index).append(":\n");
+                    cases.append("                    return ").append(getReadExpression(members)).append(";\n");
+                }
+            }
+            writeSwitch(builder, cases);
+
+            builder.append("\n        @Override\n");
+            builder.append("        public void set").append(KIND_NAMES[kind])
+                    .append("(Object bean, int index, ").append(typeName).append(" value) {\n");
+            cases = new StringBuilder();
+            for (int index = 0; index < list.size(); index++) {
+                PropertyMembers members = list.get(index);
+                if (members.isDirectWrite && members.type.getKind() == KINDS[kind]) {
+                    cases.append("                case ").append(index).append(":\n");
+                    cases.append("                    ").append(getWriteStatement(members, "value")).append("\n");
+                    cases.append("                    return;\n");
+                }
+            }
+            writeSwitch(builder, cases);
+        }
+
+        builder.append("\n    }\n");
+    }
+
+    private static void writeSwitch(StringBuilder builder, StringBuilder cases) {
+        if (cases.length() > 0) {
+            builder.append("            switch (index) {\n");
+            builder.append(cases);
+        }
+        writeMethodEnd(builder, cases.length() > 0);
+    }
+
+    private boolean hasPublicConstructor(TypeElement beanElement) {
+        if (beanElement.getModifiers().contains(Modifier.ABSTRACT) || !isPublic(beanElement)
+                || (beanElement.getNestingKind() == NestingKind.MEMBER
+                && !beanElement.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(beanElement.getEnclosedElements())) {
+            if (isPublic(constructor) && constructor.getParameters().isEmpty()
+                    && constructor.getThrownTypes().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement beanElement) throws IOException {
+        String packageName = getPackageName(beanElement);
+        String beanName = beanElement.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(beanElement).toString();
+        String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + GeneratedBean.CLASS_NAME_SUFFIX;
+
+        List<PropertyMembers> list = getPropertyMembers(beanElement, packageName);
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("// Generated by ").append(BeanProcessor.class.getName()).append(", do not edit.\n");
+        if (!packageName.isEmpty()) {
+            builder.append("package ").append(packageName).append(";\n");
+        }
+        builder.append("\n@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        builder.append("public final class ").append(className)
+                .append(" extends com.noveogroup.bean.GeneratedBean<").append(beanName).append("> {\n\n");
+
+        builder.append("    public ").append(className).append("() {\n");
+        builder.append("        super(").append(beanName).append(".class,\n");
+        StringBuilder names = new StringBuilder();
+        StringBuilder typeLiterals = new StringBuilder();
+        StringBuilder fieldNames = new StringBuilder();
+        StringBuilder getterNames = new StringBuilder();
+        StringBuilder setterNames = new StringBuilder();
+        StringBuilder flags = new StringBuilder();
+        for (PropertyMembers members : list) {
+            String separator = names.length() == 0 ? "" : ", ";
+            names.append(separator).append(quote(members.name));
+            typeLiterals.append(separator).append(getClassLiteral(members.type, beanName, packageName));
+            fieldNames.append(separator).append(quote(members.field == null ? null : members.field.getSimpleName().toString()));
+            getterNames.append(separator).append(quote(members.getter == null ? null : members.getter.getSimpleName().toString()));
+            setterNames.append(separator).append(quote(members.setter == null ? null : members.setter.getSimpleName().toString()));
+            flags.append(separator).append(members.isReadable ? "READABLE" : "0")
+                    .append(members.isWritable ? " | WRITABLE" : "")
+                    .append(members.isDirectRead ? " | DIRECT_READ" : "")
+                    .append(members.isDirectWrite ? " | DIRECT_WRITE" : "");
+        }
+        builder.append("                new String[]{").append(names).append("},\n");
+        builder.append("                new Class<?>[]{").append(typeLiterals).append("},\n");
+        builder.append("                new String[]{").append(fieldNames).append("},\n");
+        builder.append("                new String[]{").append(getterNames).append("},\n");
+        builder.append("                new String[]{").append(setterNames).append("},\n");
+        builder.append("                new int[]{").append(flags).append("},\n");
+        builder.append("                new PropertyAccessor());\n");
+        builder.append("    }\n");
+
+        if (hasPublicConstructor(beanElement)) {
+            builder.append("\n    @Override\n");
+            builder.append("    public ").append(beanName).append(" newBean() {\n");
+            builder.append("        return new ").append(beanName).append("();\n");
+            builder.append("    }\n");
+        }
+        if (beanElement.getTypeParameters().isEmpty()) {
+            builder.append("\n    @Override\n");
+            builder.append("    public ").append(beanName).append("[] newBeanArray(int length) {\n");
+            builder.append("        return new ").append(beanName).append("[length];\n");
+            builder.append("    }\n");
+        }
+
+        builder.append("\n");
+        writeAccessor(builder, list);
+        builder.append("\n}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, beanElement).openWriter();
+        try {
+            writer.write(builder.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+}
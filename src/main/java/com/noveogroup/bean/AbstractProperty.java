@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+
+public abstract class AbstractProperty<T> implements Property<T> {
+
+    private final Class<T> beanClass;
+    private final int index;
+    private final String name;
+    private final Class<?> type;
+
+    protected AbstractProperty(Class<T> beanClass, int index, String name, Class<?> type) {
+        this.beanClass = beanClass;
+        this.index = index;
+        this.name = name;
+        this.type = type;
+    }
+
+    protected abstract Accessor<T> getAccessor();
+
+    @Override
+    public Class<T> getBeanClass() {
+        return beanClass;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Class<?> getType() {
+        return type;
+    }
+
+    @Override
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+        return getAccessor().getValue(bean);
+    }
+
+    @Override
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        getAccessor().setValue(bean, value);
+    }
+
+    private void checkType(Class<?> type) {
+        Arguments.checkType(this.type, type);
+    }
+
+    @Override
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(boolean.class);
+        return getAccessor().getBoolean(bean);
+    }
+
+    @Override
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        checkType(boolean.class);
+        getAccessor().setBoolean(bean, value);
+    }
+
+    @Override
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(byte.class);
+        return getAccessor().getByte(bean);
+    }
+
+    @Override
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        checkType(byte.class);
+        getAccessor().setByte(bean, value);
+    }
+
+    @Override
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(short.class);
+        return getAccessor().getShort(bean);
+    }
+
+    @Override
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        checkType(short.class);
+        getAccessor().setShort(bean, value);
+    }
+
+    @Override
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(char.class);
+        return getAccessor().getChar(bean);
+    }
+
+    @Override
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        checkType(char.class);
+        getAccessor().setChar(bean, value);
+    }
+
+    @Override
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(int.class);
+        return getAccessor().getInt(bean);
+    }
+
+    @Override
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        checkType(int.class);
+        getAccessor().setInt(bean, value);
+    }
+
+    @Override
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(long.class);
+        return getAccessor().getLong(bean);
+    }
+
+    @Override
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        checkType(long.class);
+        getAccessor().setLong(bean, value);
+    }
+
+    @Override
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(float.class);
+        return getAccessor().getFloat(bean);
+    }
+
+    @Override
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        checkType(float.class);
+        getAccessor().setFloat(bean, value);
+    }
+
+    @Override
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        checkType(double.class);
+        return getAccessor().getDouble(bean);
+    }
+
+    @Override
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        checkType(double.class);
+        getAccessor().setDouble(bean, value);
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+
+public interface Accessor<T> {
+
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException;
+
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException;
+
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException;
+
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException;
+
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException;
+
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException;
+
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException;
+
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException;
+
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException;
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.HashMap;
+import java.util.Map;
+
+final class AnnotationIndex {
+
+    private final Annotation[] annotations;
+    private final Map<Class<? extends Annotation>, Annotation> annotationMap;
+
+    /**
+     * Resolves annotations of the elements, annotations of the first elements
+     * hide annotations of the same type of the following ones.
+     */
+    public AnnotationIndex(AnnotatedElement... elements) {
+        Annotation[][] elementAnnotations = new Annotation[elements.length][];
+        int length = 0;
+        for (int i = 0; i < elements.length; i++) {
+            elementAnnotations[i] = elements[i] == null ? new Annotation[0] : elements[i].getAnnotations();
+            length += elementAnnotations[i].length;
+        }
+
+        this.annotations = new Annotation[length];
+        int position = 0;
+        for (Annotation[] array : elementAnnotations) {
+            System.arraycopy(array, 0, annotations, position, array.length);
+            position += array.length;
+        }
+
+        this.annotationMap = new HashMap<Class<? extends Annotation>, Annotation>(annotations.length * 2);
+        for (Annotation annotation : annotations) {
+            if (!annotationMap.containsKey(annotation.annotationType())) {
+                annotationMap.put(annotation.annotationType(), annotation);
+            }
+        }
+    }
+
+    public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass) {
+        return annotationMap.containsKey(annotationClass);
+    }
+
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return annotationClass.cast(annotationMap.get(annotationClass));
+    }
+
+    public Annotation[] getAnnotations() {
+        return annotations.length == 0 ? annotations : annotations.clone();
+    }
+
+}
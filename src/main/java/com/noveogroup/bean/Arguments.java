@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * Checks arguments of failed accessor calls, so that a bad bean or value
+ * is reported as {@link Method#invoke(Object, Object...)} and
+ * {@link Field#set(Object, Object)} report it and only exceptions of
+ * the member itself are wrapped. Arguments are checked after a failure
+ * only, calls that succeed are not slowed down.
+ * <p>
+ * Failures of property accesses are converted to unchecked exceptions
+ * here too, for comparators, predicates and readers which do not declare
+ * checked ones.
+ * </p>
+ */
+final class Arguments {
+
+    private Arguments() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Checks the type of a typed property access.
+     */
+    public static void checkType(Class<?> propertyType, Class<?> type) {
+        if (propertyType != type) {
+            throw new IllegalArgumentException("property type is " + propertyType.getName() + " but not " + type.getName());
+        }
+    }
+
+    /**
+     * Checks that arrays of property values can hold all the properties.
+     */
+    public static void checkLength(int count, Object[] values, long[] primitives) {
+        if (values.length < count || (primitives != null && primitives.length < count)) {
+            throw new IllegalArgumentException("array length is less than the number of properties");
+        }
+    }
+
+    /**
+     * Converts a failure of a property access to an unchecked exception
+     * for callers which do not declare checked ones.
+     */
+    public static IllegalStateException wrap(IllegalAccessException e) {
+        return new IllegalStateException(e);
+    }
+
+    /**
+     * Returns the unchecked exception thrown by a getter or setter or wraps
+     * a checked one, an error is rethrown.
+     */
+    public static RuntimeException wrap(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    public static Class<?> getValueType(Member member) {
+        return member instanceof Method ? ((Method) member).getParameterTypes()[0] : ((Field) member).getType();
+    }
+
+    public static void checkBean(Class<?> beanClass, Object bean) {
+        if (bean == null) {
+            throw new NullPointerException("bean should not be null");
+        }
+        if (!beanClass.isInstance(bean)) {
+            throw new IllegalArgumentException("bean is an instance of " + bean.getClass().getName()
+                    + " but not of " + beanClass.getName());
+        }
+    }
+
+    // mirrors the unboxing and widening conversions of Method.invoke()
+    public static boolean isConvertible(Class<?> type, Object value) {
+        if (!type.isPrimitive()) {
+            return value == null || type.isInstance(value);
+        }
+        if (value == null) {
+            return false;
+        }
+        int from = Primitives.getKind(Primitives.unwrap(value.getClass()));
+        int to = Primitives.getKind(type);
+        if (from == Primitives.OBJECT || to == Primitives.OBJECT) {
+            return false;
+        }
+        if (from == to) {
+            return true;
+        }
+        switch (from) {
+            case Primitives.BYTE:
+                return to == Primitives.SHORT || to >= Primitives.INT;
+            case Primitives.SHORT:
+            case Primitives.CHAR:
+                return to >= Primitives.INT;
+            case Primitives.INT:
+            case Primitives.LONG:
+            case Primitives.FLOAT:
+                return to > from;
+            default:
+                return false;
+        }
+    }
+
+    public static void checkValue(Class<?> type, Object value) {
+        if (!isConvertible(type, value)) {
+            throw new IllegalArgumentException(value == null ? "null cannot be assigned to " + type.getName()
+                    : value.getClass().getName() + " cannot be assigned to " + type.getName());
+        }
+    }
+
+    /**
+     * Returns true if the value is valid but should be widened,
+     * accessors linked to exact types cannot pass such values.
+     */
+    public static boolean isWidened(Class<?> type, Object value) {
+        return type.isPrimitive() && value != null && value.getClass() != Primitives.wrap(type);
+    }
+
+}
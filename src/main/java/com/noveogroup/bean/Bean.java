@@ -27,7 +27,11 @@
 package com.noveogroup.bean;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public interface Bean<T> {
 
@@ -39,10 +43,180 @@ public interface Bean<T> {
 
     public T[] newBeanArray(int length);
 
+    /**
+     * Creates an array of new beans.
+     */
+    public default T[] newBeans(int count) throws InstantiationException, IllegalAccessException {
+        T[] beans = newBeanArray(count);
+        for (int i = 0; i < count; i++) {
+            beans[i] = newBean();
+        }
+        return beans;
+    }
+
+    public default int getPropertyCount() {
+        return getProperties().size();
+    }
+
+    /**
+     * Returns the index of the property.
+     *
+     * @param name the name of the property.
+     * @return the index or -1 if there is no such property.
+     */
+    public default int indexOf(String name) {
+        int index = 0;
+        for (Property<T> property : getProperties()) {
+            if (property.getName().equals(name)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    public default Property<T> getProperty(int index) {
+        if (index >= 0) {
+            int position = 0;
+            for (Property<T> property : getProperties()) {
+                if (position++ == index) {
+                    return property;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("there is no property " + index);
+    }
+
     public Property<T> getProperty(String name);
 
+    /**
+     * Returns a copy of the property table. A property is stored at
+     * the index returned by {@link Property#getIndex()} if it knows it.
+     *
+     * @return the array of properties.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public default Property<T>[] getPropertyArray() {
+        Collection<Property<T>> properties = getProperties();
+        return properties.toArray(new Property[properties.size()]);
+    }
+
+    /**
+     * Returns an unmodifiable list of properties ordered by their indexes.
+     *
+     * @return the list of properties.
+     */
     public Collection<Property<T>> getProperties();
 
+    /**
+     * Returns an unmodifiable list of properties annotated with
+     * the annotation ordered by their indexes.
+     *
+     * @param annotationClass the class of the annotation.
+     * @return the list of properties.
+     */
+    public default List<Property<T>> getProperties(Class<? extends Annotation> annotationClass) {
+        List<Property<T>> list = new ArrayList<Property<T>>();
+        for (Property<T> property : getProperties()) {
+            if (property.isAnnotationPresent(annotationClass)) {
+                list.add(property);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Reads values of all readable properties. A value is stored at
+     * the index of its property, other elements are not changed.
+     *
+     * @param bean   the bean.
+     * @param values the array of values, its length should not be less
+     *               than the number of properties.
+     */
+    public default void readValues(T bean, Object[] values) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkLength(getPropertyCount(), values, null);
+        int index = 0;
+        for (Property<T> property : getProperties()) {
+            if (property.isReadable()) {
+                values[index] = property.getValue(bean);
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Writes values of all writable properties. A value is taken from
+     * the index of its property.
+     *
+     * @param bean   the bean.
+     * @param values the array of values, its length should not be less
+     *               than the number of properties.
+     */
+    public default void writeValues(T bean, Object[] values) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkLength(getPropertyCount(), values, null);
+        int index = 0;
+        for (Property<T> property : getProperties()) {
+            if (property.isWritable()) {
+                property.setValue(bean, values[index]);
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Reads values of all readable properties without boxing primitive
+     * values. Primitive values are stored to the primitive slots as raw
+     * bits: booleans as 0 or 1, floats and doubles as returned by
+     * {@link Float#floatToRawIntBits(float)} and
+     * {@link Double#doubleToRawLongBits(double)}, other values as
+     * widened to long. Other values are stored to the value slots.
+     *
+     * @param bean       the bean.
+     * @param values     the array of values.
+     * @param primitives the array of primitive values.
+     */
+    public default void readValues(T bean, Object[] values, long[] primitives)
+            throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkLength(getPropertyCount(), values, primitives);
+        int index = 0;
+        for (Property<T> property : getProperties()) {
+            if (property.isReadable()) {
+                int kind = Primitives.getKind(property.getType());
+                if (kind == Primitives.OBJECT) {
+                    values[index] = property.getValue(bean);
+                } else {
+                    primitives[index] = Primitives.getBits(property, kind, bean);
+                }
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Writes values of all writable properties from the slots filled
+     * by {@link #readValues(Object, Object[], long[])}.
+     *
+     * @param bean       the bean.
+     * @param values     the array of values.
+     * @param primitives the array of primitive values.
+     */
+    public default void writeValues(T bean, Object[] values, long[] primitives)
+            throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkLength(getPropertyCount(), values, primitives);
+        int index = 0;
+        for (Property<T> property : getProperties()) {
+            if (property.isWritable()) {
+                int kind = Primitives.getKind(property.getType());
+                if (kind == Primitives.OBJECT) {
+                    property.setValue(bean, values[index]);
+                } else {
+                    Primitives.setBits(property, kind, bean, primitives[index]);
+                }
+            }
+            index++;
+        }
+    }
+
     public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass);
 
     public <A extends Annotation> A getAnnotation(Class<A> annotationClass);
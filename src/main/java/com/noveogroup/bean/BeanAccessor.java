@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+/**
+ * Accesses properties of a bean by their indexes.
+ * Implementations are generated by {@link CompiledAccessorFactory}
+ * and by the annotation processor for classes annotated by {@link GenerateBean}.
+ */
+public interface BeanAccessor {
+
+    public Object get(Object bean, int index);
+
+    public void set(Object bean, int index, Object value);
+
+    public boolean getBoolean(Object bean, int index);
+
+    public void setBoolean(Object bean, int index, boolean value);
+
+    public byte getByte(Object bean, int index);
+
+    public void setByte(Object bean, int index, byte value);
+
+    public short getShort(Object bean, int index);
+
+    public void setShort(Object bean, int index, short value);
+
+    public char getChar(Object bean, int index);
+
+    public void setChar(Object bean, int index, char value);
+
+    public int getInt(Object bean, int index);
+
+    public void setInt(Object bean, int index, int value);
+
+    public long getLong(Object bean, int index);
+
+    public void setLong(Object bean, int index, long value);
+
+    public float getFloat(Object bean, int index);
+
+    public void setFloat(Object bean, int index, float value);
+
+    public double getDouble(Object bean, int index);
+
+    public void setDouble(Object bean, int index, double value);
+
+}
@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates class files of {@link BeanAccessor} implementations.
+ * <p>
+ * Class files of version 49 are generated, so no stack map frames are
+ * needed. Generated classes are defined by a class loader of their own
+ * with the class loader of the bean class as the parent. That is why
+ * only public members of public classes can be accessed.
+ * </p>
+ */
+final class BeanAccessorGenerator {
+
+    private static final int VERSION = 49;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_3 = 0x2d;
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int DUP = 0x59;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int IRETURN = 0xac;
+    private static final int LRETURN = 0xad;
+    private static final int FRETURN = 0xae;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int NEW = 0xbb;
+    private static final int ATHROW = 0xbf;
+    private static final int CHECKCAST = 0xc0;
+
+    private static final Class<?>[] PRIMITIVES = {
+            boolean.class, byte.class, short.class, char.class,
+            int.class, long.class, float.class, double.class};
+    private static final Class<?>[] WRAPPERS = {
+            Boolean.class, Byte.class, Short.class, Character.class,
+            Integer.class, Long.class, Float.class, Double.class};
+
+    private BeanAccessorGenerator() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static class AccessorClassLoader extends ClassLoader {
+
+        public AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(BeanAccessor.class.getName())) {
+                return BeanAccessor.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        public Class<?> defineClass(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+    }
+
+    private static class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream output = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+        private int count = 1;
+
+        private int add(String key) {
+            int index = count++;
+            indexes.put(key, index);
+            return index;
+        }
+
+        public int utf8(String value) throws IOException {
+            Integer index = indexes.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            output.writeByte(1);
+            output.writeUTF(value);
+            return add("U" + value);
+        }
+
+        public int classRef(String internalName) throws IOException {
+            Integer index = indexes.get("C" + internalName);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(internalName);
+            output.writeByte(7);
+            output.writeShort(nameIndex);
+            return add("C" + internalName);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "N" + name + " " + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            output.writeByte(12);
+            output.writeShort(nameIndex);
+            output.writeShort(descriptorIndex);
+            return add(key);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + owner + " " + name + " " + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int classIndex = classRef(owner);
+            int nameAndTypeIndex = nameAndType(name, descriptor);
+            output.writeByte(tag);
+            output.writeShort(classIndex);
+            output.writeShort(nameAndTypeIndex);
+            return add(key);
+        }
+
+        public int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        public int methodRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        public void writeTo(DataOutputStream output) throws IOException {
+            output.writeShort(count);
+            bytes.writeTo(output);
+        }
+
+    }
+
+    private static class Code {
+
+        private byte[] data = new byte[64];
+        private int length = 0;
+
+        private void ensure(int size) {
+            if (length + size > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + size));
+            }
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public void u1(int value) {
+            ensure(1);
+            data[length++] = (byte) value;
+        }
+
+        public void u2(int value) {
+            u1(value >>> 8);
+            u1(value);
+        }
+
+        public void u4(int value) {
+            u2(value >>> 16);
+            u2(value);
+        }
+
+        public void patch(int position, int value) {
+            data[position] = (byte) (value >>> 24);
+            data[position + 1] = (byte) (value >>> 16);
+            data[position + 2] = (byte) (value >>> 8);
+            data[position + 3] = (byte) value;
+        }
+
+        public void writeTo(DataOutputStream output) throws IOException {
+            output.writeInt(length);
+            output.write(data, 0, length);
+        }
+
+    }
+
+    private interface CaseWriter {
+
+        public void write(Code code, int index) throws IOException;
+
+    }
+
+    private static String getInternalName(Class<?> type) {
+        return type.isArray() ? getDescriptor(type) : type.getName().replace('.', '/');
+    }
+
+    private static String getDescriptor(Class<?> type) {
+        if (type.isPrimitive()) {
+            if (type == boolean.class) {
+                return "Z";
+            } else if (type == byte.class) {
+                return "B";
+            } else if (type == short.class) {
+                return "S";
+            } else if (type == char.class) {
+                return "C";
+            } else if (type == int.class) {
+                return "I";
+            } else if (type == long.class) {
+                return "J";
+            } else if (type == float.class) {
+                return "F";
+            } else if (type == double.class) {
+                return "D";
+            } else {
+                return "V";
+            }
+        } else if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        } else {
+            return "L" + type.getName().replace('.', '/') + ";";
+        }
+    }
+
+    private static String getDescriptor(Method method) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            builder.append(getDescriptor(parameterType));
+        }
+        return builder.append(')').append(getDescriptor(method.getReturnType())).toString();
+    }
+
+    private static Class<?> getWrapper(Class<?> type) {
+        return WRAPPERS[Arrays.asList(PRIMITIVES).indexOf(type)];
+    }
+
+    private static void box(ConstantPool pool, Code code, Class<?> type) throws IOException {
+        if (type.isPrimitive()) {
+            String wrapper = getInternalName(getWrapper(type));
+            code.u1(INVOKESTATIC);
+            code.u2(pool.methodRef(wrapper, "valueOf", "(" + getDescriptor(type) + ")L" + wrapper + ";"));
+        }
+    }
+
+    private static void unbox(ConstantPool pool, Code code, Class<?> type) throws IOException {
+        if (type.isPrimitive()) {
+            String wrapper = getInternalName(getWrapper(type));
+            code.u1(CHECKCAST);
+            code.u2(pool.classRef(wrapper));
+            code.u1(INVOKEVIRTUAL);
+            code.u2(pool.methodRef(wrapper, type.getName() + "Value", "()" + getDescriptor(type)));
+        } else if (type != Object.class) {
+            code.u1(CHECKCAST);
+            code.u2(pool.classRef(getInternalName(type)));
+        }
+    }
+
+    private static void writeThrow(ConstantPool pool, Code code) throws IOException {
+        String exception = getInternalName(IllegalArgumentException.class);
+        code.u1(NEW);
+        code.u2(pool.classRef(exception));
+        code.u1(DUP);
+        code.u1(INVOKESPECIAL);
+        code.u2(pool.methodRef(exception, "<init>", "()V"));
+        code.u1(ATHROW);
+    }
+
+    private static void writeSwitch(ConstantPool pool, Code code, int indexVariable,
+                                    Member[] members, CaseWriter caseWriter) throws IOException {
+        int low = -1;
+        int high = -1;
+        for (int i = 0; i < members.length; i++) {
+            if (members[i] != null) {
+                low = low < 0 ? i : low;
+                high = i;
+            }
+        }
+        if (low < 0) {
+            writeThrow(pool, code);
+            return;
+        }
+
+        code.u1(ILOAD);
+        code.u1(indexVariable);
+        int switchPosition = code.length();
+        code.u1(TABLESWITCH);
+        while (code.length() % 4 != 0) {
+            code.u1(0);
+        }
+        int defaultPosition = code.length();
+        code.u4(0);
+        code.u4(low);
+        code.u4(high);
+        int tablePosition = code.length();
+        for (int i = low; i <= high; i++) {
+            code.u4(0);
+        }
+
+        for (int i = low; i <= high; i++) {
+            if (members[i] != null) {
+                code.patch(tablePosition + 4 * (i - low), code.length() - switchPosition);
+                caseWriter.write(code, i);
+            }
+        }
+
+        int defaultOffset = code.length() - switchPosition;
+        code.patch(defaultPosition, defaultOffset);
+        for (int i = low; i <= high; i++) {
+            if (members[i] == null) {
+                code.patch(tablePosition + 4 * (i - low), defaultOffset);
+            }
+        }
+        writeThrow(pool, code);
+    }
+
+    private static void writeMethod(ConstantPool pool, DataOutputStream output,
+                                    String name, String descriptor, int maxStack, int maxLocals,
+                                    Code code) throws IOException {
+        output.writeShort(ACC_PUBLIC);
+        output.writeShort(pool.utf8(name));
+        output.writeShort(pool.utf8(descriptor));
+        output.writeShort(1);
+        output.writeShort(pool.utf8("Code"));
+        output.writeInt(2 + 2 + 4 + code.length() + 2 + 2);
+        output.writeShort(maxStack);
+        output.writeShort(maxLocals);
+        code.writeTo(output);
+        output.writeShort(0);
+        output.writeShort(0);
+    }
+
+    private static Class<?> getType(Member member, boolean isGetter) {
+        if (member instanceof Field) {
+            return ((Field) member).getType();
+        } else if (isGetter) {
+            return ((Method) member).getReturnType();
+        } else {
+            return ((Method) member).getParameterTypes()[0];
+        }
+    }
+
+    private static Member[] filter(Member[] members, Class<?> type, boolean isGetter) {
+        Member[] filtered = new Member[members.length];
+        for (int i = 0; i < members.length; i++) {
+            if (members[i] != null && getType(members[i], isGetter) == type) {
+                filtered[i] = members[i];
+            }
+        }
+        return filtered;
+    }
+
+    private static String getMethodName(String prefix, Class<?> primitive) {
+        if (primitive == null) {
+            return prefix;
+        }
+        String name = primitive.getName();
+        return prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static int getReturnOpcode(Class<?> type) {
+        if (type == null || !type.isPrimitive()) {
+            return ARETURN;
+        } else if (type == long.class) {
+            return LRETURN;
+        } else if (type == float.class) {
+            return FRETURN;
+        } else if (type == double.class) {
+            return DRETURN;
+        } else {
+            return IRETURN;
+        }
+    }
+
+    private static int getLoadOpcode(Class<?> type) {
+        if (type == long.class) {
+            return LLOAD;
+        } else if (type == float.class) {
+            return FLOAD;
+        } else if (type == double.class) {
+            return DLOAD;
+        } else {
+            return ILOAD;
+        }
+    }
+
+    private static void writeGetter(final ConstantPool pool, DataOutputStream methods, final String beanName,
+                                    final Member[] getters, final Class<?> primitive) throws IOException {
+        Code code = new Code();
+        writeSwitch(pool, code, 2, getters, new CaseWriter() {
+            @Override
+            public void write(Code code, int index) throws IOException {
+                code.u1(ALOAD_1);
+                code.u1(CHECKCAST);
+                code.u2(pool.classRef(beanName));
+                Class<?> type = getType(getters[index], true);
+                if (getters[index] instanceof Method) {
+                    Method method = (Method) getters[index];
+                    code.u1(INVOKEVIRTUAL);
+                    code.u2(pool.methodRef(beanName, method.getName(), getDescriptor(method)));
+                } else {
+                    Field field = (Field) getters[index];
+                    code.u1(GETFIELD);
+                    code.u2(pool.fieldRef(beanName, field.getName(), getDescriptor(type)));
+                }
+                if (primitive == null) {
+                    box(pool, code, type);
+                }
+                code.u1(getReturnOpcode(primitive));
+            }
+        });
+        String returnType = primitive == null ? "Ljava/lang/Object;" : getDescriptor(primitive);
+        writeMethod(pool, methods, getMethodName("get", primitive), "(Ljava/lang/Object;I)" + returnType,
+                4, 3, code);
+    }
+
+    private static void writeSetter(final ConstantPool pool, DataOutputStream methods, final String beanName,
+                                    final Member[] setters, final Class<?> primitive) throws IOException {
+        Code code = new Code();
+        writeSwitch(pool, code, 2, setters, new CaseWriter() {
+            @Override
+            public void write(Code code, int index) throws IOException {
+                code.u1(ALOAD_1);
+                code.u1(CHECKCAST);
+                code.u2(pool.classRef(beanName));
+                Class<?> type = getType(setters[index], false);
+                if (primitive == null) {
+                    code.u1(ALOAD_3);
+                    unbox(pool, code, type);
+                } else {
+                    code.u1(getLoadOpcode(primitive));
+                    code.u1(3);
+                }
+                if (setters[index] instanceof Method) {
+                    Method method = (Method) setters[index];
+                    code.u1(INVOKEVIRTUAL);
+                    code.u2(pool.methodRef(beanName, method.getName(), getDescriptor(method)));
+                } else {
+                    Field field = (Field) setters[index];
+                    code.u1(PUTFIELD);
+                    code.u2(pool.fieldRef(beanName, field.getName(), getDescriptor(type)));
+                }
+                code.u1(RETURN);
+            }
+        });
+        String valueType = primitive == null ? "Ljava/lang/Object;" : getDescriptor(primitive);
+        writeMethod(pool, methods, getMethodName("set", primitive), "(Ljava/lang/Object;I" + valueType + ")V",
+                4, 5, code);
+    }
+
+    private static byte[] generate(String className, Class<?> beanClass,
+                                   Member[] getters, Member[] setters) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        String beanName = getInternalName(beanClass);
+
+        ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        DataOutputStream methods = new DataOutputStream(methodBytes);
+
+        // public <init>()
+        Code constructor = new Code();
+        constructor.u1(ALOAD_0);
+        constructor.u1(INVOKESPECIAL);
+        constructor.u2(pool.methodRef("java/lang/Object", "<init>", "()V"));
+        constructor.u1(RETURN);
+        writeMethod(pool, methods, "<init>", "()V", 1, 1, constructor);
+
+        // public Object get(Object bean, int index)
+        // public void set(Object bean, int index, Object value)
+        writeGetter(pool, methods, beanName, getters, null);
+        writeSetter(pool, methods, beanName, setters, null);
+
+        // public type getType(Object bean, int index)
+        // public void setType(Object bean, int index, type value)
+        for (Class<?> primitive : PRIMITIVES) {
+            writeGetter(pool, methods, beanName, filter(getters, primitive, true), primitive);
+            writeSetter(pool, methods, beanName, filter(setters, primitive, false), primitive);
+        }
+
+        int thisClass = pool.classRef(className.replace('.', '/'));
+        int superClass = pool.classRef("java/lang/Object");
+        int interfaceClass = pool.classRef(getInternalName(BeanAccessor.class));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0xCAFEBABE);
+        output.writeShort(0);
+        output.writeShort(VERSION);
+        pool.writeTo(output);
+        output.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        output.writeShort(thisClass);
+        output.writeShort(superClass);
+        output.writeShort(1);
+        output.writeShort(interfaceClass);
+        output.writeShort(0);
+        output.writeShort(3 + 2 * PRIMITIVES.length);
+        methodBytes.writeTo(output);
+        output.writeShort(0);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Generates and instantiates an accessor of the bean class.
+     * Members at index i are accessed by {@code get(bean, i)} and
+     * {@code set(bean, i, value)}, null members are skipped.
+     *
+     * @return the accessor or null if it cannot be generated.
+     */
+    public static BeanAccessor generate(Class<?> beanClass, Member[] getters, Member[] setters) {
+        String className = beanClass.getName() + "$$BeanAccessor";
+        try {
+            byte[] bytes = generate(className, beanClass, getters, setters);
+            AccessorClassLoader classLoader = new AccessorClassLoader(beanClass.getClassLoader());
+            Class<?> accessorClass = classLoader.defineClass(className, bytes);
+            return (BeanAccessor) accessorClass.getConstructor().newInstance();
+        } catch (IOException e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A collection of beans with optional hash and sorted indexes on their
+ * properties. Queries by {@link BeanPredicate} look candidates up in an
+ * index if the predicate or one of the predicates joined by
+ * {@link BeanPredicate#and(BeanPredicate[])} is an equality, a range or
+ * {@code in} over an indexed property, other queries scan all beans.
+ * <p>
+ * Indexes do not notice changes of beans, {@link #update(Object)} should
+ * be called after indexed properties of a bean are changed. The collection
+ * is not thread-safe, but queries can run concurrently while it is not
+ * modified.
+ * </p>
+ */
+public class BeanCollection<T> {
+
+    private static final class Index<T> {
+
+        /**
+         * The key of a bean and its position in the bucket of the key.
+         */
+        private static final class Slot {
+
+            private final Object key;
+            private int position = -1;
+
+            public Slot(Object key) {
+                this.key = key;
+            }
+
+        }
+
+        private final Property<T> property;
+        private final boolean sorted;
+        private final Map<Object, List<T>> buckets;
+        private final IdentityHashMap<T, Slot> slots = new IdentityHashMap<T, Slot>();
+
+        public Index(Property<T> property, boolean sorted) {
+            this.property = property;
+            this.sorted = sorted;
+            this.buckets = sorted ? new TreeMap<Object, List<T>>() : new HashMap<Object, List<T>>();
+        }
+
+        public void add(T bean) throws IllegalAccessException, InvocationTargetException {
+            add(bean, property.getValue(bean));
+        }
+
+        private void add(T bean, Object key) {
+            Slot slot = new Slot(key);
+            slots.put(bean, slot);
+            // null values are not comparable so sorted indexes skip them
+            if (key == null && sorted) {
+                return;
+            }
+            List<T> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new ArrayList<T>(1);
+                buckets.put(key, bucket);
+            }
+            slot.position = bucket.size();
+            bucket.add(bean);
+        }
+
+        public void remove(T bean) {
+            Slot slot = slots.remove(bean);
+            if (slot == null || slot.position < 0) {
+                return;
+            }
+            // the last bean of the bucket takes the place of the removed one
+            List<T> bucket = buckets.get(slot.key);
+            T last = bucket.remove(bucket.size() - 1);
+            if (last != bean) {
+                bucket.set(slot.position, last);
+                slots.get(last).position = slot.position;
+            }
+            if (bucket.isEmpty()) {
+                buckets.remove(slot.key);
+            }
+        }
+
+        public void update(T bean) throws IllegalAccessException, InvocationTargetException {
+            Object key = property.getValue(bean);
+            Slot slot = slots.get(bean);
+            if (slot != null && (key == null ? slot.key == null : key.equals(slot.key))) {
+                return;
+            }
+            remove(bean);
+            add(bean, key);
+        }
+
+        public void addBucket(Collection<T> candidates, Object key) {
+            List<T> bucket = buckets.get(key);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+
+        /**
+         * Returns candidates of the predicate or null if the index cannot select them.
+         */
+        public List<T> lookup(BeanPredicate<T> predicate) {
+            List<T> candidates = new ArrayList<T>();
+            if (predicate instanceof BeanPredicate.Range) {
+                BeanPredicate.Range<T> range = (BeanPredicate.Range<T>) predicate;
+                if (range.equality) {
+                    addBucket(candidates, range.lower);
+                } else if (sorted) {
+                    for (List<T> bucket : subMap(range).values()) {
+                        candidates.addAll(bucket);
+                    }
+                } else {
+                    return null;
+                }
+            } else if (predicate instanceof BeanPredicate.In) {
+                for (Object value : ((BeanPredicate.In<T>) predicate).values) {
+                    addBucket(candidates, value);
+                }
+            } else {
+                return null;
+            }
+            return candidates;
+        }
+
+        private NavigableMap<Object, List<T>> subMap(BeanPredicate.Range<T> range) {
+            NavigableMap<Object, List<T>> map = (NavigableMap<Object, List<T>>) buckets;
+            if (range.lower != null) {
+                map = map.tailMap(range.lower, range.lowerInclusive);
+            }
+            if (range.upper != null) {
+                map = map.headMap(range.upper, range.upperInclusive);
+            }
+            return map;
+        }
+
+    }
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final Bean<T> bean;
+    private final List<T> beans = new ArrayList<T>();
+    private final IdentityHashMap<T, Integer> positions = new IdentityHashMap<T, Integer>();
+    private final Map<String, Index<T>> indexes = new HashMap<String, Index<T>>();
+
+    public BeanCollection(Bean<T> bean) {
+        this.bean = bean;
+    }
+
+    public Bean<T> getBean() {
+        return bean;
+    }
+
+    public int size() {
+        return beans.size();
+    }
+
+    /**
+     * Returns an unmodifiable view of beans. Removals change the order of beans.
+     */
+    public List<T> getBeans() {
+        return Collections.unmodifiableList(beans);
+    }
+
+    public boolean contains(T bean) {
+        return positions.containsKey(bean);
+    }
+
+    /**
+     * Adds the bean if the collection does not contain the same instance.
+     *
+     * @return true if the bean is added.
+     */
+    public boolean add(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (bean == null) {
+            throw new IllegalArgumentException("bean should not be null");
+        }
+        if (positions.containsKey(bean)) {
+            return false;
+        }
+        for (Index<T> index : indexes.values()) {
+            index.add(bean);
+        }
+        positions.put(bean, beans.size());
+        beans.add(bean);
+        return true;
+    }
+
+    public void addAll(Collection<? extends T> beans) throws IllegalAccessException, InvocationTargetException {
+        for (T bean : beans) {
+            add(bean);
+        }
+    }
+
+    /**
+     * Removes the bean, the last bean takes its place.
+     *
+     * @return true if the bean was removed.
+     */
+    public boolean remove(T bean) {
+        Integer position = positions.remove(bean);
+        if (position == null) {
+            return false;
+        }
+        for (Index<T> index : indexes.values()) {
+            index.remove(bean);
+        }
+        T last = beans.remove(beans.size() - 1);
+        if (last != bean) {
+            beans.set(position, last);
+            positions.put(last, position);
+        }
+        return true;
+    }
+
+    /**
+     * Updates indexes after properties of the bean are changed. Indexes
+     * of properties which values are still equal are not changed.
+     *
+     * @throws IllegalArgumentException if the collection does not contain the bean.
+     */
+    public void update(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (!positions.containsKey(bean)) {
+            throw new IllegalArgumentException("collection does not contain the bean");
+        }
+        for (Index<T> index : indexes.values()) {
+            index.update(bean);
+        }
+    }
+
+    public void clear() {
+        beans.clear();
+        positions.clear();
+        for (Map.Entry<String, Index<T>> entry : indexes.entrySet()) {
+            entry.setValue(new Index<T>(entry.getValue().property, entry.getValue().sorted));
+        }
+    }
+
+    private Property<T> getReadableProperty(String propertyName) {
+        Property<T> property = bean.getProperty(propertyName);
+        if (property == null || !property.isReadable()) {
+            throw new IllegalArgumentException("there is no readable property " + propertyName);
+        }
+        return property;
+    }
+
+    /**
+     * Creates an index of the property replacing an existing one.
+     *
+     * @param sorted if true then the index also selects ranges of values,
+     *               otherwise it is a hash index selecting equal values only.
+     */
+    public void createIndex(String propertyName, boolean sorted)
+            throws IllegalAccessException, InvocationTargetException {
+        Property<T> property = getReadableProperty(propertyName);
+        if (sorted && !property.getType().isPrimitive() && !Comparable.class.isAssignableFrom(property.getType())) {
+            throw new IllegalArgumentException("values of " + propertyName + " are not comparable");
+        }
+        Index<T> index = new Index<T>(property, sorted);
+        for (T bean : beans) {
+            index.add(bean);
+        }
+        indexes.put(propertyName, index);
+    }
+
+    public boolean dropIndex(String propertyName) {
+        return indexes.remove(propertyName) != null;
+    }
+
+    public boolean isIndexed(String propertyName) {
+        return indexes.containsKey(propertyName);
+    }
+
+    private List<T> lookup(BeanPredicate<T> predicate) {
+        Property<T> property;
+        if (predicate instanceof BeanPredicate.Range) {
+            property = ((BeanPredicate.Range<T>) predicate).property;
+        } else if (predicate instanceof BeanPredicate.In) {
+            property = ((BeanPredicate.In<T>) predicate).property;
+        } else {
+            return null;
+        }
+        Index<T> index = indexes.get(property.getName());
+        return index == null || index.property != property ? null : index.lookup(predicate);
+    }
+
+    /**
+     * Returns the smallest list of candidates selected by an index
+     * or null if indexes cannot select candidates.
+     */
+    private List<T> findCandidates(BeanPredicate<T> predicate) {
+        if (!(predicate instanceof BeanPredicate.And)) {
+            return lookup(predicate);
+        }
+        List<T> candidates = null;
+        for (BeanPredicate<T> child : ((BeanPredicate.And<T>) predicate).predicates) {
+            List<T> list = findCandidates(child);
+            if (list != null && (candidates == null || list.size() < candidates.size())) {
+                candidates = list;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Tests beans from {@code from} to {@code to} by batches.
+     *
+     * @param result the list to add matching beans to or null to count them only.
+     * @return the number of matching beans.
+     */
+    private static <T> int select(BeanPredicate<T> predicate, List<T> beans, int from, int to, List<T> result)
+            throws IllegalAccessException, InvocationTargetException {
+        int[] selection = new int[Math.min(BATCH_SIZE, to - from)];
+        int total = 0;
+        for (int start = from; start < to; start += BATCH_SIZE) {
+            int count = Math.min(BATCH_SIZE, to - start);
+            for (int i = 0; i < count; i++) {
+                selection[i] = start + i;
+            }
+            int matched = predicate.filter(beans, selection, count);
+            if (result != null) {
+                for (int i = 0; i < matched; i++) {
+                    result.add(beans.get(selection[i]));
+                }
+            }
+            total += matched;
+        }
+        return total;
+    }
+
+    public List<T> select(BeanPredicate<T> predicate) throws IllegalAccessException, InvocationTargetException {
+        List<T> candidates = indexes.isEmpty() ? null : findCandidates(predicate);
+        List<T> list = candidates == null ? beans : candidates;
+        List<T> result = new ArrayList<T>();
+        select(predicate, list, 0, list.size(), result);
+        return result;
+    }
+
+    /**
+     * Selects beans matching the predicate.
+     *
+     * @param parallel if true then batches of beans are tested in parallel by
+     *                 the common fork-join pool and exceptions of property
+     *                 accessors are rethrown as unchecked ones.
+     */
+    public List<T> select(final BeanPredicate<T> predicate, boolean parallel)
+            throws IllegalAccessException, InvocationTargetException {
+        if (!parallel) {
+            return select(predicate);
+        }
+        List<T> candidates = indexes.isEmpty() ? null : findCandidates(predicate);
+        final List<T> list = candidates == null ? beans : candidates;
+        List<List<T>> results = IntStream.range(0, (list.size() + BATCH_SIZE - 1) / BATCH_SIZE).parallel()
+                .mapToObj(new IntFunction<List<T>>() {
+                    @Override
+                    public List<T> apply(int batch) {
+                        int from = batch * BATCH_SIZE;
+                        List<T> result = new ArrayList<T>();
+                        try {
+                            select(predicate, list, from, Math.min(list.size(), from + BATCH_SIZE), result);
+                        } catch (IllegalAccessException e) {
+                            throw Arguments.wrap(e);
+                        } catch (InvocationTargetException e) {
+                            throw Arguments.wrap(e);
+                        }
+                        return result;
+                    }
+                })
+                .collect(Collectors.<List<T>>toList());
+        List<T> result = new ArrayList<T>();
+        for (List<T> batchResult : results) {
+            result.addAll(batchResult);
+        }
+        return result;
+    }
+
+    public int count(BeanPredicate<T> predicate) throws IllegalAccessException, InvocationTargetException {
+        List<T> candidates = indexes.isEmpty() ? null : findCandidates(predicate);
+        List<T> list = candidates == null ? beans : candidates;
+        return select(predicate, list, 0, list.size(), null);
+    }
+
+    /**
+     * Groups beans by values of the property, null values form a group too.
+     */
+    public Map<Object, List<T>> group(String propertyName) throws IllegalAccessException, InvocationTargetException {
+        Index<T> index = indexes.get(propertyName);
+        Map<Object, List<T>> groups = new LinkedHashMap<Object, List<T>>();
+        if (index != null && !index.sorted) {
+            for (Map.Entry<Object, List<T>> entry : index.buckets.entrySet()) {
+                groups.put(entry.getKey(), new ArrayList<T>(entry.getValue()));
+            }
+            return groups;
+        }
+        Property<T> property = getReadableProperty(propertyName);
+        for (T bean : beans) {
+            Object key = property.getValue(bean);
+            List<T> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<T>();
+                groups.put(key, group);
+            }
+            group.add(bean);
+        }
+        return groups;
+    }
+
+}
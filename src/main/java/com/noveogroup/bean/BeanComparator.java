@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compares beans by values of an ordered list of properties. Values of
+ * primitive properties are compared without boxing, so a comparison does
+ * not allocate for beans with field or compiled accessors. Values of other
+ * properties should be {@link Comparable}, nulls are ordered first or last.
+ * <p>
+ * No comparator class is generated, the kinds of properties are resolved
+ * once and every comparison switches over them, so a comparison does not
+ * box or call {@link Property#getValue(Object)} for primitive properties.
+ * </p>
+ * <p>
+ * The comparator is stateless and can be used by parallel sorts.
+ * </p>
+ */
+public class BeanComparator<T> implements Comparator<T> {
+
+    private final Property<T>[] properties;
+    private final int[] kinds;
+    private final boolean[] descending;
+    private final boolean nullsFirst;
+
+    /**
+     * Creates the comparator.
+     *
+     * @param properties the properties compared one after another.
+     * @param descending true at the index of a property compared in
+     *                   descending order or null if all properties are
+     *                   compared in ascending order.
+     * @param nullsFirst if true then null values are less than others.
+     * @throws IllegalArgumentException if a property is not readable or its
+     *                                  type is neither primitive nor comparable.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BeanComparator(List<Property<T>> properties, boolean[] descending, boolean nullsFirst) {
+        if (descending != null && descending.length != properties.size()) {
+            throw new IllegalArgumentException("there should be " + properties.size() + " orders");
+        }
+        this.properties = properties.toArray(new Property[properties.size()]);
+        this.kinds = new int[this.properties.length];
+        this.descending = descending == null ? new boolean[this.properties.length] : descending.clone();
+        this.nullsFirst = nullsFirst;
+        for (int i = 0; i < this.properties.length; i++) {
+            Property<T> property = this.properties[i];
+            if (!property.isReadable()) {
+                throw new IllegalArgumentException("property " + property.getName() + " is not readable");
+            }
+            Class<?> type = property.getType();
+            if (!type.isPrimitive() && !Comparable.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("property " + property.getName() + " is not comparable");
+            }
+            kinds[i] = Primitives.getKind(type);
+        }
+    }
+
+    /**
+     * Creates the comparator of properties in ascending order
+     * with null values first.
+     */
+    public static <T> BeanComparator<T> create(Bean<T> bean, String... propertyNames) {
+        return new BeanComparator<T>(getProperties(bean, propertyNames), null, true);
+    }
+
+    static <T> List<Property<T>> getProperties(Bean<T> bean, String... propertyNames) {
+        List<Property<T>> properties = new ArrayList<Property<T>>(propertyNames.length);
+        for (String propertyName : propertyNames) {
+            Property<T> property = bean.getProperty(propertyName);
+            if (property == null) {
+                throw new IllegalArgumentException("there is no property " + propertyName);
+            }
+            properties.add(property);
+        }
+        return properties;
+    }
+
+    /**
+     * Compares two beans.
+     *
+     * @throws IllegalStateException if a property cannot be accessed or
+     *                               its getter throws a checked exception.
+     */
+    @Override
+    public int compare(T a, T b) {
+        try {
+            for (int i = 0; i < kinds.length; i++) {
+                int result = compare(properties[i], kinds[i], a, b, descending[i]);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        } catch (IllegalAccessException e) {
+            throw Arguments.wrap(e);
+        } catch (InvocationTargetException e) {
+            throw Arguments.wrap(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Property<T> property, int kind, T a, T b, boolean descending)
+            throws IllegalAccessException, InvocationTargetException {
+        if (kind == Primitives.OBJECT) {
+            // nulls are ordered regardless of the order of values
+            Comparable<Object> x = (Comparable<Object>) property.getValue(a);
+            Comparable<Object> y = (Comparable<Object>) property.getValue(b);
+            if (x == y) {
+                return 0;
+            } else if (x == null) {
+                return nullsFirst ? -1 : 1;
+            } else if (y == null) {
+                return nullsFirst ? 1 : -1;
+            } else {
+                return descending ? y.compareTo(x) : x.compareTo(y);
+            }
+        }
+        int result = comparePrimitive(property, kind, a, b);
+        return descending ? -result : result;
+    }
+
+    private static <T> int comparePrimitive(Property<T> property, int kind, T a, T b)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                return Boolean.compare(property.getBoolean(a), property.getBoolean(b));
+            case Primitives.BYTE:
+                return property.getByte(a) - property.getByte(b);
+            case Primitives.SHORT:
+                return property.getShort(a) - property.getShort(b);
+            case Primitives.CHAR:
+                return property.getChar(a) - property.getChar(b);
+            case Primitives.INT:
+                return Integer.compare(property.getInt(a), property.getInt(b));
+            case Primitives.LONG:
+                return Long.compare(property.getLong(a), property.getLong(b));
+            case Primitives.FLOAT:
+                return Float.compare(property.getFloat(a), property.getFloat(b));
+            case Primitives.DOUBLE:
+                return Double.compare(property.getDouble(a), property.getDouble(b));
+            default:
+                throw new IllegalArgumentException("property is not primitive");
+        }
+    }
+
+}
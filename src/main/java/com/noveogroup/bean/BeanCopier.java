@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Copies values of properties having the same name from beans of one
+ * class to beans of another one. Matching pairs of readable and writable
+ * properties are found once when the copier is created.
+ * <p>
+ * Primitive values are copied without boxing. Values of other types are
+ * copied if the type of the destination property is assignable from the
+ * type of the source property or if one type is the wrapper of the other.
+ * </p>
+ */
+public class BeanCopier<S, D> {
+
+    private final BeanRegistry registry;
+    private final Bean<S> sourceBean;
+    private final Bean<D> destinationBean;
+    private final CopyOption[] options;
+    private final boolean skipNulls;
+    private final boolean deep;
+
+    private final Property<S>[] sources;
+    private final Property<D>[] destinations;
+    private final int[] kinds;
+    private final boolean[] isPrimitiveDestination;
+
+    private final boolean isSameType;
+    private final ConcurrentMap<Class<?>, BeanCopier<?, ?>> copiers;
+    private final ConcurrentMap<Class<?>, BeanInstantiator<?>> instantiators;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BeanCopier(BeanRegistry registry, Bean<S> sourceBean, Bean<D> destinationBean, CopyOption... options) {
+        this.registry = registry;
+        this.sourceBean = sourceBean;
+        this.destinationBean = destinationBean;
+        this.options = options.clone();
+
+        Set<CopyOption> optionSet = EnumSet.noneOf(CopyOption.class);
+        optionSet.addAll(Arrays.asList(options));
+        this.skipNulls = optionSet.contains(CopyOption.SKIP_NULLS);
+        this.deep = optionSet.contains(CopyOption.DEEP);
+
+        // build the copy plan
+        List<Property<S>> sources = new ArrayList<Property<S>>();
+        List<Property<D>> destinations = new ArrayList<Property<D>>();
+        List<Integer> kinds = new ArrayList<Integer>();
+        for (Property<D> destination : destinationBean.getProperties()) {
+            Property<S> source = sourceBean.getProperty(destination.getName());
+            if (source == null || !source.isReadable() || !destination.isWritable()) {
+                continue;
+            }
+            int kind = getKind(source.getType(), destination.getType());
+            if (kind >= 0) {
+                sources.add(source);
+                destinations.add(destination);
+                kinds.add(kind);
+            }
+        }
+
+        int count = kinds.size();
+        this.sources = sources.toArray(new Property[count]);
+        this.destinations = destinations.toArray(new Property[count]);
+        this.kinds = new int[count];
+        this.isPrimitiveDestination = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            this.kinds[i] = kinds.get(i);
+            this.isPrimitiveDestination[i] = this.destinations[i].getType().isPrimitive();
+        }
+
+        this.isSameType = sourceBean.getBeanClass() == destinationBean.getBeanClass();
+        this.copiers = deep ? new ConcurrentHashMap<Class<?>, BeanCopier<?, ?>>() : null;
+        this.instantiators = deep ? new ConcurrentHashMap<Class<?>, BeanInstantiator<?>>() : null;
+    }
+
+    private static int getKind(Class<?> sourceType, Class<?> destinationType) {
+        if (sourceType == destinationType && sourceType.isPrimitive()) {
+            return Primitives.getKind(sourceType);
+        }
+        if (Primitives.wrap(destinationType).isAssignableFrom(Primitives.wrap(sourceType))) {
+            return Primitives.OBJECT;
+        }
+        return -1;
+    }
+
+    public Bean<S> getSourceBean() {
+        return sourceBean;
+    }
+
+    public Bean<D> getDestinationBean() {
+        return destinationBean;
+    }
+
+    public D copy(S source) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        return copy(source, destinationBean.newBean());
+    }
+
+    public D copy(S source, D destination)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        return copy(source, destination, deep ? new IdentityHashMap<Object, Object>() : null);
+    }
+
+    /**
+     * Copies the list of beans to the array. Null elements of the array
+     * are replaced with new beans. If the array is shorter than the list
+     * then a new array is created.
+     *
+     * @return the array of copies.
+     */
+    public D[] copyAll(List<? extends S> sources, D[] destinations)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        int size = sources.size();
+        if (destinations == null || destinations.length < size) {
+            destinations = destinationBean.newBeanArray(size);
+        }
+        Map<Object, Object> copies = deep ? new IdentityHashMap<Object, Object>() : null;
+        for (int i = 0; i < size; i++) {
+            if (destinations[i] == null) {
+                destinations[i] = destinationBean.newBean();
+            }
+            copy(sources.get(i), destinations[i], copies);
+        }
+        return destinations;
+    }
+
+    public D[] copyAll(List<? extends S> sources)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        return copyAll(sources, null);
+    }
+
+    private D copy(S source, D destination, Map<Object, Object> copies)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        // a copy of another type cannot replace references to the source, they get a copy of the same type
+        if (copies != null && isSameType) {
+            copies.put(source, destination);
+        }
+        for (int i = 0; i < kinds.length; i++) {
+            Property<S> sourceProperty = sources[i];
+            Property<D> destinationProperty = destinations[i];
+            switch (kinds[i]) {
+                case Primitives.BOOLEAN:
+                    destinationProperty.setBoolean(destination, sourceProperty.getBoolean(source));
+                    break;
+                case Primitives.BYTE:
+                    destinationProperty.setByte(destination, sourceProperty.getByte(source));
+                    break;
+                case Primitives.SHORT:
+                    destinationProperty.setShort(destination, sourceProperty.getShort(source));
+                    break;
+                case Primitives.CHAR:
+                    destinationProperty.setChar(destination, sourceProperty.getChar(source));
+                    break;
+                case Primitives.INT:
+                    destinationProperty.setInt(destination, sourceProperty.getInt(source));
+                    break;
+                case Primitives.LONG:
+                    destinationProperty.setLong(destination, sourceProperty.getLong(source));
+                    break;
+                case Primitives.FLOAT:
+                    destinationProperty.setFloat(destination, sourceProperty.getFloat(source));
+                    break;
+                case Primitives.DOUBLE:
+                    destinationProperty.setDouble(destination, sourceProperty.getDouble(source));
+                    break;
+                default:
+                    Object value = sourceProperty.getValue(source);
+                    if (value == null && (skipNulls || isPrimitiveDestination[i])) {
+                        break;
+                    }
+                    if (copies != null) {
+                        value = copyValue(value, copies);
+                    }
+                    destinationProperty.setValue(destination, value);
+                    break;
+            }
+        }
+        return destination;
+    }
+
+    private static boolean isShared(Class<?> type) {
+        String name = type.getName();
+        return type.isEnum() || name.startsWith("java.") || name.startsWith("javax.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> BeanCopier<V, V> getCopier(Class<V> type) {
+        BeanCopier<?, ?> copier = copiers.get(type);
+        if (copier == null) {
+            Bean<V> bean = registry.get(type);
+            copier = new BeanCopier<V, V>(registry, bean, bean, options);
+            BeanCopier<?, ?> previous = copiers.putIfAbsent(type, copier);
+            copier = previous == null ? copier : previous;
+        }
+        return (BeanCopier<V, V>) copier;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V newInstance(Class<V> type) throws InstantiationException, IllegalAccessException {
+        // collections are created by cached constructors, so they are not introspected as beans
+        BeanInstantiator<?> instantiator = instantiators.get(type);
+        if (instantiator == null) {
+            instantiator = new BeanInstantiator<V>(type);
+            BeanInstantiator<?> previous = instantiators.putIfAbsent(type, instantiator);
+            instantiator = previous == null ? instantiator : previous;
+        }
+        return (V) instantiator.newInstance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyValue(Object value, Map<Object, Object> copies)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        if (value == null) {
+            return null;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+
+        Class<Object> type = (Class<Object>) value.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(value);
+            if (type.getComponentType().isPrimitive()) {
+                copy = Array.newInstance(type.getComponentType(), length);
+                System.arraycopy(value, 0, copy, 0, length);
+                copies.put(value, copy);
+            } else {
+                Object[] array = (Object[]) Array.newInstance(type.getComponentType(), length);
+                copies.put(value, array);
+                for (int i = 0; i < length; i++) {
+                    array[i] = copyValue(((Object[]) value)[i], copies);
+                }
+                copy = array;
+            }
+        } else if (value instanceof Collection && isCopyable(type)) {
+            Collection<Object> collection = (Collection<Object>) newInstance(type);
+            copies.put(value, collection);
+            for (Object element : (Collection<Object>) value) {
+                collection.add(copyValue(element, copies));
+            }
+            copy = collection;
+        } else if (value instanceof Map && isCopyable(type)) {
+            Map<Object, Object> map = (Map<Object, Object>) newInstance(type);
+            copies.put(value, map);
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                map.put(copyValue(entry.getKey(), copies), copyValue(entry.getValue(), copies));
+            }
+            copy = map;
+        } else if (isShared(type)) {
+            copy = value;
+        } else {
+            BeanCopier<Object, Object> copier = getCopier(type);
+            copy = copier.copy(value, copier.destinationBean.newBean(), copies);
+        }
+        return copy;
+    }
+
+    private static boolean isCopyable(Class<?> type) {
+        // sorted collections are shared because their comparators cannot be copied
+        if (SortedSet.class.isAssignableFrom(type) || SortedMap.class.isAssignableFrom(type)) {
+            return false;
+        }
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+}
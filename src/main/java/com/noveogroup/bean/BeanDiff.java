@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.BitSet;
+
+/**
+ * Finds readable properties whose values differ between two beans or
+ * between a bean and its snapshot. Changed properties are returned as
+ * a bit set of their indexes.
+ * <p>
+ * Values of primitive properties are compared as raw bits without boxing,
+ * so {@code NaN} equals {@code NaN} and {@code 0.0} differs from
+ * {@code -0.0}. Values of other properties are compared by
+ * {@link Object#equals(Object)}, so changes inside mutable values such as
+ * arrays are not detected unless the value is replaced.
+ * </p>
+ */
+public class BeanDiff<T> {
+
+    /**
+     * Values of readable properties of a bean. Primitive values are stored
+     * as raw bits in a {@code long} array, other values in an object array,
+     * both arrays are as long as the number of such properties.
+     */
+    public static final class Snapshot<T> {
+
+        private final BeanDiff<T> diff;
+        private final Object[] values;
+        private final long[] primitives;
+
+        private Snapshot(BeanDiff<T> diff) {
+            this.diff = diff;
+            this.values = new Object[diff.valueCount];
+            this.primitives = new long[diff.primitiveCount];
+        }
+
+        public Bean<T> getBean() {
+            return diff.bean;
+        }
+
+    }
+
+    private final Bean<T> bean;
+    private final Property<T>[] properties;
+    private final int[] kinds;
+    private final int[] slots;
+    private final int valueCount;
+    private final int primitiveCount;
+
+    /**
+     * Creates the diff of all readable properties of the bean.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BeanDiff(Bean<T> bean) {
+        this.bean = bean;
+
+        int count = 0;
+        for (Property<T> property : bean.getProperties()) {
+            if (property.isReadable()) {
+                count++;
+            }
+        }
+        this.properties = new Property[count];
+        this.kinds = new int[count];
+        this.slots = new int[count];
+
+        int valueCount = 0;
+        int primitiveCount = 0;
+        int i = 0;
+        for (Property<T> property : bean.getProperties()) {
+            if (property.isReadable()) {
+                properties[i] = property;
+                kinds[i] = Primitives.getKind(property.getType());
+                slots[i] = kinds[i] == Primitives.OBJECT ? valueCount++ : primitiveCount++;
+                i++;
+            }
+        }
+        this.valueCount = valueCount;
+        this.primitiveCount = primitiveCount;
+    }
+
+    public Bean<T> getBean() {
+        return bean;
+    }
+
+    private static boolean equals(Object x, Object y) {
+        return x == y || x != null && x.equals(y);
+    }
+
+    /**
+     * Compares two beans.
+     *
+     * @return the set of indexes of properties having different values.
+     */
+    public BitSet diff(T a, T b) throws IllegalAccessException, InvocationTargetException {
+        BitSet changed = new BitSet(bean.getPropertyCount());
+        diff(a, b, changed);
+        return changed;
+    }
+
+    /**
+     * Compares two beans setting the bits of properties having different
+     * values. Other bits are not changed.
+     *
+     * @return the number of properties having different values.
+     */
+    public int diff(T a, T b, BitSet changed) throws IllegalAccessException, InvocationTargetException {
+        int count = 0;
+        for (int i = 0; i < properties.length; i++) {
+            Property<T> property = properties[i];
+            int kind = kinds[i];
+            boolean isChanged;
+            if (kind == Primitives.OBJECT) {
+                isChanged = !equals(property.getValue(a), property.getValue(b));
+            } else {
+                isChanged = Primitives.getBits(property, kind, a) != Primitives.getBits(property, kind, b);
+            }
+            if (isChanged) {
+                changed.set(property.getIndex());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Snapshot<T> snapshot(T bean) throws IllegalAccessException, InvocationTargetException {
+        Snapshot<T> snapshot = new Snapshot<T>(this);
+        update(snapshot, bean);
+        return snapshot;
+    }
+
+    private void checkSnapshot(Snapshot<T> snapshot) {
+        if (snapshot.diff != this) {
+            throw new IllegalArgumentException("snapshot is taken by another diff");
+        }
+    }
+
+    /**
+     * Stores current values of the bean to the snapshot,
+     * for example when changes of the bean are saved.
+     */
+    public void update(Snapshot<T> snapshot, T bean) throws IllegalAccessException, InvocationTargetException {
+        checkSnapshot(snapshot);
+        for (int i = 0; i < properties.length; i++) {
+            if (kinds[i] == Primitives.OBJECT) {
+                snapshot.values[slots[i]] = properties[i].getValue(bean);
+            } else {
+                snapshot.primitives[slots[i]] = Primitives.getBits(properties[i], kinds[i], bean);
+            }
+        }
+    }
+
+    private boolean isChanged(Snapshot<T> snapshot, T bean, int i)
+            throws IllegalAccessException, InvocationTargetException {
+        if (kinds[i] == Primitives.OBJECT) {
+            return !equals(snapshot.values[slots[i]], properties[i].getValue(bean));
+        } else {
+            return snapshot.primitives[slots[i]] != Primitives.getBits(properties[i], kinds[i], bean);
+        }
+    }
+
+    /**
+     * Compares the bean with its snapshot.
+     *
+     * @return the set of indexes of properties changed since the snapshot.
+     */
+    public BitSet diff(Snapshot<T> snapshot, T bean) throws IllegalAccessException, InvocationTargetException {
+        BitSet changed = new BitSet(this.bean.getPropertyCount());
+        diff(snapshot, bean, changed);
+        return changed;
+    }
+
+    /**
+     * Compares the bean with its snapshot setting the bits of changed
+     * properties. Other bits are not changed.
+     *
+     * @return the number of properties changed since the snapshot.
+     */
+    public int diff(Snapshot<T> snapshot, T bean, BitSet changed)
+            throws IllegalAccessException, InvocationTargetException {
+        checkSnapshot(snapshot);
+        int count = 0;
+        for (int i = 0; i < properties.length; i++) {
+            if (isChanged(snapshot, bean, i)) {
+                changed.set(properties[i].getIndex());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if any property of the bean is changed since the snapshot.
+     * The check stops at the first changed property.
+     */
+    public boolean isDirty(Snapshot<T> snapshot, T bean) throws IllegalAccessException, InvocationTargetException {
+        checkSnapshot(snapshot);
+        for (int i = 0; i < properties.length; i++) {
+            if (isChanged(snapshot, bean, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
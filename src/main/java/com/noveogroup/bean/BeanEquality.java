@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Equality and hash codes of beans defined by values of a set of
+ * properties. Values of primitive properties are compared and hashed
+ * without boxing, floating point values are compared as by
+ * {@link Double#equals(Object)}. Values of other properties are compared
+ * by {@link Object#equals(Object)}.
+ * <p>
+ * Hash codes are computed like {@link Arrays#hashCode(Object[])} of
+ * the values. Beans can be put to hash based collections as
+ * {@link #key(Object) keys} or deduplicated by {@link #distinct(List)}.
+ * </p>
+ */
+public class BeanEquality<T> {
+
+    /**
+     * A key of a bean whose {@link #equals(Object)} and {@link #hashCode()}
+     * are defined by the equality it was created by.
+     */
+    public static final class Key<T> {
+
+        private final BeanEquality<T> equality;
+        private final T bean;
+        private final int hashCode;
+
+        private Key(BeanEquality<T> equality, T bean) {
+            this.equality = equality;
+            this.bean = bean;
+            this.hashCode = equality.hashCode(bean);
+        }
+
+        public T getBean() {
+            return bean;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key<T> key = (Key<T>) object;
+            return hashCode == key.hashCode && equality == key.equality && equality.equals(bean, key.bean);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    private final Property<T>[] properties;
+    private final int[] kinds;
+
+    /**
+     * Creates the equality.
+     *
+     * @throws IllegalArgumentException if a property is not readable.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BeanEquality(List<Property<T>> properties) {
+        this.properties = properties.toArray(new Property[properties.size()]);
+        this.kinds = new int[this.properties.length];
+        for (int i = 0; i < this.properties.length; i++) {
+            if (!this.properties[i].isReadable()) {
+                throw new IllegalArgumentException("property " + this.properties[i].getName() + " is not readable");
+            }
+            kinds[i] = Primitives.getKind(this.properties[i].getType());
+        }
+    }
+
+    public static <T> BeanEquality<T> create(Bean<T> bean, String... propertyNames) {
+        return new BeanEquality<T>(BeanComparator.getProperties(bean, propertyNames));
+    }
+
+    /**
+     * Checks if values of the properties of two beans are equal.
+     * Two nulls are equal, a null is not equal to a bean.
+     *
+     * @throws IllegalStateException if a property cannot be accessed or
+     *                               its getter throws a checked exception.
+     */
+    public boolean equals(T a, T b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < kinds.length; i++) {
+                if (!equals(properties[i], kinds[i], a, b)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalAccessException e) {
+            throw Arguments.wrap(e);
+        } catch (InvocationTargetException e) {
+            throw Arguments.wrap(e);
+        }
+    }
+
+    private static <T> boolean equals(Property<T> property, int kind, T a, T b)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                return property.getBoolean(a) == property.getBoolean(b);
+            case Primitives.BYTE:
+                return property.getByte(a) == property.getByte(b);
+            case Primitives.SHORT:
+                return property.getShort(a) == property.getShort(b);
+            case Primitives.CHAR:
+                return property.getChar(a) == property.getChar(b);
+            case Primitives.INT:
+                return property.getInt(a) == property.getInt(b);
+            case Primitives.LONG:
+                return property.getLong(a) == property.getLong(b);
+            case Primitives.FLOAT:
+                return Float.floatToIntBits(property.getFloat(a)) == Float.floatToIntBits(property.getFloat(b));
+            case Primitives.DOUBLE:
+                return Double.doubleToLongBits(property.getDouble(a)) == Double.doubleToLongBits(property.getDouble(b));
+            default:
+                Object x = property.getValue(a);
+                Object y = property.getValue(b);
+                return x == y || x != null && x.equals(y);
+        }
+    }
+
+    /**
+     * Computes the hash code of values of the properties of a bean.
+     * The hash code of null is 0.
+     *
+     * @throws IllegalStateException if a property cannot be accessed or
+     *                               its getter throws a checked exception.
+     */
+    public int hashCode(T bean) {
+        if (bean == null) {
+            return 0;
+        }
+        try {
+            int hashCode = 1;
+            for (int i = 0; i < kinds.length; i++) {
+                hashCode = 31 * hashCode + hashCode(properties[i], kinds[i], bean);
+            }
+            return hashCode;
+        } catch (IllegalAccessException e) {
+            throw Arguments.wrap(e);
+        } catch (InvocationTargetException e) {
+            throw Arguments.wrap(e);
+        }
+    }
+
+    private static <T> int hashCode(Property<T> property, int kind, T bean)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                return property.getBoolean(bean) ? 1231 : 1237;
+            case Primitives.BYTE:
+                return property.getByte(bean);
+            case Primitives.SHORT:
+                return property.getShort(bean);
+            case Primitives.CHAR:
+                return property.getChar(bean);
+            case Primitives.INT:
+                return property.getInt(bean);
+            case Primitives.LONG:
+                long longValue = property.getLong(bean);
+                return (int) (longValue ^ longValue >>> 32);
+            case Primitives.FLOAT:
+                return Float.floatToIntBits(property.getFloat(bean));
+            case Primitives.DOUBLE:
+                long bits = Double.doubleToLongBits(property.getDouble(bean));
+                return (int) (bits ^ bits >>> 32);
+            default:
+                Object value = property.getValue(bean);
+                return value == null ? 0 : value.hashCode();
+        }
+    }
+
+    public Key<T> key(T bean) {
+        return new Key<T>(this, bean);
+    }
+
+    /**
+     * Removes duplicates from the list keeping the first bean of every
+     * group of equal beans. Beans are looked up in an open addressing
+     * table of their indexes, so no objects are created per bean.
+     *
+     * @return the new list of distinct beans in their original order.
+     */
+    public List<T> distinct(List<? extends T> beans) {
+        int size = beans.size();
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        int[] table = new int[capacity];
+        int[] hashCodes = new int[size];
+
+        List<T> result = new ArrayList<T>();
+        for (int i = 0; i < size; i++) {
+            T bean = beans.get(i);
+            int hashCode = hashCode(bean);
+            hashCodes[i] = hashCode;
+            // slots store indexes plus one, zero is an empty slot
+            int slot = (hashCode ^ hashCode >>> 16) & mask;
+            boolean isDuplicate = false;
+            while (table[slot] != 0) {
+                int index = table[slot] - 1;
+                if (hashCodes[index] == hashCode && equals(beans.get(index), bean)) {
+                    isDuplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (!isDuplicate) {
+                table[slot] = i + 1;
+                result.add(bean);
+            }
+        }
+        return result;
+    }
+
+}
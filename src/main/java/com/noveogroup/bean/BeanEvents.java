@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+/**
+ * Emits JFR events when JFR is available in the runtime.
+ */
+final class BeanEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, BeanEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private BeanEvents() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Starts a load event, returns null if the event is not recorded.
+     */
+    public static Object beginLoad() {
+        if (!AVAILABLE) {
+            return null;
+        }
+        BeanLoadEvent event = new BeanLoadEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commitLoad(Object event, Class<?> beanClass, int propertyCount, boolean reload) {
+        if (event == null) {
+            return;
+        }
+        BeanLoadEvent loadEvent = (BeanLoadEvent) event;
+        loadEvent.end();
+        if (loadEvent.shouldCommit()) {
+            loadEvent.beanClass = beanClass;
+            loadEvent.propertyCount = propertyCount;
+            loadEvent.reload = reload;
+            loadEvent.commit();
+        }
+    }
+
+}
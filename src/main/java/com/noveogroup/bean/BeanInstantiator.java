@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Creates beans by a cached handle of the no-arg constructor. Public
+ * constructors are linked to a {@link Supplier} generated by
+ * {@link LambdaMetafactory} that can be inlined as a plain constructor call.
+ * <p>
+ * Unlike {@link Class#newInstance()} access is checked once, non-public
+ * constructors are used when the runtime allows to make them accessible,
+ * and checked exceptions of the constructor are wrapped by
+ * {@link InstantiationException} instead of being rethrown as is.
+ * </p>
+ */
+final class BeanInstantiator<T> {
+
+    private final Class<T> beanClass;
+    private final MethodHandle constructor;
+    private final Supplier<Object> supplier;
+    private final boolean isAccessible;
+
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, BeanInstantiator.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> createSupplier(Class<?> beanClass, MethodHandles.Lookup lookup,
+                                                   MethodHandle constructor) {
+        try {
+            return (Supplier<Object>) LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                    constructor, MethodType.methodType(beanClass)).getTarget().invoke();
+        } catch (Throwable ignored) {
+            // the constructor cannot be linked, the method handle is used
+            return null;
+        }
+    }
+
+    public BeanInstantiator(Class<T> beanClass) {
+        this.beanClass = beanClass;
+
+        MethodHandle constructor = null;
+        Supplier<Object> supplier = null;
+        boolean isAccessible = true;
+        int modifiers = beanClass.getModifiers();
+        if (!beanClass.isInterface() && !beanClass.isArray() && !beanClass.isPrimitive()
+                && !Modifier.isAbstract(modifiers)) {
+            try {
+                Constructor<T> declaredConstructor = beanClass.getDeclaredConstructor();
+                boolean isPublic = Modifier.isPublic(modifiers) && Modifier.isPublic(declaredConstructor.getModifiers());
+                if (!isPublic) {
+                    declaredConstructor.setAccessible(true);
+                }
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflectConstructor(declaredConstructor);
+                if (isPublic && isVisible(beanClass)) {
+                    supplier = createSupplier(beanClass, lookup, handle);
+                }
+                constructor = handle.asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException ignored) {
+            } catch (IllegalAccessException e) {
+                isAccessible = false;
+            } catch (SecurityException e) {
+                isAccessible = false;
+            } catch (RuntimeException e) {
+                // InaccessibleObjectException of modular runtimes
+                isAccessible = false;
+            }
+        }
+        this.constructor = constructor;
+        this.supplier = supplier;
+        this.isAccessible = isAccessible;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T newInstance() throws InstantiationException, IllegalAccessException {
+        if (constructor == null) {
+            if (!isAccessible) {
+                throw new IllegalAccessException("constructor of " + beanClass.getName() + " is not accessible");
+            }
+            throw new InstantiationException(beanClass.getName());
+        }
+        try {
+            if (supplier != null) {
+                return (T) supplier.get();
+            }
+            return (T) constructor.invokeExact();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            InstantiationException exception = new InstantiationException(beanClass.getName());
+            exception.initCause(throwable);
+            throw exception;
+        }
+    }
+
+}
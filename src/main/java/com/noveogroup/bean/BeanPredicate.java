@@ -0,0 +1,629 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A predicate over property values of beans.
+ * <p>
+ * Values given to predicates are converted to the property type by
+ * {@link ConverterRegistry} when predicates are created, so primitive
+ * properties are compared by typed getters without boxing. Numbers the
+ * property type cannot hold exactly are rounded towards the range instead
+ * of being narrowed by casts, so no value is matched by mistake. Values are
+ * compared like boxed values by {@code compareTo()} and {@code equals()},
+ * null values of properties match only {@link #isNull(Property)}.
+ * </p>
+ */
+public abstract class BeanPredicate<T> {
+
+    /**
+     * A range of values of a property, equality is a range of one value.
+     * Ranges of primitive properties are specialized by the kind, so every
+     * test is a typed get and a comparison.
+     */
+    static abstract class Range<T> extends BeanPredicate<T> {
+
+        final Property<T> property;
+        final Comparable<Object> lower;
+        final Comparable<Object> upper;
+        final boolean lowerInclusive;
+        final boolean upperInclusive;
+        final boolean equality;
+
+        @SuppressWarnings("unchecked")
+        protected Range(Property<T> property, Object lower, boolean lowerInclusive, Object upper, boolean upperInclusive) {
+            this.property = property;
+            this.lowerInclusive = lowerInclusive;
+            this.upperInclusive = upperInclusive;
+            this.equality = lower != null && lower == upper && lowerInclusive && upperInclusive;
+            if (!equality && (lower != null && !(lower instanceof Comparable)
+                    || upper != null && !(upper instanceof Comparable))) {
+                throw new IllegalArgumentException("values of " + property.getName() + " are not comparable");
+            }
+            this.lower = (Comparable<Object>) lower;
+            this.upper = (Comparable<Object>) upper;
+        }
+
+        public static <T> Range<T> create(Property<T> property, Object lower, boolean lowerInclusive,
+                                          Object upper, boolean upperInclusive) {
+            switch (Primitives.getKind(property.getType())) {
+                case Primitives.OBJECT:
+                    return new ObjectRange<T>(property, lower, lowerInclusive, upper, upperInclusive);
+                case Primitives.FLOAT:
+                    return new FloatRange<T>(property, lower, lowerInclusive, upper, upperInclusive);
+                case Primitives.DOUBLE:
+                    return new DoubleRange<T>(property, lower, lowerInclusive, upper, upperInclusive);
+                default:
+                    return new LongRange<T>(property, lower, lowerInclusive, upper, upperInclusive);
+            }
+        }
+
+        protected final boolean matches(int lowerComparison, int upperComparison) {
+            return (lower == null || lowerComparison > 0 || lowerComparison == 0 && lowerInclusive)
+                    && (upper == null || upperComparison < 0 || upperComparison == 0 && upperInclusive);
+        }
+
+    }
+
+    private static final class ObjectRange<T> extends Range<T> {
+
+        public ObjectRange(Property<T> property, Object lower, boolean lowerInclusive,
+                           Object upper, boolean upperInclusive) {
+            super(property, lower, lowerInclusive, upper, upperInclusive);
+        }
+
+        @Override
+        public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+            Object value = property.getValue(bean);
+            if (value == null) {
+                return false;
+            }
+            if (equality) {
+                return value.equals(lower);
+            }
+            return matches(lower == null ? 0 : -Integer.signum(lower.compareTo(value)),
+                    upper == null ? 0 : -Integer.signum(upper.compareTo(value)));
+        }
+
+        @Override
+        int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                int position = selection[i];
+                if (test(beans.get(position))) {
+                    selection[matched++] = position;
+                }
+            }
+            return matched;
+        }
+
+    }
+
+    private static final class LongRange<T> extends Range<T> {
+
+        private final int kind;
+        // bounds are inclusive, an empty range has the minimum greater than the maximum
+        private final long min;
+        private final long max;
+
+        public LongRange(Property<T> property, Object lower, boolean lowerInclusive,
+                         Object upper, boolean upperInclusive) {
+            super(property, lower, lowerInclusive, upper, upperInclusive);
+            this.kind = Primitives.getKind(property.getType());
+            long min = Long.MIN_VALUE;
+            long max = Long.MAX_VALUE;
+            boolean empty = false;
+            if (lower != null) {
+                min = toLong(lower);
+                if (!lowerInclusive) {
+                    empty = min == Long.MAX_VALUE;
+                    min++;
+                }
+            }
+            if (upper != null) {
+                max = toLong(upper);
+                if (!upperInclusive) {
+                    empty = empty || max == Long.MIN_VALUE;
+                    max--;
+                }
+            }
+            this.min = empty ? Long.MAX_VALUE : min;
+            this.max = empty ? Long.MIN_VALUE : max;
+        }
+
+        private static long toLong(Object value) {
+            if (value instanceof Character) {
+                return (Character) value;
+            } else if (value instanceof Boolean) {
+                return (Boolean) value ? 1 : 0;
+            } else {
+                return ((Number) value).longValue();
+            }
+        }
+
+        @Override
+        public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+            long value = Primitives.getBits(property, kind, bean);
+            return value >= min && value <= max;
+        }
+
+        @Override
+        int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                int position = selection[i];
+                if (test(beans.get(position))) {
+                    selection[matched++] = position;
+                }
+            }
+            return matched;
+        }
+
+    }
+
+    private static final class DoubleRange<T> extends Range<T> {
+
+        private final double lowerValue;
+        private final double upperValue;
+
+        public DoubleRange(Property<T> property, Object lower, boolean lowerInclusive,
+                           Object upper, boolean upperInclusive) {
+            super(property, lower, lowerInclusive, upper, upperInclusive);
+            this.lowerValue = lower == null ? 0 : ((Number) lower).doubleValue();
+            this.upperValue = upper == null ? 0 : ((Number) upper).doubleValue();
+        }
+
+        @Override
+        public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+            double value = property.getDouble(bean);
+            return matches(Double.compare(value, lowerValue), Double.compare(value, upperValue));
+        }
+
+        @Override
+        int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                int position = selection[i];
+                if (test(beans.get(position))) {
+                    selection[matched++] = position;
+                }
+            }
+            return matched;
+        }
+
+    }
+
+    private static final class FloatRange<T> extends Range<T> {
+
+        private final float lowerValue;
+        private final float upperValue;
+
+        public FloatRange(Property<T> property, Object lower, boolean lowerInclusive,
+                          Object upper, boolean upperInclusive) {
+            super(property, lower, lowerInclusive, upper, upperInclusive);
+            this.lowerValue = lower == null ? 0 : ((Number) lower).floatValue();
+            this.upperValue = upper == null ? 0 : ((Number) upper).floatValue();
+        }
+
+        @Override
+        public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+            float value = property.getFloat(bean);
+            return matches(Float.compare(value, lowerValue), Float.compare(value, upperValue));
+        }
+
+        @Override
+        int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                int position = selection[i];
+                if (test(beans.get(position))) {
+                    selection[matched++] = position;
+                }
+            }
+            return matched;
+        }
+
+    }
+
+    static final class In<T> extends BeanPredicate<T> {
+
+        final Property<T> property;
+        final Set<Object> values;
+
+        public In(Property<T> property, Set<Object> values) {
+            this.property = property;
+            this.values = values;
+        }
+
+        @Override
+        public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+            Object value = property.getValue(bean);
+            return value != null && values.contains(value);
+        }
+
+        @Override
+        int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                int position = selection[i];
+                if (test(beans.get(position))) {
+                    selection[matched++] = position;
+                }
+            }
+            return matched;
+        }
+
+    }
+
+    static final class And<T> extends BeanPredicate<T> {
+
+        final BeanPredicate<T>[] predicates;
+
+        public And(BeanPredicate<T>[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+            for (BeanPredicate<T> predicate : predicates) {
+                if (!predicate.test(bean)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+            for (int i = 0; i < predicates.length && count > 0; i++) {
+                count = predicates[i].filter(beans, selection, count);
+            }
+            return count;
+        }
+
+    }
+
+    /**
+     * A bound of a range converted to the property type.
+     */
+    private static final class Bound {
+
+        // every value of the type is within the bound
+        static final Bound NONE = new Bound(null, false);
+
+        final Object value;
+        final boolean inclusive;
+
+        Bound(Object value, boolean inclusive) {
+            this.value = value;
+            this.inclusive = inclusive;
+        }
+
+    }
+
+    private static Object requireValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value should not be null, use isNull() to match null values");
+        }
+        return value;
+    }
+
+    private static Object convert(Property<?> property, Object value) {
+        Class<?> type = Primitives.wrap(property.getType());
+        return type.isInstance(value) ? value : ConverterRegistry.getInstance().convert(value, type);
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return new BigDecimal(value.doubleValue());
+        } else if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(value.longValue());
+        } else {
+            return new BigDecimal(value.toString());
+        }
+    }
+
+    private static boolean isIntegral(int kind, Class<?> type) {
+        return kind == Primitives.BYTE || kind == Primitives.SHORT || kind == Primitives.INT
+                || kind == Primitives.LONG || type == BigInteger.class;
+    }
+
+    /**
+     * Converts a bound to the property type. Numbers the type cannot hold
+     * exactly are never narrowed by casts: they are rounded into the range
+     * and made inclusive, bounds beyond the values of the type are dropped
+     * or make the range empty.
+     *
+     * @param lower whether the bound is the lower one.
+     * @return the bound or null if no value of the type is within it.
+     */
+    private static Bound toBound(Property<?> property, Object value, boolean inclusive, boolean lower) {
+        Class<?> type = Primitives.wrap(property.getType());
+        int kind = Primitives.getKind(Primitives.unwrap(type));
+        boolean floating = kind == Primitives.FLOAT || kind == Primitives.DOUBLE;
+        if (type.isInstance(value) || !(value instanceof Number) || !floating && !isIntegral(kind, type)) {
+            return new Bound(convert(property, value), inclusive);
+        }
+
+        if ((value instanceof Double || value instanceof Float)
+                && (Double.isNaN(((Number) value).doubleValue()) || Double.isInfinite(((Number) value).doubleValue()))) {
+            double number = ((Number) value).doubleValue();
+            if (floating) {
+                return new Bound(convert(property, value), inclusive);
+            } else if (Double.isNaN(number)) {
+                return null;
+            } else {
+                // an infinite lower bound is beyond all the values if positive and below them if negative
+                return (number > 0) == lower ? null : Bound.NONE;
+            }
+        }
+
+        BigDecimal number = toBigDecimal((Number) value);
+        if (floating) {
+            double rounded = kind == Primitives.FLOAT ? number.floatValue() : number.doubleValue();
+            int comparison = Double.isInfinite(rounded)
+                    ? (rounded > 0 ? 1 : -1) : new BigDecimal(rounded).compareTo(number);
+            if (comparison != 0) {
+                // the nearest value of the type within the bound
+                if (lower && comparison < 0) {
+                    rounded = kind == Primitives.FLOAT ? Math.nextUp((float) rounded) : Math.nextUp(rounded);
+                } else if (!lower && comparison > 0) {
+                    rounded = kind == Primitives.FLOAT ? Math.nextDown((float) rounded) : Math.nextDown(rounded);
+                }
+                inclusive = true;
+            }
+            return new Bound(convert(property, rounded), inclusive);
+        }
+
+        BigDecimal rounded;
+        if (lower) {
+            rounded = inclusive ? number.setScale(0, RoundingMode.CEILING)
+                    : number.setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE);
+        } else {
+            rounded = inclusive ? number.setScale(0, RoundingMode.FLOOR)
+                    : number.setScale(0, RoundingMode.CEILING).subtract(BigDecimal.ONE);
+        }
+        if (type != BigInteger.class) {
+            long min;
+            long max;
+            switch (kind) {
+                case Primitives.BYTE:
+                    min = Byte.MIN_VALUE;
+                    max = Byte.MAX_VALUE;
+                    break;
+                case Primitives.SHORT:
+                    min = Short.MIN_VALUE;
+                    max = Short.MAX_VALUE;
+                    break;
+                case Primitives.INT:
+                    min = Integer.MIN_VALUE;
+                    max = Integer.MAX_VALUE;
+                    break;
+                default:
+                    min = Long.MIN_VALUE;
+                    max = Long.MAX_VALUE;
+                    break;
+            }
+            if (rounded.compareTo(BigDecimal.valueOf(max)) > 0) {
+                return lower ? null : Bound.NONE;
+            }
+            if (rounded.compareTo(BigDecimal.valueOf(min)) < 0) {
+                return lower ? Bound.NONE : null;
+            }
+        }
+        return new Bound(convert(property, rounded), true);
+    }
+
+    /**
+     * Converts a value to the property type or returns null
+     * if no value of the type is equal to it.
+     */
+    private static Object toExactValue(Property<?> property, Object value) {
+        Bound lower = toBound(property, value, true, true);
+        Bound upper = toBound(property, value, true, false);
+        if (lower == null || upper == null || lower == Bound.NONE || upper == Bound.NONE
+                || !lower.value.equals(upper.value)) {
+            return null;
+        }
+        return lower.value;
+    }
+
+    private static <T> BeanPredicate<T> none(Property<T> property) {
+        return new In<T>(property, Collections.<Object>emptySet());
+    }
+
+    private static <T> BeanPredicate<T> range(Property<T> property, Object lower, boolean lowerInclusive,
+                                              Object upper, boolean upperInclusive) {
+        Bound lowerBound = lower == null ? Bound.NONE : toBound(property, lower, lowerInclusive, true);
+        Bound upperBound = upper == null ? Bound.NONE : toBound(property, upper, upperInclusive, false);
+        if (lowerBound == null || upperBound == null) {
+            return none(property);
+        }
+        return Range.create(property, lowerBound.value, lowerBound.inclusive, upperBound.value, upperBound.inclusive);
+    }
+
+    /**
+     * Matches values equal to the value.
+     */
+    public static <T> BeanPredicate<T> equal(Property<T> property, Object value) {
+        Object converted = toExactValue(property, requireValue(value));
+        return converted == null ? none(property) : Range.create(property, converted, true, converted, true);
+    }
+
+    /**
+     * Matches values not equal to the value, null values do not match.
+     */
+    public static <T> BeanPredicate<T> notEqual(final Property<T> property, Object value) {
+        final BeanPredicate<T> equal = equal(property, value);
+        return new BeanPredicate<T>() {
+            @Override
+            public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+                return !equal.test(bean) && (property.getType().isPrimitive() || property.getValue(bean) != null);
+            }
+        };
+    }
+
+    public static <T> BeanPredicate<T> less(Property<T> property, Object value) {
+        return range(property, null, false, requireValue(value), false);
+    }
+
+    public static <T> BeanPredicate<T> lessOrEqual(Property<T> property, Object value) {
+        return range(property, null, false, requireValue(value), true);
+    }
+
+    public static <T> BeanPredicate<T> greater(Property<T> property, Object value) {
+        return range(property, requireValue(value), false, null, false);
+    }
+
+    public static <T> BeanPredicate<T> greaterOrEqual(Property<T> property, Object value) {
+        return range(property, requireValue(value), true, null, false);
+    }
+
+    /**
+     * Matches values from {@code lower} to {@code upper} inclusive.
+     */
+    public static <T> BeanPredicate<T> between(Property<T> property, Object lower, Object upper) {
+        return range(property, requireValue(lower), true, requireValue(upper), true);
+    }
+
+    /**
+     * Matches values equal to one of the values.
+     */
+    public static <T> BeanPredicate<T> in(Property<T> property, Collection<?> values) {
+        Set<Object> set = new HashSet<Object>(values.size() * 2);
+        for (Object value : values) {
+            Object converted = toExactValue(property, requireValue(value));
+            if (converted != null) {
+                set.add(converted);
+            }
+        }
+        return new In<T>(property, set);
+    }
+
+    public static <T> BeanPredicate<T> isNull(final Property<T> property) {
+        return new BeanPredicate<T>() {
+            @Override
+            public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+                return !property.getType().isPrimitive() && property.getValue(bean) == null;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> BeanPredicate<T> and(BeanPredicate<T>... predicates) {
+        if (predicates.length == 0) {
+            throw new IllegalArgumentException("there should be at least one predicate");
+        }
+        return predicates.length == 1 ? predicates[0] : new And<T>(predicates.clone());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> BeanPredicate<T> or(BeanPredicate<T>... predicates) {
+        if (predicates.length == 0) {
+            throw new IllegalArgumentException("there should be at least one predicate");
+        }
+        final BeanPredicate<T>[] array = predicates.clone();
+        return new BeanPredicate<T>() {
+            @Override
+            public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+                for (BeanPredicate<T> predicate : array) {
+                    if (predicate.test(bean)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    public static <T> BeanPredicate<T> not(final BeanPredicate<T> predicate) {
+        return new BeanPredicate<T>() {
+            @Override
+            public boolean test(T bean) throws IllegalAccessException, InvocationTargetException {
+                return !predicate.test(bean);
+            }
+        };
+    }
+
+    public abstract boolean test(T bean) throws IllegalAccessException, InvocationTargetException;
+
+    /**
+     * Keeps positions of matching beans in the selection, so a batch of beans
+     * is tested by one call. Final subclasses repeat the loop, so that every
+     * loop calls test() of one class and is compiled for it.
+     *
+     * @param selection positions of beans to test.
+     * @param count     the number of positions in the selection.
+     * @return the number of matching positions moved to the start of the selection.
+     */
+    int filter(List<T> beans, int[] selection, int count) throws IllegalAccessException, InvocationTargetException {
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            int position = selection[i];
+            if (test(beans.get(position))) {
+                selection[matched++] = position;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Returns a predicate for streams, exceptions of property accessors
+     * are rethrown as unchecked ones.
+     */
+    public Predicate<T> asPredicate() {
+        return new Predicate<T>() {
+            @Override
+            public boolean test(T bean) {
+                try {
+                    return BeanPredicate.this.test(bean);
+                } catch (IllegalAccessException e) {
+                    throw Arguments.wrap(e);
+                } catch (InvocationTargetException e) {
+                    throw Arguments.wrap(e);
+                }
+            }
+        };
+    }
+
+}
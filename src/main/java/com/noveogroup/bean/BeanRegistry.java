@@ -26,40 +26,417 @@
 
 package com.noveogroup.bean;
 
-import java.lang.ref.WeakReference;
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class BeanRegistry {
 
-    private static BeanRegistry instance = new BeanRegistry();
+    private static BeanRegistry instance = new BeanRegistry(new MethodHandleAccessorFactory());
 
     public static BeanRegistry getInstance() {
         return instance;
     }
 
-    private final Map<Class<?>, WeakReference<Bean<?>>> map = new HashMap<Class<?>, WeakReference<Bean<?>>>();
+    private class Entry {
 
-    private BeanRegistry() {
+        private volatile BeanRetention.Handle handle;
+        private boolean invalidated;
+
+        public Bean<?> get() {
+            BeanRetention.Handle handle = this.handle;
+            return handle == null ? null : handle.get();
+        }
+
+        private void retain(Bean<?> bean) {
+            // an invalidated entry is not in the registry anymore, so its bean is not retained
+            if (!invalidated) {
+                handle = retention.retain(bean);
+            }
+        }
+
+        public synchronized Bean<?> load(Class<?> beanClass) {
+            Bean<?> bean = get();
+            if (bean == null) {
+                // the handle is not null if the bean was evicted or garbage collected
+                bean = BeanRegistry.this.load(beanClass, handle != null, null);
+                retain(bean);
+            } else {
+                recordHit();
+            }
+            return bean;
+        }
+
+        private void pin(Bean<?> bean) {
+            // a preloaded bean is kept regardless of the retention policy until it is invalidated
+            if (!invalidated) {
+                if (handle != null) {
+                    handle.release();
+                }
+                handle = BeanRetention.pin(bean);
+            }
+        }
+
+        public synchronized Bean<?> preload(Class<?> beanClass, Map<String, String> droppedProperties) {
+            Bean<?> bean = get();
+            if (bean != null) {
+                pin(bean);
+                return null;
+            }
+            bean = BeanRegistry.this.load(beanClass, handle != null, droppedProperties);
+            pin(bean);
+            return bean;
+        }
+
+        public synchronized void invalidate() {
+            invalidated = true;
+            if (handle != null) {
+                handle.release();
+                handle = null;
+            }
+            retention.recordInvalidation();
+        }
+
+    }
+
+    // either the map or the class value with the set of classes is used depending on weak keys
+    private final ConcurrentMap<Class<?>, Entry> map;
+    private final ClassValue<Entry> classEntries;
+    private final Map<Class<?>, Boolean> classes;
+    private final AccessorFactory accessorFactory;
+    private final boolean compiled;
+    private final BeanRetention retention;
+    private volatile MetadataSnapshot snapshot;
+    private volatile RegistryMetrics metrics;
+    private volatile boolean lazy;
+
+    public BeanRegistry(AccessorFactory accessorFactory) {
+        this(accessorFactory, false);
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param accessorFactory the factory of property accessors.
+     * @param compiled        if true then an accessor class is generated for
+     *                        every bean class and public members are accessed
+     *                        by it, other members are accessed by accessors
+     *                        of the factory.
+     */
+    public BeanRegistry(AccessorFactory accessorFactory, boolean compiled) {
+        this(accessorFactory, compiled, BeanRetention.weak(), false);
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param accessorFactory the factory of property accessors.
+     * @param compiled        if true then an accessor class is generated for
+     *                        every bean class, see {@link #BeanRegistry(AccessorFactory, boolean)}.
+     * @param retention       the policy of keeping loaded beans, it should
+     *                        not be used by another registry.
+     * @param weakKeys        if true then the registry does not keep bean
+     *                        classes, so their class loaders can be unloaded
+     *                        while beans are kept only by the classes
+     *                        themselves. A bounded retention policy keeps
+     *                        beans of unloaded classes until they are
+     *                        evicted or invalidated.
+     */
+    public BeanRegistry(AccessorFactory accessorFactory, boolean compiled, BeanRetention retention, boolean weakKeys) {
+        if (retention == null) {
+            throw new IllegalArgumentException("retention should not be null");
+        }
+        retention.attach();
+        this.accessorFactory = accessorFactory;
+        this.compiled = compiled;
+        this.retention = retention;
+        if (weakKeys) {
+            this.map = null;
+            this.classes = Collections.synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
+            this.classEntries = new ClassValue<Entry>() {
+                @Override
+                protected Entry computeValue(Class<?> type) {
+                    classes.put(type, Boolean.TRUE);
+                    return new Entry();
+                }
+            };
+        } else {
+            this.map = new ConcurrentHashMap<Class<?>, Entry>();
+            this.classes = null;
+            this.classEntries = null;
+        }
+    }
+
+    public AccessorFactory getAccessorFactory() {
+        return accessorFactory;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    public BeanRetention getRetention() {
+        return retention;
+    }
+
+    public boolean isWeakKeys() {
+        return map == null;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Enables or disables lazy beans for classes loaded after this call.
+     * Members of a lazy bean are found when it is loaded but its properties
+     * are created on the first request, so getting a few properties of
+     * a class with many of them does not create accessors of all of them.
+     * {@link Bean#getProperties()} and other methods working with all
+     * properties create all of them.
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    private Entry getEntry(Class<?> beanClass) {
+        if (map == null) {
+            return classEntries.get(beanClass);
+        }
+        Entry entry = map.get(beanClass);
+        if (entry == null) {
+            Entry newEntry = new Entry();
+            entry = map.putIfAbsent(beanClass, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+        return entry;
     }
 
     @SuppressWarnings("unchecked")
     public <T> Bean<T> get(Class<T> beanClass) {
-        synchronized (map) {
-            WeakReference<Bean<?>> reference = map.get(beanClass);
-            if (reference != null) {
-                Bean<?> bean = reference.get();
-                if (bean != null) {
-                    return (Bean<T>) bean;
-                }
+        // lock-free fast path, introspection is locked per class only
+        Entry entry = getEntry(beanClass);
+        Bean<?> bean = entry.get();
+        if (bean == null) {
+            bean = entry.load(beanClass);
+        } else {
+            recordHit();
+        }
+        return (Bean<T>) bean;
+    }
+
+    private List<Class<?>> getClasses() {
+        if (map != null) {
+            return new ArrayList<Class<?>>(map.keySet());
+        }
+        synchronized (classes) {
+            return new ArrayList<Class<?>>(classes.keySet());
+        }
+    }
+
+    static boolean isLoadedBy(Class<?> beanClass, ClassLoader classLoader) {
+        for (ClassLoader loader = beanClass.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader == classLoader) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            Bean<T> bean = load(beanClass);
-            map.put(beanClass, new WeakReference<Bean<?>>(bean));
-            return bean;
+    /**
+     * Removes beans of classes loaded by the class loader or by its
+     * descendants, so the registry does not keep the class loader.
+     * Access counters of the classes and converters cached or registered
+     * for them in {@link ConverterRegistry#getInstance()} are removed too.
+     * The classes are introspected again if they are requested later.
+     *
+     * @return the number of removed classes.
+     */
+    public int invalidate(ClassLoader classLoader) {
+        if (classLoader == null) {
+            throw new IllegalArgumentException("class loader should not be null");
         }
+        int count = 0;
+        for (Class<?> beanClass : getClasses()) {
+            if (!isLoadedBy(beanClass, classLoader)) {
+                continue;
+            }
+            Entry entry;
+            if (map == null) {
+                entry = classEntries.get(beanClass);
+                classEntries.remove(beanClass);
+                classes.remove(beanClass);
+            } else {
+                entry = map.remove(beanClass);
+            }
+            if (entry != null) {
+                entry.invalidate();
+                count++;
+            }
+        }
+        RegistryMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.invalidate(classLoader);
+        }
+        ConverterRegistry.getInstance().invalidate(classLoader);
+        return count;
+    }
+
+    /**
+     * Writes introspected members of all classes known by the registry
+     * to the file to be imported on later starts by {@link #importSnapshot(File)}.
+     */
+    public void exportSnapshot(File file) throws IOException {
+        Map<Class<?>, List<PropertyMembers>> metadata = new LinkedHashMap<Class<?>, List<PropertyMembers>>();
+        for (Class<?> beanClass : getClasses()) {
+            metadata.put(beanClass, getPropertyMembers(beanClass));
+        }
+        MetadataSnapshot.write(file, metadata);
+    }
+
+    /**
+     * Maps the snapshot file written by {@link #exportSnapshot(File)}.
+     * Members of classes loaded after that are resolved by their names
+     * instead of the introspection, classes changed since the snapshot was
+     * written are introspected as usual.
+     *
+     * @return the number of classes in the snapshot.
+     */
+    public int importSnapshot(File file) throws IOException {
+        MetadataSnapshot snapshot = MetadataSnapshot.map(file);
+        this.snapshot = snapshot;
+        return snapshot.getClassCount();
+    }
+
+    /**
+     * Starts collecting metrics, previously collected metrics are discarded.
+     * Property accesses are counted for beans loaded after this call only.
+     *
+     * @param accessSampleRate 0 to not count property accesses, otherwise
+     *                         every n-th access is counted on average.
+     */
+    public void enableMetrics(int accessSampleRate) {
+        this.metrics = new RegistryMetrics(accessSampleRate);
+    }
+
+    /**
+     * Stops collecting metrics. Accessors of beans loaded while property
+     * accesses were counted keep counting them until the beans are reloaded.
+     */
+    public void disableMetrics() {
+        this.metrics = null;
+    }
+
+    /**
+     * Returns the metrics or null if they are not collected.
+     */
+    public RegistryMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void recordHit() {
+        RegistryMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordHit();
+        }
+    }
+
+    private PreloadReport.ClassReport preload(Class<?> beanClass) {
+        Map<String, String> droppedProperties = new TreeMap<String, String>();
+        long startTime = System.nanoTime();
+        try {
+            Entry entry = getEntry(beanClass);
+            Bean<?> bean = entry.preload(beanClass, droppedProperties);
+            boolean loaded = bean != null;
+            if (!loaded) {
+                bean = entry.get();
+            }
+            return new PreloadReport.ClassReport(beanClass, bean, loaded, System.nanoTime() - startTime,
+                    droppedProperties, null);
+        } catch (RuntimeException e) {
+            return new PreloadReport.ClassReport(beanClass, null, false, System.nanoTime() - startTime,
+                    droppedProperties, e);
+        } catch (LinkageError e) {
+            return new PreloadReport.ClassReport(beanClass, null, false, System.nanoTime() - startTime,
+                    droppedProperties, e);
+        }
+    }
+
+    // virtual threads are used when the runtime provides them
+    private static ExecutorService newPreloadExecutor(int parallelism) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException ignored) {
+        } catch (IllegalAccessException ignored) {
+        } catch (InvocationTargetException ignored) {
+        }
+        return Executors.newFixedThreadPool(parallelism);
+    }
+
+    /**
+     * Loads beans of the classes concurrently, at most {@code parallelism}
+     * classes are introspected at the same time. Preloaded beans are kept
+     * regardless of the retention policy until they are invalidated.
+     */
+    public PreloadReport preload(Collection<? extends Class<?>> classes, int parallelism)
+            throws InterruptedException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism should be positive");
+        }
+
+        long startTime = System.nanoTime();
+        final Semaphore semaphore = new Semaphore(parallelism);
+        ExecutorService executor = newPreloadExecutor(parallelism);
+        try {
+            List<Future<PreloadReport.ClassReport>> futures =
+                    new ArrayList<Future<PreloadReport.ClassReport>>(classes.size());
+            for (final Class<?> beanClass : classes) {
+                futures.add(executor.submit(new Callable<PreloadReport.ClassReport>() {
+                    @Override
+                    public PreloadReport.ClassReport call() throws InterruptedException {
+                        semaphore.acquire();
+                        try {
+                            return preload(beanClass);
+                        } finally {
+                            semaphore.release();
+                        }
+                    }
+                }));
+            }
+
+            List<PreloadReport.ClassReport> classReports = new ArrayList<PreloadReport.ClassReport>(futures.size());
+            for (Future<PreloadReport.ClassReport> future : futures) {
+                try {
+                    classReports.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return new PreloadReport(classReports, System.nanoTime() - startTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads beans of all classes of the package and its subpackages
+     * found by the class loader in directories and jar files.
+     */
+    public PreloadReport preload(String packageName, ClassLoader classLoader, int parallelism)
+            throws IOException, InterruptedException {
+        return preload(ClassScanner.scan(packageName, classLoader), parallelism);
+    }
+
+    public <S, D> BeanCopier<S, D> newCopier(Class<S> sourceClass, Class<D> destinationClass, CopyOption... options) {
+        return new BeanCopier<S, D>(this, get(sourceClass), get(destinationClass), options);
     }
 
     private static final String IS_PREFIX = "is";
@@ -131,18 +508,36 @@ public class BeanRegistry {
         return set;
     }
 
-    private static <T> Bean<T> load(Class<T> beanClass) {
+    static class PropertyMembers {
+
+        final String name;
+        final Class<?> type;
+        final Field field;
+        final Method getter;
+        final Method setter;
+
+        public PropertyMembers(String name, Class<?> type, Field field, Method getter, Method setter) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+    }
+
+    private static List<PropertyMembers> getPropertyMembers(Class<?> beanClass) {
         // get class members
         Map<String, Field> fields = getFields(beanClass);
         Map<String, Method> methods = getMethods(beanClass);
 
-        // get property names
-        Set<String> propertyNames = new HashSet<String>();
+        // get property names, they are sorted to make the property order stable
+        Set<String> propertyNames = new TreeSet<String>();
         propertyNames.addAll(getFieldPropertyNames(fields.values()));
         propertyNames.addAll(getMethodPropertyNames(methods.values()));
 
-        // load properties
-        List<Property<T>> properties = new ArrayList<Property<T>>(propertyNames.size());
+        // resolve property members
+        List<PropertyMembers> list = new ArrayList<PropertyMembers>(propertyNames.size());
         for (String propertyName : propertyNames) {
             Field field = fields.get(propertyName);
 
@@ -176,13 +571,137 @@ public class BeanRegistry {
                 getter = getter2;
             }
 
+            list.add(new PropertyMembers(propertyName, type, field, getter, setter));
+        }
+
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Bean<T> loadGenerated(Class<T> beanClass) {
+        String className = beanClass.getName() + GeneratedBean.CLASS_NAME_SUFFIX;
+        try {
+            Class<?> generatedClass = Class.forName(className, true, beanClass.getClassLoader());
+            Bean<?> bean = (Bean<?>) generatedClass.getConstructor().newInstance();
+            return bean.getBeanClass() == beanClass ? (Bean<T>) bean : null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (InstantiationException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            return null;
+        } catch (ClassCastException e) {
+            return null;
+        }
+    }
+
+    private <T> Bean<T> load(Class<T> beanClass, boolean reload, Map<String, String> droppedProperties) {
+        RegistryMetrics metrics = this.metrics;
+        Object event = BeanEvents.beginLoad();
+        long startTime = metrics == null ? 0 : System.nanoTime();
+
+        Bean<T> bean = introspect(beanClass, metrics, droppedProperties);
+
+        if (metrics != null) {
+            metrics.recordLoad(reload, System.nanoTime() - startTime);
+        }
+        BeanEvents.commitLoad(event, beanClass, bean.getPropertyCount(), reload);
+        return bean;
+    }
+
+    private <T> Bean<T> introspect(Class<T> beanClass, RegistryMetrics metrics,
+                                   Map<String, String> droppedProperties) {
+        // use the bean generated at compile time if any
+        if (beanClass.isAnnotationPresent(GenerateBean.class)) {
+            Bean<T> bean = loadGenerated(beanClass);
+            if (bean != null) {
+                return bean;
+            }
+        }
+
+        List<PropertyMembers> propertyMembers = null;
+        MetadataSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            propertyMembers = snapshot.getPropertyMembers(beanClass);
+        }
+        if (propertyMembers == null) {
+            propertyMembers = getPropertyMembers(beanClass);
+        }
+
+        // generate the accessor class, lazy beans generate it on the first property request
+        AccessorFactory accessorFactory = this.accessorFactory;
+        boolean lazy = this.lazy;
+        if (compiled) {
+            int count = propertyMembers.size();
+            Field[] fields = new Field[count];
+            Method[] getters = new Method[count];
+            Method[] setters = new Method[count];
+            for (int i = 0; i < count; i++) {
+                fields[i] = propertyMembers.get(i).field;
+                getters[i] = propertyMembers.get(i).getter;
+                setters[i] = propertyMembers.get(i).setter;
+            }
+            accessorFactory = lazy
+                    ? createLazyCompiledFactory(fields, getters, setters, accessorFactory)
+                    : CompiledAccessorFactory.create(beanClass, fields, getters, setters, accessorFactory);
+        }
+
+        // load properties
+        List<Property<T>> properties = new ArrayList<Property<T>>(propertyMembers.size());
+        List<PropertyMembers> lazyMembers = new ArrayList<PropertyMembers>(lazy ? propertyMembers.size() : 0);
+        List<AccessorFactory> lazyFactories = new ArrayList<AccessorFactory>(lazy ? propertyMembers.size() : 0);
+        boolean isAccessSampled = metrics != null && metrics.getAccessSampleRate() > 0;
+        for (PropertyMembers members : propertyMembers) {
+            AccessorFactory propertyAccessorFactory = isAccessSampled
+                    ? new SampledAccessorFactory(accessorFactory, metrics, members.name)
+                    : accessorFactory;
+            if (lazy) {
+                try {
+                    DefaultProperty.validate(members.type, members.field, members.getter, members.setter);
+                    lazyMembers.add(members);
+                    lazyFactories.add(propertyAccessorFactory);
+                } catch (IllegalArgumentException e) {
+                    if (droppedProperties != null) {
+                        droppedProperties.put(members.name, e.getMessage());
+                    }
+                }
+                continue;
+            }
             try {
-                properties.add(new DefaultProperty<T>(beanClass, propertyName, type, field, getter, setter));
-            } catch (IllegalArgumentException ignored) {
+                properties.add(new DefaultProperty<T>(beanClass, properties.size(), members.name, members.type,
+                        members.field, members.getter, members.setter, propertyAccessorFactory));
+            } catch (IllegalArgumentException e) {
+                if (droppedProperties != null) {
+                    droppedProperties.put(members.name, e.getMessage());
+                }
             }
         }
 
+        if (lazy) {
+            return new LazyBean<T>(beanClass, beanClass.getName(), lazyMembers, lazyFactories);
+        }
         return new DefaultBean<T>(beanClass, beanClass.getName(), properties);
     }
 
+    private static AccessorFactory createLazyCompiledFactory(final Field[] fields, final Method[] getters,
+                                                             final Method[] setters,
+                                                             final AccessorFactory fallbackFactory) {
+        return new AccessorFactory() {
+            private AccessorFactory factory;
+
+            @Override
+            public synchronized <T> Accessor<T> createAccessor(Class<T> beanClass, Class<?> type,
+                                                               Field field, Method getter, Method setter) {
+                if (factory == null) {
+                    factory = CompiledAccessorFactory.create(beanClass, fields, getters, setters, fallbackFactory);
+                }
+                return factory.createAccessor(beanClass, type, field, getter, setter);
+            }
+        };
+    }
+
 }
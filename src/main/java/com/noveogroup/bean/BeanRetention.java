@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A policy of keeping beans loaded by a {@link BeanRegistry}.
+ * A bean which is not kept anymore is introspected again on the next
+ * request, see {@link RegistryMetrics#getReloadCount()}.
+ * <p>
+ * A policy belongs to one registry, its limits and counters are those of
+ * the registry. Factory methods create a new policy on every call.
+ * </p>
+ */
+public abstract class BeanRetention {
+
+    /**
+     * A reference to a retained bean.
+     */
+    interface Handle {
+
+        public Bean<?> get();
+
+        /**
+         * Forgets the bean, it is not returned anymore.
+         */
+        public void release();
+
+    }
+
+    private static final class StrongHandle implements Handle {
+
+        private volatile Bean<?> bean;
+
+        public StrongHandle(Bean<?> bean) {
+            this.bean = bean;
+        }
+
+        @Override
+        public Bean<?> get() {
+            return bean;
+        }
+
+        @Override
+        public void release() {
+            bean = null;
+        }
+
+    }
+
+    private static final class SoftHandle extends SoftReference<Bean<?>> implements Handle {
+
+        public SoftHandle(Bean<?> bean) {
+            super(bean);
+        }
+
+        @Override
+        public void release() {
+            clear();
+        }
+
+    }
+
+    private static final class WeakHandle extends WeakReference<Bean<?>> implements Handle {
+
+        public WeakHandle(Bean<?> bean) {
+            super(bean);
+        }
+
+        @Override
+        public void release() {
+            clear();
+        }
+
+    }
+
+    private static final class LruHandle implements Handle {
+
+        private final Lru lru;
+        private final int weight;
+        private volatile Bean<?> bean;
+        // racy second chance flag, a lost update only makes eviction less precise
+        private boolean referenced;
+
+        public LruHandle(Lru lru, Bean<?> bean, int weight) {
+            this.lru = lru;
+            this.bean = bean;
+            this.weight = weight;
+        }
+
+        @Override
+        public Bean<?> get() {
+            if (!referenced) {
+                referenced = true;
+            }
+            return bean;
+        }
+
+        @Override
+        public void release() {
+            lru.remove(this);
+        }
+
+    }
+
+    private static final class Lru extends BeanRetention {
+
+        private final int maxSize;
+        private final long maxWeight;
+        private final ArrayDeque<LruHandle> queue = new ArrayDeque<LruHandle>();
+        private long weight;
+
+        public Lru(int maxSize, long maxWeight) {
+            super(maxWeight == Long.MAX_VALUE ? "lru(" + maxSize + ")" : "lru(" + maxSize + ", " + maxWeight + ")");
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("max size should be positive");
+            }
+            if (maxWeight <= 0) {
+                throw new IllegalArgumentException("max weight should be positive");
+            }
+            this.maxSize = maxSize;
+            this.maxWeight = maxWeight;
+        }
+
+        @Override
+        Handle retain(Bean<?> bean) {
+            LruHandle handle = new LruHandle(this, bean, Math.max(1, bean.getPropertyCount()));
+            synchronized (this) {
+                queue.addLast(handle);
+                weight += handle.weight;
+                // the clock gives referenced beans a second chance, the newest bean is never evicted
+                int chances = queue.size();
+                while ((queue.size() > maxSize || weight > maxWeight) && queue.size() > 1) {
+                    LruHandle eldest = queue.pollFirst();
+                    if (eldest == handle || (eldest.referenced && chances-- > 0)) {
+                        eldest.referenced = false;
+                        queue.addLast(eldest);
+                    } else {
+                        weight -= eldest.weight;
+                        eldest.bean = null;
+                        recordEviction();
+                    }
+                }
+            }
+            return handle;
+        }
+
+        synchronized void remove(LruHandle handle) {
+            if (handle.bean != null && queue.remove(handle)) {
+                weight -= handle.weight;
+            }
+            handle.bean = null;
+        }
+
+        @Override
+        public synchronized int getSize() {
+            return queue.size();
+        }
+
+        @Override
+        public synchronized long getWeight() {
+            return weight;
+        }
+
+    }
+
+    /**
+     * Keeps beans until they are invalidated.
+     */
+    public static BeanRetention strong() {
+        return new BeanRetention("strong") {
+            @Override
+            Handle retain(Bean<?> bean) {
+                return new StrongHandle(bean);
+            }
+        };
+    }
+
+    /**
+     * Keeps beans until the memory is low.
+     */
+    public static BeanRetention soft() {
+        return new BeanRetention("soft") {
+            @Override
+            Handle retain(Bean<?> bean) {
+                return new SoftHandle(bean);
+            }
+        };
+    }
+
+    /**
+     * Keeps beans while they are used outside of the registry.
+     */
+    public static BeanRetention weak() {
+        return new BeanRetention("weak") {
+            @Override
+            Handle retain(Bean<?> bean) {
+                return new WeakHandle(bean);
+            }
+        };
+    }
+
+    /**
+     * Keeps at most {@code maxSize} recently used beans.
+     */
+    public static BeanRetention lru(int maxSize) {
+        return new Lru(maxSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * Keeps recently used beans while there are at most {@code maxSize}
+     * of them and their total weight is at most {@code maxWeight}.
+     * The weight of a bean is the number of its properties. Hits are not
+     * locked so the least recently used bean is chosen approximately.
+     */
+    public static BeanRetention lru(int maxSize, long maxWeight) {
+        return new Lru(maxSize, maxWeight);
+    }
+
+    private final String name;
+    private final AtomicBoolean isAttached = new AtomicBoolean();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private BeanRetention(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Binds the policy to a registry.
+     *
+     * @throws IllegalArgumentException if the policy is used by another registry.
+     */
+    void attach() {
+        if (!isAttached.compareAndSet(false, true)) {
+            throw new IllegalArgumentException("retention policy " + name + " is used by another registry");
+        }
+    }
+
+    abstract Handle retain(Bean<?> bean);
+
+    /**
+     * Keeps the bean until the handle is released, the policy is not involved.
+     */
+    static Handle pin(Bean<?> bean) {
+        return new StrongHandle(bean);
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordInvalidation() {
+        invalidations.increment();
+    }
+
+    /**
+     * Returns the number of beans evicted to keep the limits.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of beans removed by {@link BeanRegistry#invalidate(ClassLoader)}.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Returns the number of beans kept by a bounded policy or -1 if the policy is not bounded.
+     */
+    public int getSize() {
+        return -1;
+    }
+
+    /**
+     * Returns the total weight of beans kept by a bounded policy or -1 if the policy is not bounded.
+     */
+    public long getWeight() {
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanRetention{" + name
+                + ", evictions=" + getEvictionCount()
+                + ", invalidations=" + getInvalidationCount() + "}";
+    }
+
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+/**
+ * Writes beans to byte buffers and reads them back using a binary schema
+ * derived from properties of the bean class. The schema consists of
+ * properties that are both readable and writable in the order of their
+ * indexes (which is the order of their names).
+ * <p>
+ * Supported property types are primitives and their wrappers, strings,
+ * enums (stored by ordinals), byte arrays and classes of other beans,
+ * which are stored inline. Primitive values are written without boxing.
+ * </p>
+ * <p>
+ * Sequences of beans are streamed to and from channels by {@link Output}
+ * and {@link Input}. A stream starts with the {@link #getSchemaHash() hash}
+ * of the schema, so a stream cannot be read with another schema.
+ * </p>
+ */
+public class BeanSerializer<T> {
+
+    private static final int MAGIC = 0x4A424253;
+    private static final int END = -1;
+
+    private static final int BOXED = 9;
+    private static final int STRING = 10;
+    private static final int ENUM = 11;
+    private static final int BYTES = 12;
+    private static final int BEAN = 13;
+
+    /**
+     * Writes a sequence of beans to a channel through a buffer.
+     * Every bean is stored with its length, so the stream can be read
+     * by buffers smaller than the largest bean.
+     */
+    public static final class Output<T> {
+
+        private final BeanSerializer<T> serializer;
+        private final WritableByteChannel channel;
+        private ByteBuffer buffer;
+        private boolean isClosed;
+
+        private Output(BeanSerializer<T> serializer, WritableByteChannel channel, ByteBuffer buffer) {
+            this.serializer = serializer;
+            this.channel = channel;
+            this.buffer = buffer;
+            ((Buffer) buffer).clear();
+            buffer.putInt(MAGIC);
+            buffer.putLong(serializer.schemaHash);
+        }
+
+        public void write(T bean) throws IOException, IllegalAccessException, InvocationTargetException {
+            if (isClosed) {
+                throw new IOException("output is closed");
+            }
+            while (true) {
+                int position = buffer.position();
+                try {
+                    buffer.putInt(0);
+                    serializer.writeProperties(bean, buffer, null);
+                    buffer.putInt(position, buffer.position() - position - 4);
+                    return;
+                } catch (BufferOverflowException e) {
+                    ((Buffer) buffer).position(position);
+                    if (position == 0) {
+                        // the bean does not fit the empty buffer
+                        buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                    } else {
+                        flush();
+                    }
+                } catch (Throwable throwable) {
+                    // a failed bean leaves neither its length nor its values in the buffer
+                    ((Buffer) buffer).position(position);
+                    throw throwable;
+                }
+            }
+        }
+
+        /**
+         * Writes buffered beans to the channel.
+         */
+        public void flush() throws IOException {
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            ((Buffer) buffer).clear();
+        }
+
+        /**
+         * Writes the end of the sequence and flushes the buffer.
+         * The channel is not closed.
+         */
+        public void finish() throws IOException {
+            if (isClosed) {
+                return;
+            }
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            buffer.putInt(END);
+            flush();
+            isClosed = true;
+        }
+
+    }
+
+    /**
+     * Reads a sequence of beans written by {@link Output} from a channel.
+     */
+    public static final class Input<T> {
+
+        private final BeanSerializer<T> serializer;
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer;
+        private boolean isFinished;
+
+        private Input(BeanSerializer<T> serializer, ReadableByteChannel channel, ByteBuffer buffer)
+                throws IOException {
+            this.serializer = serializer;
+            this.channel = channel;
+            this.buffer = buffer;
+            ((Buffer) buffer).clear();
+            ((Buffer) buffer).flip();
+            fill(12);
+            if (buffer.getInt() != MAGIC) {
+                throw new StreamCorruptedException("stream is not a sequence of beans");
+            }
+            if (buffer.getLong() != serializer.schemaHash) {
+                throw new StreamCorruptedException("stream is written with another schema");
+            }
+        }
+
+        private void fill(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            if (buffer.capacity() < length) {
+                ByteBuffer buffer = ByteBuffer.allocate(Integer.highestOneBit(length - 1) << 1);
+                buffer.put(this.buffer);
+                this.buffer = buffer;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < length) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("unexpected end of stream");
+                }
+            }
+            ((Buffer) buffer).flip();
+        }
+
+        /**
+         * Reads the next bean.
+         *
+         * @return the bean or null if the end of the sequence is reached.
+         */
+        public T read() throws IOException, InstantiationException,
+                IllegalAccessException, InvocationTargetException {
+            if (isFinished) {
+                return null;
+            }
+            fill(4);
+            int length = buffer.getInt();
+            if (length == END) {
+                isFinished = true;
+                return null;
+            }
+            fill(length);
+            int limit = buffer.limit();
+            ((Buffer) buffer).limit(buffer.position() + length);
+            try {
+                T bean = serializer.bean.newBean();
+                serializer.readProperties(bean, buffer);
+                if (buffer.hasRemaining()) {
+                    throw new StreamCorruptedException("bean is shorter than its record");
+                }
+                return bean;
+            } catch (BufferUnderflowException e) {
+                throw new StreamCorruptedException("bean is longer than its record");
+            } catch (IndexOutOfBoundsException e) {
+                throw new StreamCorruptedException("enum constant is unknown");
+            } finally {
+                ((Buffer) buffer).limit(limit);
+            }
+        }
+
+    }
+
+    private final Bean<T> bean;
+    private final Property<T>[] properties;
+    private final int[] kinds;
+    private final Object[] types;
+    private final long schemaHash;
+
+    public BeanSerializer(Bean<T> bean) {
+        this(BeanRegistry.getInstance(), bean);
+    }
+
+    /**
+     * Creates the serializer.
+     *
+     * @param registry the registry to get beans of nested bean properties.
+     * @throws IllegalArgumentException if a property cannot be serialized.
+     */
+    public BeanSerializer(BeanRegistry registry, Bean<T> bean) {
+        this(registry, bean, new HashMap<Class<?>, BeanSerializer<?>>());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BeanSerializer(BeanRegistry registry, Bean<T> bean, Map<Class<?>, BeanSerializer<?>> serializers) {
+        this.bean = bean;
+        // the serializer is registered before its properties to allow recursive beans
+        serializers.put(bean.getBeanClass(), this);
+
+        List<Property<T>> properties = new ArrayList<Property<T>>();
+        for (Property<T> property : bean.getProperties()) {
+            if (property.isReadable() && property.isWritable()) {
+                properties.add(property);
+            }
+        }
+        this.properties = properties.toArray(new Property[properties.size()]);
+        this.kinds = new int[this.properties.length];
+        this.types = new Object[this.properties.length];
+
+        long schemaHash = bean.getBeanClass().getName().hashCode();
+        for (int i = 0; i < this.properties.length; i++) {
+            Property<T> property = this.properties[i];
+            Class<?> type = property.getType();
+            kinds[i] = getKind(property, type);
+            schemaHash = 31 * schemaHash + property.getName().hashCode();
+            schemaHash = 31 * schemaHash + type.getName().hashCode();
+            if (kinds[i] == ENUM) {
+                Object[] constants = type.getEnumConstants();
+                types[i] = constants;
+                // constants are stored by ordinals, so their order is a part of the schema
+                for (Object constant : constants) {
+                    schemaHash = 31 * schemaHash + ((Enum<?>) constant).name().hashCode();
+                }
+            } else if (kinds[i] == BOXED) {
+                types[i] = Primitives.getKind(Primitives.unwrap(type));
+            } else if (kinds[i] == BEAN) {
+                BeanSerializer<?> serializer = serializers.get(type);
+                if (serializer == null) {
+                    serializer = new BeanSerializer<Object>(registry, registry.get((Class<Object>) type), serializers);
+                }
+                types[i] = serializer;
+                // the hash of a recursive bean is not known yet, its class name is already hashed
+                schemaHash = 31 * schemaHash + serializer.schemaHash;
+            }
+        }
+        this.schemaHash = schemaHash;
+    }
+
+    private static int getKind(Property<?> property, Class<?> type) {
+        if (type.isPrimitive()) {
+            return Primitives.getKind(type);
+        } else if (Primitives.unwrap(type) != type) {
+            return BOXED;
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type.isEnum()) {
+            return ENUM;
+        } else if (type == byte[].class) {
+            return BYTES;
+        } else if (!type.isArray() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.") && !type.getName().startsWith("javax.")) {
+            return BEAN;
+        } else {
+            throw new IllegalArgumentException("property " + property.getName()
+                    + " of type " + type.getName() + " cannot be serialized");
+        }
+    }
+
+    public Bean<T> getBean() {
+        return bean;
+    }
+
+    /**
+     * Returns the list of serialized properties.
+     */
+    public List<Property<T>> getProperties() {
+        return Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    /**
+     * Returns the hash of names and types of serialized properties
+     * including properties of nested beans and names of enum constants.
+     */
+    public long getSchemaHash() {
+        return schemaHash;
+    }
+
+    /**
+     * Writes the bean to the buffer.
+     *
+     * The position of the buffer is not changed if the bean cannot be written.
+     *
+     * @throws BufferOverflowException if the bean does not fit the buffer.
+     * @throws IllegalArgumentException if nested beans refer to a bean they are nested in.
+     */
+    public void write(T bean, ByteBuffer buffer) throws IllegalAccessException, InvocationTargetException {
+        int position = buffer.position();
+        try {
+            writeProperties(bean, buffer, null);
+        } catch (Throwable throwable) {
+            ((Buffer) buffer).position(position);
+            throw throwable;
+        }
+    }
+
+    public T read(ByteBuffer buffer) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        T bean = this.bean.newBean();
+        readProperties(bean, buffer);
+        return bean;
+    }
+
+    /**
+     * Reads values of properties from the buffer to the existing bean.
+     */
+    public void read(ByteBuffer buffer, T bean)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        readProperties(bean, buffer);
+    }
+
+    /**
+     * Opens the output of a sequence of beans. The buffer is used to
+     * gather beans before they are written to the channel, a larger buffer
+     * is allocated if a bean does not fit it.
+     */
+    public Output<T> openOutput(WritableByteChannel channel, ByteBuffer buffer) {
+        return new Output<T>(this, channel, buffer);
+    }
+
+    /**
+     * Opens the input of a sequence of beans and reads its header.
+     *
+     * @throws StreamCorruptedException if the sequence is written with
+     *                                  another schema.
+     */
+    public Input<T> openInput(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        return new Input<T>(this, channel, buffer);
+    }
+
+    /**
+     * Writes values of properties.
+     *
+     * @param ancestors the beans the bean is nested in including itself or
+     *                  null if it is not nested and its nested beans were
+     *                  not written yet.
+     * @throws IllegalArgumentException if a nested bean is one of its ancestors.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeProperties(T bean, ByteBuffer buffer, List<Object> ancestors)
+            throws IllegalAccessException, InvocationTargetException {
+        for (int i = 0; i < properties.length; i++) {
+            Property<T> property = properties[i];
+            switch (kinds[i]) {
+                case Primitives.BOOLEAN:
+                    buffer.put(property.getBoolean(bean) ? (byte) 1 : (byte) 0);
+                    break;
+                case Primitives.BYTE:
+                    buffer.put(property.getByte(bean));
+                    break;
+                case Primitives.SHORT:
+                    buffer.putShort(property.getShort(bean));
+                    break;
+                case Primitives.CHAR:
+                    buffer.putChar(property.getChar(bean));
+                    break;
+                case Primitives.INT:
+                    buffer.putInt(property.getInt(bean));
+                    break;
+                case Primitives.LONG:
+                    buffer.putLong(property.getLong(bean));
+                    break;
+                case Primitives.FLOAT:
+                    buffer.putFloat(property.getFloat(bean));
+                    break;
+                case Primitives.DOUBLE:
+                    buffer.putDouble(property.getDouble(bean));
+                    break;
+                case BOXED:
+                    writeBoxed((Integer) types[i], property.getValue(bean), buffer);
+                    break;
+                case STRING:
+                    writeString((String) property.getValue(bean), buffer);
+                    break;
+                case ENUM:
+                    Enum<?> constant = (Enum<?>) property.getValue(bean);
+                    buffer.putInt(constant == null ? -1 : constant.ordinal());
+                    break;
+                case BYTES:
+                    byte[] bytes = (byte[]) property.getValue(bean);
+                    buffer.putInt(bytes == null ? -1 : bytes.length);
+                    if (bytes != null) {
+                        buffer.put(bytes);
+                    }
+                    break;
+                default:
+                    Object value = property.getValue(bean);
+                    buffer.put(value == null ? (byte) 0 : (byte) 1);
+                    if (value != null) {
+                        BeanSerializer<Object> serializer = (BeanSerializer<Object>) types[i];
+                        if (value.getClass() != serializer.bean.getBeanClass()) {
+                            throw new IllegalArgumentException("value of property " + property.getName()
+                                    + " is of class " + value.getClass().getName());
+                        }
+                        if (ancestors == null) {
+                            ancestors = new ArrayList<Object>();
+                            ancestors.add(bean);
+                        }
+                        for (Object ancestor : ancestors) {
+                            if (ancestor == value) {
+                                throw new IllegalArgumentException("value of property " + property.getName()
+                                        + " refers to a bean it is nested in");
+                            }
+                        }
+                        ancestors.add(value);
+                        serializer.writeProperties(value, buffer, ancestors);
+                        ancestors.remove(ancestors.size() - 1);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static void writeBoxed(int kind, Object value, ByteBuffer buffer) {
+        buffer.put(value == null ? (byte) 0 : (byte) 1);
+        if (value == null) {
+            return;
+        }
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+                break;
+            case Primitives.BYTE:
+                buffer.put((Byte) value);
+                break;
+            case Primitives.SHORT:
+                buffer.putShort((Short) value);
+                break;
+            case Primitives.CHAR:
+                buffer.putChar((Character) value);
+                break;
+            case Primitives.INT:
+                buffer.putInt((Integer) value);
+                break;
+            case Primitives.LONG:
+                buffer.putLong((Long) value);
+                break;
+            case Primitives.FLOAT:
+                buffer.putFloat((Float) value);
+                break;
+            default:
+                buffer.putDouble((Double) value);
+                break;
+        }
+    }
+
+    private static void writeString(String value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        // chars are encoded one by one like in modified UTF-8, so no arrays are created
+        int length = value.length();
+        buffer.putInt(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c > 0 && c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readProperties(T bean, ByteBuffer buffer)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        for (int i = 0; i < properties.length; i++) {
+            Property<T> property = properties[i];
+            switch (kinds[i]) {
+                case Primitives.BOOLEAN:
+                    property.setBoolean(bean, buffer.get() != 0);
+                    break;
+                case Primitives.BYTE:
+                    property.setByte(bean, buffer.get());
+                    break;
+                case Primitives.SHORT:
+                    property.setShort(bean, buffer.getShort());
+                    break;
+                case Primitives.CHAR:
+                    property.setChar(bean, buffer.getChar());
+                    break;
+                case Primitives.INT:
+                    property.setInt(bean, buffer.getInt());
+                    break;
+                case Primitives.LONG:
+                    property.setLong(bean, buffer.getLong());
+                    break;
+                case Primitives.FLOAT:
+                    property.setFloat(bean, buffer.getFloat());
+                    break;
+                case Primitives.DOUBLE:
+                    property.setDouble(bean, buffer.getDouble());
+                    break;
+                case BOXED:
+                    property.setValue(bean, readBoxed((Integer) types[i], buffer));
+                    break;
+                case STRING:
+                    property.setValue(bean, readString(buffer));
+                    break;
+                case ENUM:
+                    int ordinal = buffer.getInt();
+                    property.setValue(bean, ordinal < 0 ? null : ((Object[]) types[i])[ordinal]);
+                    break;
+                case BYTES:
+                    int length = buffer.getInt();
+                    byte[] bytes = null;
+                    if (length >= 0) {
+                        bytes = new byte[length];
+                        buffer.get(bytes);
+                    }
+                    property.setValue(bean, bytes);
+                    break;
+                default:
+                    Object value = null;
+                    if (buffer.get() != 0) {
+                        BeanSerializer<Object> serializer = (BeanSerializer<Object>) types[i];
+                        value = serializer.bean.newBean();
+                        serializer.readProperties(value, buffer);
+                    }
+                    property.setValue(bean, value);
+                    break;
+            }
+        }
+    }
+
+    private static Object readBoxed(int kind, ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                return buffer.get() != 0;
+            case Primitives.BYTE:
+                return buffer.get();
+            case Primitives.SHORT:
+                return buffer.getShort();
+            case Primitives.CHAR:
+                return buffer.getChar();
+            case Primitives.INT:
+                return buffer.getInt();
+            case Primitives.LONG:
+                return buffer.getLong();
+            case Primitives.FLOAT:
+                return buffer.getFloat();
+            default:
+                return buffer.getDouble();
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if (b < 0xE0) {
+                chars[i] = (char) ((b & 0x1F) << 6 | buffer.get() & 0x3F);
+            } else {
+                chars[i] = (char) ((b & 0x0F) << 12 | (buffer.get() & 0x3F) << 6 | buffer.get() & 0x3F);
+            }
+        }
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stores values of primitive properties of beans as fixed size records
+ * in direct or memory-mapped byte buffers. The layout of a record is
+ * derived from the primitive properties of the bean, which are both
+ * readable and writable. Values of other properties are not stored.
+ * <p>
+ * Records are accessed through a reusable {@link Flyweight} moved from
+ * one record to another. The store provides properties whose beans are
+ * flyweights, so code working with properties can work with stored
+ * records. Records can also be copied from and to bean instances.
+ * </p>
+ * <p>
+ * The store is not thread-safe for additions. Every thread should use
+ * its own flyweight.
+ * </p>
+ */
+public class BeanStore<T> {
+
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    /**
+     * A view of one record of the store.
+     */
+    public static final class Flyweight<T> {
+
+        private final BeanStore<T> store;
+        private long index = -1;
+        private ByteBuffer segment;
+        private int offset;
+
+        private Flyweight(BeanStore<T> store) {
+            this.store = store;
+        }
+
+        public BeanStore<T> getStore() {
+            return store;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * Moves the view to the record.
+         *
+         * @return this flyweight.
+         * @throws IndexOutOfBoundsException if there is no such record.
+         */
+        public Flyweight<T> moveTo(long index) {
+            store.checkIndex(index);
+            this.index = index;
+            this.segment = store.getSegment(index);
+            this.offset = store.getOffset(index);
+            return this;
+        }
+
+        ByteBuffer getSegment() {
+            return segment;
+        }
+
+        int getOffset() {
+            return offset;
+        }
+
+    }
+
+    private final Bean<T> bean;
+    private final Property<T>[] properties;
+    private final int[] kinds;
+    private final int[] offsets;
+    private final int recordSize;
+    private final List<Property<Flyweight<T>>> storedProperties;
+
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long capacity;
+    private final FileChannel channel;
+    private long size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BeanStore(Bean<T> bean, long capacity, FileChannel channel) throws IOException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity should not be negative");
+        }
+        this.bean = bean;
+        this.capacity = capacity;
+        this.channel = channel;
+
+        // wider values go first so all of them are aligned
+        List<Property<T>> properties = new ArrayList<Property<T>>();
+        for (int width = 8; width >= 1; width /= 2) {
+            for (Property<T> property : bean.getProperties()) {
+                if (property.isReadable() && property.isWritable()
+                        && property.getType().isPrimitive() && getWidth(property.getType()) == width) {
+                    properties.add(property);
+                }
+            }
+        }
+        this.properties = properties.toArray(new Property[properties.size()]);
+        this.kinds = new int[this.properties.length];
+        this.offsets = new int[this.properties.length];
+        Property<Flyweight<T>>[] storedProperties = new Property[bean.getPropertyCount()];
+        int offset = 0;
+        for (int i = 0; i < this.properties.length; i++) {
+            Property<T> property = this.properties[i];
+            kinds[i] = Primitives.getKind(property.getType());
+            offsets[i] = offset;
+            storedProperties[property.getIndex()] = new StoredProperty<T>(property, kinds[i], offset);
+            offset += getWidth(property.getType());
+        }
+        this.recordSize = Math.max(8, (offset + 7) & ~7);
+        this.storedProperties = Collections.unmodifiableList(Arrays.asList(storedProperties));
+
+        int recordsPerSegment = Integer.highestOneBit(MAX_SEGMENT_SIZE / recordSize);
+        this.segmentShift = Integer.numberOfTrailingZeros(recordsPerSegment);
+        this.segmentMask = recordsPerSegment - 1;
+        int segmentCount = (int) ((capacity + recordsPerSegment - 1) >>> segmentShift);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long records = Math.min(recordsPerSegment, capacity - ((long) i << segmentShift));
+            int segmentSize = (int) (records * recordSize);
+            ByteBuffer segment;
+            if (channel == null) {
+                segment = ByteBuffer.allocateDirect(segmentSize);
+            } else {
+                long position = ((long) i << segmentShift) * recordSize;
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+            }
+            segments[i] = segment.order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private static int getWidth(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else {
+            return 1;
+        }
+    }
+
+    /**
+     * Creates a store of records in direct byte buffers.
+     */
+    public static <T> BeanStore<T> allocate(Bean<T> bean, long capacity) {
+        try {
+            return new BeanStore<T>(bean, capacity, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a store of records mapped to the file. The file is created
+     * if it does not exist and is extended to fit all records. Records
+     * already in the file are kept but the store is empty, existing
+     * records should be declared by {@link #setSize(long)}. Records are
+     * stored in the native byte order, so the file can be read only by
+     * a machine with the same byte order.
+     */
+    public static <T> BeanStore<T> map(Bean<T> bean, Path file, long capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new BeanStore<T>(bean, capacity, channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Bean<T> getBean() {
+        return bean;
+    }
+
+    /**
+     * Returns the size of a record in bytes.
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Changes the number of records. New records are not cleared.
+     */
+    public void setSize(long size) {
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException("size should be in 0.." + capacity);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns an unmodifiable list of properties of stored records ordered
+     * by their indexes, which are the indexes of the bean properties.
+     * Properties that are not stored are null.
+     */
+    public List<Property<Flyweight<T>>> getProperties() {
+        return storedProperties;
+    }
+
+    public Property<Flyweight<T>> getProperty(String name) {
+        int index = bean.indexOf(name);
+        return index < 0 ? null : storedProperties.get(index);
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is out of 0.." + size);
+        }
+    }
+
+    private ByteBuffer getSegment(long index) {
+        return segments[(int) (index >>> segmentShift)];
+    }
+
+    private int getOffset(long index) {
+        return (int) (index & segmentMask) * recordSize;
+    }
+
+    /**
+     * Creates a new flyweight, which is not moved to any record.
+     */
+    public Flyweight<T> flyweight() {
+        return new Flyweight<T>(this);
+    }
+
+    /**
+     * Appends a record copied from the bean.
+     *
+     * @return the index of the record.
+     * @throws IllegalStateException if the store is full.
+     */
+    public long add(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (size == capacity) {
+            throw new IllegalStateException("store is full");
+        }
+        long index = size++;
+        set(index, bean);
+        return index;
+    }
+
+    /**
+     * Copies values of the bean to the record.
+     */
+    public void set(long index, T bean) throws IllegalAccessException, InvocationTargetException {
+        checkIndex(index);
+        ByteBuffer segment = getSegment(index);
+        int base = getOffset(index);
+        for (int i = 0; i < properties.length; i++) {
+            Property<T> property = properties[i];
+            int offset = base + offsets[i];
+            switch (kinds[i]) {
+                case Primitives.BOOLEAN:
+                    segment.put(offset, property.getBoolean(bean) ? (byte) 1 : (byte) 0);
+                    break;
+                case Primitives.BYTE:
+                    segment.put(offset, property.getByte(bean));
+                    break;
+                case Primitives.SHORT:
+                    segment.putShort(offset, property.getShort(bean));
+                    break;
+                case Primitives.CHAR:
+                    segment.putChar(offset, property.getChar(bean));
+                    break;
+                case Primitives.INT:
+                    segment.putInt(offset, property.getInt(bean));
+                    break;
+                case Primitives.LONG:
+                    segment.putLong(offset, property.getLong(bean));
+                    break;
+                case Primitives.FLOAT:
+                    segment.putFloat(offset, property.getFloat(bean));
+                    break;
+                default:
+                    segment.putDouble(offset, property.getDouble(bean));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Copies values of the record to the bean.
+     *
+     * @return the bean.
+     */
+    public T get(long index, T bean) throws IllegalAccessException, InvocationTargetException {
+        checkIndex(index);
+        ByteBuffer segment = getSegment(index);
+        int base = getOffset(index);
+        for (int i = 0; i < properties.length; i++) {
+            Property<T> property = properties[i];
+            int offset = base + offsets[i];
+            switch (kinds[i]) {
+                case Primitives.BOOLEAN:
+                    property.setBoolean(bean, segment.get(offset) != 0);
+                    break;
+                case Primitives.BYTE:
+                    property.setByte(bean, segment.get(offset));
+                    break;
+                case Primitives.SHORT:
+                    property.setShort(bean, segment.getShort(offset));
+                    break;
+                case Primitives.CHAR:
+                    property.setChar(bean, segment.getChar(offset));
+                    break;
+                case Primitives.INT:
+                    property.setInt(bean, segment.getInt(offset));
+                    break;
+                case Primitives.LONG:
+                    property.setLong(bean, segment.getLong(offset));
+                    break;
+                case Primitives.FLOAT:
+                    property.setFloat(bean, segment.getFloat(offset));
+                    break;
+                default:
+                    property.setDouble(bean, segment.getDouble(offset));
+                    break;
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Creates a bean from the record.
+     */
+    public T get(long index) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        return get(index, bean.newBean());
+    }
+
+    /**
+     * Writes changes of mapped records to the file.
+     * Does nothing for records in direct buffers.
+     */
+    public void force() {
+        if (channel != null) {
+            for (ByteBuffer segment : segments) {
+                ((java.nio.MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Closes the mapped file. Mapped buffers are released when they
+     * are garbage collected, the store should not be used after closing.
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Finds classes of a package and its subpackages in directories and jar
+ * files of a class loader.
+ */
+final class ClassScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private ClassScanner() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static List<Class<?>> scan(String packageName, ClassLoader classLoader) throws IOException {
+        String path = packageName.replace('.', '/');
+        Set<String> classNames = new TreeSet<String>();
+
+        Enumeration<URL> resources = classLoader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            if ("file".equals(url.getProtocol())) {
+                scanDirectory(new File(decode(url.getPath())), packageName, classNames);
+            } else {
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    connection.setUseCaches(false);
+                    JarFile jarFile = ((JarURLConnection) connection).getJarFile();
+                    try {
+                        scanJar(jarFile, path.isEmpty() ? path : path + "/", classNames);
+                    } finally {
+                        jarFile.close();
+                    }
+                }
+            }
+        }
+
+        List<Class<?>> classes = new ArrayList<Class<?>>(classNames.size());
+        for (String className : classNames) {
+            try {
+                Class<?> type = Class.forName(className, false, classLoader);
+                if (!type.isInterface() && !type.isAnonymousClass() && !type.isLocalClass() && !type.isSynthetic()) {
+                    classes.add(type);
+                }
+            } catch (ClassNotFoundException ignored) {
+            } catch (LinkageError ignored) {
+            }
+        }
+        return classes;
+    }
+
+    private static String decode(String path) throws UnsupportedEncodingException {
+        return URLDecoder.decode(path, "UTF-8");
+    }
+
+    private static String getQualifiedName(String packageName, String name) {
+        return packageName.isEmpty() ? name : packageName + "." + name;
+    }
+
+    private static void addClassName(String className, Set<String> classNames) {
+        if (!className.endsWith("package-info") && !className.endsWith("module-info")) {
+            classNames.add(className);
+        }
+    }
+
+    private static void scanDirectory(File directory, String packageName, Set<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                scanDirectory(file, getQualifiedName(packageName, name), classNames);
+            } else if (name.endsWith(CLASS_SUFFIX)) {
+                String simpleName = name.substring(0, name.length() - CLASS_SUFFIX.length());
+                addClassName(getQualifiedName(packageName, simpleName), classNames);
+            }
+        }
+    }
+
+    private static void scanJar(JarFile jarFile, String prefix, Set<String> classNames) {
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(prefix) && name.endsWith(CLASS_SUFFIX)) {
+                addClassName(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'), classNames);
+            }
+        }
+    }
+
+}
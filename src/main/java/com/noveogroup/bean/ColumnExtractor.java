@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Extracts values of properties from large lists of beans to
+ * {@link Columns} and scatters them back. The list is split into ranges
+ * which are processed in parallel by a fork-join pool.
+ */
+public class ColumnExtractor<T> {
+
+    private static final int MIN_RANGE = 1024;
+
+    private final List<Property<T>> properties;
+    private final int[] kinds;
+    private final ForkJoinPool pool;
+
+    public ColumnExtractor(List<Property<T>> properties) {
+        this(properties, ForkJoinPool.commonPool());
+    }
+
+    public ColumnExtractor(List<Property<T>> properties, ForkJoinPool pool) {
+        this.properties = new ArrayList<Property<T>>(properties);
+        this.kinds = new int[properties.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = Primitives.getKind(properties.get(i).getType());
+        }
+        this.pool = pool;
+    }
+
+    public static <T> ColumnExtractor<T> create(Bean<T> bean, String... propertyNames) {
+        List<Property<T>> properties = new ArrayList<Property<T>>(propertyNames.length);
+        for (String propertyName : propertyNames) {
+            Property<T> property = bean.getProperty(propertyName);
+            if (property == null) {
+                throw new IllegalArgumentException("there is no property " + propertyName);
+            }
+            properties.add(property);
+        }
+        return new ColumnExtractor<T>(properties);
+    }
+
+    private static class AccessFailure extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        AccessFailure(Exception cause) {
+            super(cause);
+        }
+
+    }
+
+    private class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends T> beans;
+        private final Columns<T> columns;
+        private final boolean isScatter;
+        private final int from;
+        private final int to;
+        private final int range;
+
+        public Task(List<? extends T> beans, Columns<T> columns, boolean isScatter, int from, int to, int range) {
+            this.beans = beans;
+            this.columns = columns;
+            this.isScatter = isScatter;
+            this.from = from;
+            this.to = to;
+            this.range = range;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > range) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(beans, columns, isScatter, from, middle, range),
+                        new Task(beans, columns, isScatter, middle, to, range));
+                return;
+            }
+            try {
+                for (int i = 0; i < kinds.length; i++) {
+                    if (isScatter) {
+                        scatter(properties.get(i), kinds[i], columns.getColumn(i), beans, from, to);
+                    } else {
+                        extract(properties.get(i), kinds[i], columns.getColumn(i), beans, from, to);
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new AccessFailure(e);
+            } catch (InvocationTargetException e) {
+                throw new AccessFailure(e);
+            }
+        }
+
+    }
+
+    private static <T> void extract(Property<T> property, int kind, Object column,
+                                    List<? extends T> beans, int from, int to)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                boolean[] booleans = (boolean[]) column;
+                for (int i = from; i < to; i++) {
+                    booleans[i] = property.getBoolean(beans.get(i));
+                }
+                break;
+            case Primitives.BYTE:
+                byte[] bytes = (byte[]) column;
+                for (int i = from; i < to; i++) {
+                    bytes[i] = property.getByte(beans.get(i));
+                }
+                break;
+            case Primitives.SHORT:
+                short[] shorts = (short[]) column;
+                for (int i = from; i < to; i++) {
+                    shorts[i] = property.getShort(beans.get(i));
+                }
+                break;
+            case Primitives.CHAR:
+                char[] chars = (char[]) column;
+                for (int i = from; i < to; i++) {
+                    chars[i] = property.getChar(beans.get(i));
+                }
+                break;
+            case Primitives.INT:
+                int[] ints = (int[]) column;
+                for (int i = from; i < to; i++) {
+                    ints[i] = property.getInt(beans.get(i));
+                }
+                break;
+            case Primitives.LONG:
+                long[] longs = (long[]) column;
+                for (int i = from; i < to; i++) {
+                    longs[i] = property.getLong(beans.get(i));
+                }
+                break;
+            case Primitives.FLOAT:
+                float[] floats = (float[]) column;
+                for (int i = from; i < to; i++) {
+                    floats[i] = property.getFloat(beans.get(i));
+                }
+                break;
+            case Primitives.DOUBLE:
+                double[] doubles = (double[]) column;
+                for (int i = from; i < to; i++) {
+                    doubles[i] = property.getDouble(beans.get(i));
+                }
+                break;
+            default:
+                Object[] objects = (Object[]) column;
+                for (int i = from; i < to; i++) {
+                    objects[i] = property.getValue(beans.get(i));
+                }
+                break;
+        }
+    }
+
+    private static <T> void scatter(Property<T> property, int kind, Object column,
+                                    List<? extends T> beans, int from, int to)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                boolean[] booleans = (boolean[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setBoolean(beans.get(i), booleans[i]);
+                }
+                break;
+            case Primitives.BYTE:
+                byte[] bytes = (byte[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setByte(beans.get(i), bytes[i]);
+                }
+                break;
+            case Primitives.SHORT:
+                short[] shorts = (short[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setShort(beans.get(i), shorts[i]);
+                }
+                break;
+            case Primitives.CHAR:
+                char[] chars = (char[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setChar(beans.get(i), chars[i]);
+                }
+                break;
+            case Primitives.INT:
+                int[] ints = (int[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setInt(beans.get(i), ints[i]);
+                }
+                break;
+            case Primitives.LONG:
+                long[] longs = (long[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setLong(beans.get(i), longs[i]);
+                }
+                break;
+            case Primitives.FLOAT:
+                float[] floats = (float[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setFloat(beans.get(i), floats[i]);
+                }
+                break;
+            case Primitives.DOUBLE:
+                double[] doubles = (double[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setDouble(beans.get(i), doubles[i]);
+                }
+                break;
+            default:
+                Object[] objects = (Object[]) column;
+                for (int i = from; i < to; i++) {
+                    property.setValue(beans.get(i), objects[i]);
+                }
+                break;
+        }
+    }
+
+    private void run(List<? extends T> beans, Columns<T> columns, boolean isScatter)
+            throws IllegalAccessException, InvocationTargetException {
+        int size = columns.getSize();
+        int range = Math.max(MIN_RANGE, size / (pool.getParallelism() * 8));
+        try {
+            pool.invoke(new Task(beans, columns, isScatter, 0, size, range));
+        } catch (AccessFailure failure) {
+            Throwable cause = failure.getCause();
+            while (cause instanceof AccessFailure) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IllegalAccessException) {
+                throw (IllegalAccessException) cause;
+            }
+            throw (InvocationTargetException) cause;
+        }
+    }
+
+    private static <T> List<? extends T> toRandomAccess(List<? extends T> beans) {
+        return beans instanceof RandomAccess ? beans : new ArrayList<T>(beans);
+    }
+
+    public Columns<T> extract(List<? extends T> beans) throws IllegalAccessException, InvocationTargetException {
+        beans = toRandomAccess(beans);
+        Columns<T> columns = new Columns<T>(properties, beans.size());
+        run(beans, columns, false);
+        return columns;
+    }
+
+    public Columns<T> extract(T[] beans) throws IllegalAccessException, InvocationTargetException {
+        return extract(Arrays.asList(beans));
+    }
+
+    /**
+     * Writes values of the columns to the beans.
+     * The columns should be extracted by an extractor of the same properties.
+     */
+    public void scatter(Columns<T> columns, List<? extends T> beans)
+            throws IllegalAccessException, InvocationTargetException {
+        if (!columns.getProperties().equals(properties)) {
+            throw new IllegalArgumentException("columns have other properties");
+        }
+        if (columns.getSize() > beans.size()) {
+            throw new IllegalArgumentException("there are less beans than column values");
+        }
+        run(toRandomAccess(beans), columns, true);
+    }
+
+    public void scatter(Columns<T> columns, T[] beans) throws IllegalAccessException, InvocationTargetException {
+        scatter(columns, Arrays.asList(beans));
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Values of several properties of a sequence of beans stored as arrays,
+ * one array per property. Values of primitive properties are stored to
+ * arrays of primitives ({@code int[]} for an {@code int} property),
+ * values of other properties are stored to arrays of the property type.
+ */
+public class Columns<T> {
+
+    private final List<Property<T>> properties;
+    private final Object[] columns;
+    private final int size;
+
+    public Columns(List<Property<T>> properties, int size) {
+        this.properties = Collections.unmodifiableList(new ArrayList<Property<T>>(properties));
+        this.columns = new Object[properties.size()];
+        this.size = size;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Array.newInstance(properties.get(i).getType(), size);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<Property<T>> getProperties() {
+        return properties;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public int indexOf(String name) {
+        for (int i = 0; i < properties.size(); i++) {
+            if (properties.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the array of values of a property.
+     *
+     * @param index the index of the column.
+     * @return the array, for example {@code int[]} or {@code String[]}.
+     */
+    public Object getColumn(int index) {
+        return columns[index];
+    }
+
+    public Object getColumn(String name) {
+        int index = indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("there is no column " + name);
+        }
+        return columns[index];
+    }
+
+}
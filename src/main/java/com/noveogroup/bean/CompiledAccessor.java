@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+
+public class CompiledAccessor<T> implements Accessor<T> {
+
+    private final BeanAccessor beanAccessor;
+    private final int getterIndex;
+    private final boolean isGetterMethod;
+    private final Class<?> getterClass;
+    private final int setterIndex;
+    private final boolean isSetterMethod;
+    private final Class<?> setterClass;
+    private final Class<?> valueType;
+    private final Accessor<T> fallback;
+
+    /**
+     * Creates an accessor that uses a generated bean accessor and
+     * delegates to the fallback accessor when the corresponding index
+     * is negative.
+     *
+     * @param getterClass the class declaring the member read by the getter.
+     * @param setterClass the class declaring the member written by the setter.
+     * @param valueType   the type of values accepted by the setter.
+     */
+    public CompiledAccessor(BeanAccessor beanAccessor,
+                            int getterIndex, boolean isGetterMethod, Class<?> getterClass,
+                            int setterIndex, boolean isSetterMethod, Class<?> setterClass, Class<?> valueType,
+                            Accessor<T> fallback) {
+        this.beanAccessor = beanAccessor;
+        this.getterIndex = getterIndex;
+        this.isGetterMethod = isGetterMethod;
+        this.getterClass = getterClass;
+        this.setterIndex = setterIndex;
+        this.isSetterMethod = isSetterMethod;
+        this.setterClass = setterClass;
+        this.valueType = valueType;
+        this.fallback = fallback;
+    }
+
+    private InvocationTargetException wrapGetter(Throwable throwable, Object bean) {
+        Arguments.checkBean(getterClass, bean);
+        return MethodHandleAccessor.wrap(throwable, isGetterMethod);
+    }
+
+    private InvocationTargetException wrapSetter(Throwable throwable, Object bean) {
+        Arguments.checkBean(setterClass, bean);
+        return MethodHandleAccessor.wrap(throwable, isSetterMethod);
+    }
+
+    @Override
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getValue(bean);
+        }
+        try {
+            return beanAccessor.get(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setValue(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.set(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            Arguments.checkBean(setterClass, bean);
+            Arguments.checkValue(valueType, value);
+            // generated code unboxes exact wrappers, widened values never reach the setter
+            if (Arguments.isWidened(valueType, value)) {
+                fallback.setValue(bean, value);
+                return;
+            }
+            throw MethodHandleAccessor.wrap(throwable, isSetterMethod);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getBoolean(bean);
+        }
+        try {
+            return beanAccessor.getBoolean(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setBoolean(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setBoolean(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getByte(bean);
+        }
+        try {
+            return beanAccessor.getByte(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setByte(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setByte(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getShort(bean);
+        }
+        try {
+            return beanAccessor.getShort(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setShort(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setShort(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getChar(bean);
+        }
+        try {
+            return beanAccessor.getChar(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setChar(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setChar(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getInt(bean);
+        }
+        try {
+            return beanAccessor.getInt(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setInt(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setInt(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getLong(bean);
+        }
+        try {
+            return beanAccessor.getLong(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setLong(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setLong(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getFloat(bean);
+        }
+        try {
+            return beanAccessor.getFloat(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setFloat(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setFloat(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getterIndex < 0) {
+            return fallback.getDouble(bean);
+        }
+        try {
+            return beanAccessor.getDouble(bean, getterIndex);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        if (setterIndex < 0) {
+            fallback.setDouble(bean, value);
+            return;
+        }
+        try {
+            beanAccessor.setDouble(bean, setterIndex, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates accessors of a single bean class backed by one generated
+ * {@link BeanAccessor} class. The generated class reads and writes
+ * public members directly and dispatches by index with a switch.
+ */
+public class CompiledAccessorFactory implements AccessorFactory {
+
+    private final BeanAccessor beanAccessor;
+    private final Map<Member, Integer> getterIndexes;
+    private final Map<Member, Integer> setterIndexes;
+    private final AccessorFactory fallbackFactory;
+
+    private CompiledAccessorFactory(BeanAccessor beanAccessor,
+                                    Map<Member, Integer> getterIndexes, Map<Member, Integer> setterIndexes,
+                                    AccessorFactory fallbackFactory) {
+        this.beanAccessor = beanAccessor;
+        this.getterIndexes = getterIndexes;
+        this.setterIndexes = setterIndexes;
+        this.fallbackFactory = fallbackFactory;
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+    }
+
+    private static boolean isCompilable(Class<?> beanClass) {
+        return Modifier.isPublic(beanClass.getModifiers())
+                && !beanClass.isInterface() && !beanClass.isArray() && !beanClass.isPrimitive()
+                && !beanClass.getName().startsWith("java.");
+    }
+
+    private static boolean isCompilable(Member member) {
+        int modifiers = member.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers);
+    }
+
+    private static Member getGetterMember(Field field, Method getter) {
+        if (getter != null) {
+            if (isCompilable(getter)
+                    && getter.getParameterTypes().length == 0 && getter.getReturnType() != void.class) {
+                return getter;
+            }
+        } else if (field != null) {
+            if (isCompilable(field)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static Member getSetterMember(Field field, Method setter) {
+        if (setter != null) {
+            if (isCompilable(setter) && setter.getReturnType() == void.class
+                    && setter.getParameterTypes().length == 1 && isPublic(setter.getParameterTypes()[0])) {
+                return setter;
+            }
+        } else if (field != null) {
+            if (isCompilable(field) && !Modifier.isFinal(field.getModifiers()) && isPublic(field.getType())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Generates an accessor class for the members of the bean class.
+     * Members at the same index belong to the same property.
+     *
+     * @return the compiled factory or the fallback factory if
+     * the accessor class cannot be generated.
+     */
+    public static AccessorFactory create(Class<?> beanClass, Field[] fields, Method[] getters, Method[] setters,
+                                         AccessorFactory fallbackFactory) {
+        if (!isCompilable(beanClass)) {
+            return fallbackFactory;
+        }
+
+        int count = fields.length;
+        Member[] getterMembers = new Member[count];
+        Member[] setterMembers = new Member[count];
+        Map<Member, Integer> getterIndexes = new HashMap<Member, Integer>();
+        Map<Member, Integer> setterIndexes = new HashMap<Member, Integer>();
+        for (int i = 0; i < count; i++) {
+            getterMembers[i] = getGetterMember(fields[i], getters[i]);
+            if (getterMembers[i] != null) {
+                getterIndexes.put(getterMembers[i], i);
+            }
+            setterMembers[i] = getSetterMember(fields[i], setters[i]);
+            if (setterMembers[i] != null) {
+                setterIndexes.put(setterMembers[i], i);
+            }
+        }
+        if (getterIndexes.isEmpty() && setterIndexes.isEmpty()) {
+            return fallbackFactory;
+        }
+
+        BeanAccessor beanAccessor = BeanAccessorGenerator.generate(beanClass, getterMembers, setterMembers);
+        if (beanAccessor == null) {
+            return fallbackFactory;
+        }
+        return new CompiledAccessorFactory(beanAccessor, getterIndexes, setterIndexes, fallbackFactory);
+    }
+
+    private static int getIndex(Map<Member, Integer> indexes, Member member) {
+        Integer index = member == null ? null : indexes.get(member);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public <T> Accessor<T> createAccessor(Class<T> beanClass, Class<?> type, Field field, Method getter, Method setter) {
+        Accessor<T> fallback = fallbackFactory.createAccessor(beanClass, type, field, getter, setter);
+        int getterIndex = getIndex(getterIndexes, getter != null ? getter : field);
+        int setterIndex = getIndex(setterIndexes, setter != null ? setter : field);
+        if (getterIndex < 0 && setterIndex < 0) {
+            return fallback;
+        }
+        Member getterMember = getter != null ? getter : field;
+        Member setterMember = setter != null ? setter : field;
+        return new CompiledAccessor<T>(beanAccessor,
+                getterIndex, getter != null, getterMember == null ? null : getterMember.getDeclaringClass(),
+                setterIndex, setter != null, setterMember == null ? null : setterMember.getDeclaringClass(),
+                setterMember == null ? null : Arguments.getValueType(setterMember),
+                fallback);
+    }
+
+}
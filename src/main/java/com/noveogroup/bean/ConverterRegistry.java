@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds converters between pairs of types. Converters registered for
+ * a source class are also used for its subclasses. If no converter is
+ * registered then a built-in one is used: values are passed as is to
+ * assignable types (including wrappers of primitives), converted to
+ * strings by {@link String#valueOf(Object)}, parsed from strings to
+ * primitives, wrappers, big numbers and enums, and converted between
+ * numbers. Numbers are not narrowed as by casts: a conversion that would
+ * overflow or drop a fraction of an integer throws
+ * {@link IllegalArgumentException}.
+ * <p>
+ * Found converters are cached in a table per target type indexed by ids
+ * of source classes, so a lookup does not search converters again.
+ * Registration clears the cache.
+ * </p>
+ */
+public class ConverterRegistry {
+
+    private static ConverterRegistry instance = new ConverterRegistry();
+
+    public static ConverterRegistry getInstance() {
+        return instance;
+    }
+
+    private static final Converter<Object, Object> NONE = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object value) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static final Converter<Object, Object> IDENTITY = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object value) {
+            return value;
+        }
+    };
+
+    private static final Converter<Object, String> TO_STRING = new Converter<Object, String>() {
+        @Override
+        public String convert(Object value) {
+            return String.valueOf(value);
+        }
+    };
+
+    /**
+     * Converters to a target type indexed by ids of source classes.
+     */
+    static final class Table {
+
+        private final Class<?> targetType;
+        private volatile Converter<?, ?>[] converters = new Converter<?, ?>[0];
+        private volatile boolean isRemoved;
+
+        private Table(Class<?> targetType) {
+            this.targetType = targetType;
+        }
+
+        /**
+         * Returns true if the table was removed by {@link #invalidate(ClassLoader)},
+         * registrations do not clear it anymore.
+         */
+        boolean isRemoved() {
+            return isRemoved;
+        }
+
+    }
+
+    private final AtomicInteger idCounter = new AtomicInteger();
+    // changed by every registration, so a converter found before it is not cached after it
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ClassValue<Integer> ids = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return idCounter.getAndIncrement();
+        }
+    };
+
+    private final ConcurrentMap<Class<?>, Map<Class<?>, Converter<?, ?>>> converters =
+            new ConcurrentHashMap<Class<?>, Map<Class<?>, Converter<?, ?>>>();
+    private final ConcurrentMap<Class<?>, Table> tables = new ConcurrentHashMap<Class<?>, Table>();
+
+    /**
+     * Registers the converter. Converters to primitive types should
+     * return their wrappers.
+     */
+    public <S, T> void register(Class<S> sourceType, Class<T> targetType, Converter<? super S, ? extends T> converter) {
+        Map<Class<?>, Converter<?, ?>> map = converters.get(sourceType);
+        if (map == null) {
+            map = new ConcurrentHashMap<Class<?>, Converter<?, ?>>();
+            Map<Class<?>, Converter<?, ?>> previous = converters.putIfAbsent(sourceType, map);
+            map = previous == null ? map : previous;
+        }
+        map.put(targetType, converter);
+        generation.incrementAndGet();
+        for (Table table : tables.values()) {
+            synchronized (table) {
+                table.converters = new Converter<?, ?>[0];
+            }
+        }
+    }
+
+    /**
+     * Removes converters registered for classes loaded by the class loader
+     * or by its descendants and clears the cache, so the registry does not
+     * keep the class loader.
+     */
+    public void invalidate(ClassLoader classLoader) {
+        if (classLoader == null) {
+            throw new IllegalArgumentException("class loader should not be null");
+        }
+        for (Map.Entry<Class<?>, Map<Class<?>, Converter<?, ?>>> entry : converters.entrySet()) {
+            if (BeanRegistry.isLoadedBy(entry.getKey(), classLoader)) {
+                converters.remove(entry.getKey());
+                continue;
+            }
+            for (Map.Entry<Class<?>, Converter<?, ?>> target : entry.getValue().entrySet()) {
+                if (BeanRegistry.isLoadedBy(target.getKey(), classLoader)
+                        || BeanRegistry.isLoadedBy(target.getValue().getClass(), classLoader)) {
+                    entry.getValue().remove(target.getKey());
+                }
+            }
+        }
+        generation.incrementAndGet();
+        for (Table table : tables.values()) {
+            synchronized (table) {
+                if (BeanRegistry.isLoadedBy(table.targetType, classLoader)) {
+                    tables.remove(table.targetType);
+                    table.isRemoved = true;
+                }
+                table.converters = new Converter<?, ?>[0];
+            }
+        }
+    }
+
+    Table getTable(Class<?> targetType) {
+        Table table = tables.get(targetType);
+        if (table == null) {
+            table = new Table(targetType);
+            Table previous = tables.putIfAbsent(targetType, table);
+            table = previous == null ? table : previous;
+        }
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    Converter<Object, Object> getConverter(Table table, Class<?> sourceType) {
+        int id = ids.get(sourceType);
+        Converter<?, ?>[] converters = table.converters;
+        Converter<?, ?> converter = id < converters.length ? converters[id] : null;
+        while (converter == null) {
+            if (table.isRemoved) {
+                // converters are cached in the current table of the type only
+                table = getTable(table.targetType);
+            }
+            int generation = this.generation.get();
+            Converter<?, ?> found = findConverter(sourceType, table.targetType);
+            synchronized (table) {
+                if (generation != this.generation.get() || table.isRemoved) {
+                    // a converter was registered during the search, search again
+                    continue;
+                }
+                converters = table.converters;
+                if (id >= converters.length) {
+                    Converter<?, ?>[] array = new Converter<?, ?>[Math.max(id + 1, converters.length * 2)];
+                    System.arraycopy(converters, 0, array, 0, converters.length);
+                    converters = array;
+                } else {
+                    converters = converters.clone();
+                }
+                converters[id] = found;
+                table.converters = converters;
+            }
+            converter = found;
+        }
+        if (converter == NONE) {
+            throw new IllegalArgumentException("cannot convert " + sourceType.getName()
+                    + " to " + table.targetType.getName());
+        }
+        return (Converter<Object, Object>) converter;
+    }
+
+    /**
+     * Returns the converter between types.
+     *
+     * @throws IllegalArgumentException if the types cannot be converted.
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> Converter<S, T> getConverter(Class<S> sourceType, Class<T> targetType) {
+        return (Converter<S, T>) getConverter(getTable(targetType), sourceType);
+    }
+
+    public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+        return findConverter(sourceType, targetType) != NONE;
+    }
+
+    /**
+     * Converts the value. Null is converted to null.
+     *
+     * @throws IllegalArgumentException if the value cannot be converted.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object value, Class<T> targetType) {
+        if (value == null) {
+            return null;
+        }
+        return (T) getConverter(getTable(targetType), value.getClass()).convert(value);
+    }
+
+    private Converter<?, ?> findConverter(Class<?> sourceType, Class<?> targetType) {
+        for (Class<?> type = sourceType; type != null; type = type.getSuperclass()) {
+            Converter<?, ?> converter = findRegisteredConverter(type, targetType);
+            if (converter != null) {
+                return converter;
+            }
+            for (Class<?> interfaceType : type.getInterfaces()) {
+                converter = findRegisteredConverter(interfaceType, targetType);
+                if (converter != null) {
+                    return converter;
+                }
+            }
+        }
+        return findBuiltInConverter(Primitives.wrap(sourceType), targetType);
+    }
+
+    private Converter<?, ?> findRegisteredConverter(Class<?> sourceType, Class<?> targetType) {
+        Map<Class<?>, Converter<?, ?>> map = converters.get(sourceType);
+        return map == null ? null : map.get(targetType);
+    }
+
+    private static Converter<?, ?> findBuiltInConverter(Class<?> sourceType, final Class<?> targetType) {
+        Class<?> wrapperType = Primitives.wrap(targetType);
+        if (wrapperType.isAssignableFrom(sourceType)) {
+            return IDENTITY;
+        }
+        if (targetType == String.class) {
+            return TO_STRING;
+        }
+        final int kind = Primitives.getKind(Primitives.unwrap(wrapperType));
+        if (sourceType == String.class) {
+            if (kind != Primitives.OBJECT) {
+                return new Converter<String, Object>() {
+                    @Override
+                    public Object convert(String value) {
+                        return parse(kind, value);
+                    }
+                };
+            } else if (targetType == BigDecimal.class) {
+                return new Converter<String, BigDecimal>() {
+                    @Override
+                    public BigDecimal convert(String value) {
+                        return new BigDecimal(value.trim());
+                    }
+                };
+            } else if (targetType == BigInteger.class) {
+                return new Converter<String, BigInteger>() {
+                    @Override
+                    public BigInteger convert(String value) {
+                        return new BigInteger(value.trim());
+                    }
+                };
+            } else if (targetType.isEnum()) {
+                return new Converter<String, Object>() {
+                    @Override
+                    @SuppressWarnings({"unchecked", "rawtypes"})
+                    public Object convert(String value) {
+                        return Enum.valueOf((Class) targetType, value.trim());
+                    }
+                };
+            }
+        }
+        if (Number.class.isAssignableFrom(sourceType)) {
+            if (kind != Primitives.OBJECT && kind != Primitives.BOOLEAN && kind != Primitives.CHAR) {
+                return new Converter<Number, Object>() {
+                    @Override
+                    public Object convert(Number value) {
+                        return convertNumber(kind, value);
+                    }
+                };
+            } else if (targetType == BigDecimal.class) {
+                return new Converter<Number, BigDecimal>() {
+                    @Override
+                    public BigDecimal convert(Number value) {
+                        return value instanceof BigInteger ? new BigDecimal((BigInteger) value)
+                                : new BigDecimal(value.toString());
+                    }
+                };
+            } else if (targetType == BigInteger.class) {
+                return new Converter<Number, BigInteger>() {
+                    @Override
+                    public BigInteger convert(Number value) {
+                        try {
+                            return value instanceof BigDecimal ? ((BigDecimal) value).toBigIntegerExact()
+                                    : new BigDecimal(value.toString()).toBigIntegerExact();
+                        } catch (ArithmeticException e) {
+                            throw lossyConversion(value, "BigInteger");
+                        }
+                    }
+                };
+            }
+        }
+        return NONE;
+    }
+
+    static Object parse(int kind, String value) {
+        String text = value.trim();
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                return parseBoolean(text);
+            case Primitives.BYTE:
+                return Byte.valueOf(text);
+            case Primitives.SHORT:
+                return Short.valueOf(text);
+            case Primitives.CHAR:
+                return parseChar(value);
+            case Primitives.INT:
+                return Integer.valueOf(text);
+            case Primitives.LONG:
+                return Long.valueOf(text);
+            case Primitives.FLOAT:
+                return Float.valueOf(text);
+            default:
+                return Double.valueOf(text);
+        }
+    }
+
+    static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        } else if (value.equalsIgnoreCase("false")) {
+            return false;
+        } else {
+            throw new IllegalArgumentException("cannot convert \"" + value + "\" to boolean");
+        }
+    }
+
+    static char parseChar(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("cannot convert \"" + value + "\" to char");
+        }
+        return value.charAt(0);
+    }
+
+    private static Object convertNumber(int kind, Number value) {
+        // values are never narrowed as by casts of primitives
+        switch (kind) {
+            case Primitives.BYTE:
+                return (byte) toLongExact(value, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+            case Primitives.SHORT:
+                return (short) toLongExact(value, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+            case Primitives.INT:
+                return (int) toLongExact(value, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+            case Primitives.LONG:
+                return toLongExact(value, Long.MIN_VALUE, Long.MAX_VALUE, "long");
+            case Primitives.FLOAT:
+                float floatValue = value.floatValue();
+                checkFloating(value, floatValue, 1L << 24, "float");
+                return floatValue;
+            default:
+                double doubleValue = value.doubleValue();
+                checkFloating(value, doubleValue, 1L << 53, "double");
+                return doubleValue;
+        }
+    }
+
+    private static IllegalArgumentException lossyConversion(Number value, String type) {
+        return new IllegalArgumentException("cannot convert " + value + " to " + type + " without loss");
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte;
+    }
+
+    private static long toLongExact(Number value, long min, long max, String type) {
+        long result;
+        if (isIntegral(value)) {
+            result = value.longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = value.doubleValue();
+            // NaN fails the range check, 2^63 is the first double beyond longs
+            if (!(number >= -0x1p63 && number < 0x1p63) || (double) (long) number != number) {
+                throw lossyConversion(value, type);
+            }
+            result = (long) number;
+        } else {
+            try {
+                result = (value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString()))
+                        .longValueExact();
+            } catch (ArithmeticException e) {
+                throw lossyConversion(value, type);
+            } catch (NumberFormatException e) {
+                throw lossyConversion(value, type);
+            }
+        }
+        if (result < min || result > max) {
+            throw lossyConversion(value, type);
+        }
+        return result;
+    }
+
+    /**
+     * Checks a conversion to float or double. Decimal fractions are rounded
+     * to the nearest value as by parsing, but integers must be exact and
+     * finite values must not overflow to infinities.
+     *
+     * @param exactLimit the magnitude up to which all integers are exact.
+     */
+    private static void checkFloating(Number value, double result, long exactLimit, String type) {
+        if (Double.isInfinite(result)) {
+            if (!(value instanceof Double || value instanceof Float) || !Double.isInfinite(value.doubleValue())) {
+                throw lossyConversion(value, type);
+            }
+        } else if (isIntegral(value)) {
+            long number = value.longValue();
+            if ((number > exactLimit || number < -exactLimit) && (number != (long) result || result >= 0x1p63)) {
+                throw lossyConversion(value, type);
+            }
+        } else if (value instanceof BigInteger
+                && new BigDecimal(result).compareTo(new BigDecimal((BigInteger) value)) != 0) {
+            throw lossyConversion(value, type);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Sets and gets values of a property converting them by converters of
+ * a {@link ConverterRegistry}. The table of converters to the property
+ * type is resolved once and again only if
+ * {@link ConverterRegistry#invalidate(ClassLoader)} removes it, converters
+ * of source classes are cached in it.
+ * <p>
+ * Strings are parsed to primitive properties and primitive values are
+ * formatted to strings without boxing.
+ * </p>
+ */
+public class ConvertingProperty<T> {
+
+    private final Property<T> property;
+    private final ConverterRegistry registry;
+    private ConverterRegistry.Table table;
+    private final Class<?> wrapperType;
+    private final int kind;
+
+    public ConvertingProperty(Property<T> property) {
+        this(property, ConverterRegistry.getInstance());
+    }
+
+    public ConvertingProperty(Property<T> property, ConverterRegistry registry) {
+        this.property = property;
+        this.registry = registry;
+        this.table = registry.getTable(property.getType());
+        this.wrapperType = Primitives.wrap(property.getType());
+        this.kind = Primitives.getKind(property.getType());
+    }
+
+    public Property<T> getProperty() {
+        return property;
+    }
+
+    /**
+     * Converts the value to the type of the property and sets it.
+     *
+     * @throws IllegalArgumentException if the value cannot be converted
+     *                                  or it is null and the property is primitive.
+     */
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (value == null) {
+            if (kind != Primitives.OBJECT) {
+                throw new IllegalArgumentException("property " + property.getName() + " is primitive");
+            }
+        } else if (!wrapperType.isInstance(value)) {
+            ConverterRegistry.Table table = this.table;
+            if (table.isRemoved()) {
+                table = registry.getTable(property.getType());
+                this.table = table;
+            }
+            value = registry.getConverter(table, value.getClass()).convert(value);
+        }
+        property.setValue(bean, value);
+    }
+
+    /**
+     * Parses the string and sets the value. Values of primitive properties
+     * are parsed and set without boxing.
+     *
+     * @throws IllegalArgumentException if the string cannot be converted.
+     */
+    public void setString(T bean, String value) throws IllegalAccessException, InvocationTargetException {
+        if (value == null || kind == Primitives.OBJECT) {
+            setValue(bean, value);
+            return;
+        }
+        String text = value.trim();
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                property.setBoolean(bean, ConverterRegistry.parseBoolean(text));
+                break;
+            case Primitives.BYTE:
+                property.setByte(bean, Byte.parseByte(text));
+                break;
+            case Primitives.SHORT:
+                property.setShort(bean, Short.parseShort(text));
+                break;
+            case Primitives.CHAR:
+                property.setChar(bean, ConverterRegistry.parseChar(value));
+                break;
+            case Primitives.INT:
+                property.setInt(bean, Integer.parseInt(text));
+                break;
+            case Primitives.LONG:
+                property.setLong(bean, Long.parseLong(text));
+                break;
+            case Primitives.FLOAT:
+                property.setFloat(bean, Float.parseFloat(text));
+                break;
+            default:
+                property.setDouble(bean, Double.parseDouble(text));
+                break;
+        }
+    }
+
+    /**
+     * Gets the value converted to the type.
+     *
+     * @throws IllegalArgumentException if the value cannot be converted.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V getValue(T bean, Class<V> type) throws IllegalAccessException, InvocationTargetException {
+        Object value = property.getValue(bean);
+        if (value == null || Primitives.wrap(type).isInstance(value)) {
+            return (V) value;
+        }
+        return registry.convert(value, type);
+    }
+
+    /**
+     * Gets the value converted to a string. Values of primitive
+     * properties are formatted without boxing.
+     */
+    public String getString(T bean) throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case Primitives.BOOLEAN:
+                return String.valueOf(property.getBoolean(bean));
+            case Primitives.BYTE:
+                return String.valueOf(property.getByte(bean));
+            case Primitives.SHORT:
+                return String.valueOf(property.getShort(bean));
+            case Primitives.CHAR:
+                return String.valueOf(property.getChar(bean));
+            case Primitives.INT:
+                return String.valueOf(property.getInt(bean));
+            case Primitives.LONG:
+                return String.valueOf(property.getLong(bean));
+            case Primitives.FLOAT:
+                return String.valueOf(property.getFloat(bean));
+            case Primitives.DOUBLE:
+                return String.valueOf(property.getDouble(bean));
+            default:
+                return getValue(bean, String.class);
+        }
+    }
+
+}
@@ -28,26 +28,53 @@ package com.noveogroup.bean;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
 
 public class DefaultBean<T> implements Bean<T> {
 
     private final Class<T> beanClass;
     private final String name;
-    private final Map<String, Property<T>> properties;
-
+    private final Property<T>[] properties;
+    private final List<Property<T>> propertyList;
+    private final NameTable nameTable;
+    private final int[] kinds;
+    private final boolean[] isReadable;
+    private final boolean[] isWritable;
+    private volatile Map<Class<? extends Annotation>, List<Property<T>>> annotatedProperties;
+    private volatile BeanInstantiator<T> instantiator;
+
+    /**
+     * Creates a bean of properties in their order. A property should
+     * have the index of its position, properties that do not know their
+     * indexes are wrapped to get them.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public DefaultBean(Class<T> beanClass, String name, Collection<Property<T>> properties) {
         this.beanClass = beanClass;
         this.name = name;
 
-        HashMap<String, Property<T>> map = new HashMap<String, Property<T>>(properties.size());
-        for (Property<T> property : properties) {
-            map.put(property.getName(), property);
+        this.properties = properties.toArray(new Property[properties.size()]);
+        String[] names = new String[this.properties.length];
+        for (int index = 0; index < this.properties.length; index++) {
+            if (this.properties[index].getIndex() == -1) {
+                this.properties[index] = new IndexedProperty<T>(this.properties[index], index);
+            } else if (this.properties[index].getIndex() != index) {
+                throw new IllegalArgumentException("property index should be equal to its position");
+            }
+            names[index] = this.properties[index].getName();
+        }
+        this.propertyList = Collections.unmodifiableList(Arrays.asList(this.properties));
+        this.nameTable = new NameTable(names);
+
+        this.kinds = new int[this.properties.length];
+        this.isReadable = new boolean[this.properties.length];
+        this.isWritable = new boolean[this.properties.length];
+        for (int index = 0; index < this.properties.length; index++) {
+            kinds[index] = Primitives.getKind(this.properties[index].getType());
+            isReadable[index] = this.properties[index].isReadable();
+            isWritable[index] = this.properties[index].isWritable();
         }
-        this.properties = Collections.unmodifiableMap(map);
     }
 
     @Override
@@ -62,7 +89,12 @@ public class DefaultBean<T> implements Bean<T> {
 
     @Override
     public T newBean() throws InstantiationException, IllegalAccessException {
-        return beanClass.newInstance();
+        BeanInstantiator<T> instantiator = this.instantiator;
+        if (instantiator == null) {
+            instantiator = new BeanInstantiator<T>(beanClass);
+            this.instantiator = instantiator;
+        }
+        return instantiator.newInstance();
     }
 
     @Override
@@ -71,14 +103,131 @@ public class DefaultBean<T> implements Bean<T> {
         return (T[]) Array.newInstance(beanClass, length);
     }
 
+    @Override
+    public T[] newBeans(int count) throws InstantiationException, IllegalAccessException {
+        T[] beans = newBeanArray(count);
+        for (int i = 0; i < count; i++) {
+            beans[i] = newBean();
+        }
+        return beans;
+    }
+
+    @Override
+    public int getPropertyCount() {
+        return properties.length;
+    }
+
+    @Override
+    public int indexOf(String name) {
+        return nameTable.indexOf(name);
+    }
+
+    @Override
+    public Property<T> getProperty(int index) {
+        return properties[index];
+    }
+
     @Override
     public Property<T> getProperty(String name) {
-        return properties.get(name);
+        int index = nameTable.indexOf(name);
+        return index < 0 ? null : properties[index];
+    }
+
+    @Override
+    public Property<T>[] getPropertyArray() {
+        return properties.clone();
     }
 
     @Override
     public Collection<Property<T>> getProperties() {
-        return properties.values();
+        return propertyList;
+    }
+
+    private Map<Class<? extends Annotation>, List<Property<T>>> indexAnnotatedProperties() {
+        // the index is built on demand to not resolve annotations of every loaded bean
+        Map<Class<? extends Annotation>, List<Property<T>>> annotatedProperties =
+                new HashMap<Class<? extends Annotation>, List<Property<T>>>();
+        for (Property<T> property : properties) {
+            for (Annotation annotation : property.getAnnotations()) {
+                List<Property<T>> list = annotatedProperties.get(annotation.annotationType());
+                if (list == null) {
+                    list = new ArrayList<Property<T>>();
+                    annotatedProperties.put(annotation.annotationType(), list);
+                }
+                if (list.isEmpty() || list.get(list.size() - 1) != property) {
+                    list.add(property);
+                }
+            }
+        }
+        for (Map.Entry<Class<? extends Annotation>, List<Property<T>>> entry : annotatedProperties.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return annotatedProperties;
+    }
+
+    @Override
+    public List<Property<T>> getProperties(Class<? extends Annotation> annotationClass) {
+        Map<Class<? extends Annotation>, List<Property<T>>> annotatedProperties = this.annotatedProperties;
+        if (annotatedProperties == null) {
+            annotatedProperties = indexAnnotatedProperties();
+            this.annotatedProperties = annotatedProperties;
+        }
+        List<Property<T>> list = annotatedProperties.get(annotationClass);
+        return list == null ? Collections.<Property<T>>emptyList() : list;
+    }
+
+    private void checkLength(Object[] values, long[] primitives) {
+        Arguments.checkLength(properties.length, values, primitives);
+    }
+
+    @Override
+    public void readValues(T bean, Object[] values) throws IllegalAccessException, InvocationTargetException {
+        checkLength(values, null);
+        for (int index = 0; index < properties.length; index++) {
+            if (isReadable[index]) {
+                values[index] = properties[index].getValue(bean);
+            }
+        }
+    }
+
+    @Override
+    public void writeValues(T bean, Object[] values) throws IllegalAccessException, InvocationTargetException {
+        checkLength(values, null);
+        for (int index = 0; index < properties.length; index++) {
+            if (isWritable[index]) {
+                properties[index].setValue(bean, values[index]);
+            }
+        }
+    }
+
+    @Override
+    public void readValues(T bean, Object[] values, long[] primitives)
+            throws IllegalAccessException, InvocationTargetException {
+        checkLength(values, primitives);
+        for (int index = 0; index < properties.length; index++) {
+            if (isReadable[index]) {
+                if (kinds[index] == Primitives.OBJECT) {
+                    values[index] = properties[index].getValue(bean);
+                } else {
+                    primitives[index] = Primitives.getBits(properties[index], kinds[index], bean);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void writeValues(T bean, Object[] values, long[] primitives)
+            throws IllegalAccessException, InvocationTargetException {
+        checkLength(values, primitives);
+        for (int index = 0; index < properties.length; index++) {
+            if (isWritable[index]) {
+                if (kinds[index] == Primitives.OBJECT) {
+                    properties[index].setValue(bean, values[index]);
+                } else {
+                    Primitives.setBits(properties[index], kinds[index], bean, primitives[index]);
+                }
+            }
+        }
     }
 
     @Override
@@ -28,29 +28,28 @@ package com.noveogroup.bean;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
-public class DefaultProperty<T> implements Property<T> {
+public class DefaultProperty<T> extends AbstractProperty<T> {
 
-    private final Class<T> beanClass;
-    private final String name;
     private final Field field;
-
     private final Method getter;
     private final Method setter;
-    private final Class<?> type;
 
     private final boolean isReadable;
     private final boolean isWritable;
 
-    public DefaultProperty(Class<T> beanClass, String name, Class<?> type, Field field, Method getter, Method setter) {
-        this.beanClass = beanClass;
-        this.name = name;
-        this.type = type;
+    private final Accessor<T> accessor;
 
-        this.field = field;
+    private final AnnotationIndex annotationIndex;
+
+    /**
+     * Checks that the members can back a property of the type.
+     *
+     * @throws IllegalArgumentException if they cannot.
+     */
+    static void validate(Class<?> type, Field field, Method getter, Method setter) {
         if (field != null) {
             int modifiers = field.getModifiers();
             if (Modifier.isStatic(modifiers)) {
@@ -61,7 +60,6 @@ public class DefaultProperty<T> implements Property<T> {
             }
         }
 
-        this.getter = getter;
         if (getter != null) {
             int modifiers = getter.getModifiers();
             if (Modifier.isStatic(modifiers)) {
@@ -75,7 +73,6 @@ public class DefaultProperty<T> implements Property<T> {
             }
         }
 
-        this.setter = setter;
         if (setter != null) {
             int modifiers = setter.getModifiers();
             if (Modifier.isStatic(modifiers)) {
@@ -91,6 +88,33 @@ public class DefaultProperty<T> implements Property<T> {
                 throw new IllegalArgumentException("setter parameter type should be assignable from the property type");
             }
         }
+    }
+
+    /**
+     * Creates a property that does not know its index.
+     *
+     * @deprecated use {@link #DefaultProperty(Class, int, String, Class, Field, Method, Method)},
+     * a {@link DefaultBean} created with this property wraps it to give it an index.
+     */
+    @Deprecated
+    public DefaultProperty(Class<T> beanClass, String name, Class<?> type, Field field, Method getter, Method setter) {
+        this(beanClass, -1, name, type, field, getter, setter);
+    }
+
+    public DefaultProperty(Class<T> beanClass, int index, String name, Class<?> type,
+                           Field field, Method getter, Method setter) {
+        this(beanClass, index, name, type, field, getter, setter, new ReflectionAccessorFactory());
+    }
+
+    public DefaultProperty(Class<T> beanClass, int index, String name, Class<?> type,
+                           Field field, Method getter, Method setter,
+                           AccessorFactory accessorFactory) {
+        super(beanClass, index, name, type);
+
+        validate(type, field, getter, setter);
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
 
         boolean isReadable = false;
         boolean isWritable = false;
@@ -109,21 +133,16 @@ public class DefaultProperty<T> implements Property<T> {
         }
         this.isReadable = isReadable;
         this.isWritable = isWritable;
-    }
 
-    @Override
-    public Class<T> getBeanClass() {
-        return beanClass;
-    }
+        this.accessor = accessorFactory.createAccessor(beanClass, type, field, getter, setter);
 
-    @Override
-    public String getName() {
-        return name;
+        // field annotations hide getter ones and getter annotations hide setter ones
+        this.annotationIndex = new AnnotationIndex(field, getter, setter);
     }
 
     @Override
-    public Class<?> getType() {
-        return type;
+    protected Accessor<T> getAccessor() {
+        return accessor;
     }
 
     @Override
@@ -131,78 +150,24 @@ public class DefaultProperty<T> implements Property<T> {
         return isReadable;
     }
 
-    @Override
-    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
-        if (getter != null) {
-            return getter.invoke(bean);
-        } else if (field != null) {
-            return field.get(bean);
-        } else {
-            throw new IllegalAccessError("property is not readable");
-        }
-    }
-
     @Override
     public boolean isWritable() {
         return isWritable;
     }
 
-    @Override
-    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
-        if (setter != null) {
-            setter.invoke(bean, value);
-        } else if (field != null) {
-            field.set(bean, value);
-        } else {
-            throw new IllegalAccessError("property is not writable");
-        }
-    }
-
     @Override
     public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass) {
-        if (field != null && field.isAnnotationPresent(annotationClass)) {
-            return true;
-        }
-        if (getter != null && getter.isAnnotationPresent(annotationClass)) {
-            return true;
-        }
-        if (setter != null && setter.isAnnotationPresent(annotationClass)) {
-            return true;
-        }
-        return false;
+        return annotationIndex.isAnnotationPresent(annotationClass);
     }
 
     @Override
     public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
-        A annotation;
-        if (field != null && (annotation = field.getAnnotation(annotationClass)) != null) {
-            return annotation;
-        }
-        if (getter != null && (annotation = getter.getAnnotation(annotationClass)) != null) {
-            return annotation;
-        }
-        if (setter != null && (annotation = setter.getAnnotation(annotationClass)) != null) {
-            return annotation;
-        }
-        return null;
+        return annotationIndex.getAnnotation(annotationClass);
     }
 
     @Override
     public Annotation[] getAnnotations() {
-        Annotation[] fieldAnnotations = field == null ? new Annotation[0] : field.getAnnotations();
-        Annotation[] getterAnnotations = getter == null ? new Annotation[0] : getter.getAnnotations();
-        Annotation[] setterAnnotations = setter == null ? new Annotation[0] : setter.getAnnotations();
-
-        Annotation[] annotations = new Annotation[fieldAnnotations.length + getterAnnotations.length + setterAnnotations.length];
-
-        int position = 0;
-        System.arraycopy(fieldAnnotations, 0, annotations, position, fieldAnnotations.length);
-        position += fieldAnnotations.length;
-        System.arraycopy(getterAnnotations, 0, annotations, position, getterAnnotations.length);
-        position += getterAnnotations.length;
-        System.arraycopy(setterAnnotations, 0, annotations, position, setterAnnotations.length);
-
-        return annotations;
+        return annotationIndex.getAnnotations();
     }
 
 }
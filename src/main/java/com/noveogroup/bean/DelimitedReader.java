@@ -0,0 +1,821 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads beans from delimited text like CSV. The first line is a header,
+ * its columns are bound to writable properties with the same names once,
+ * other columns are ignored. Fields may be quoted, a quote inside a quoted
+ * field is doubled. A quote elsewhere in an unquoted field is a plain
+ * character.
+ * <p>
+ * Fields are parsed in the read buffer. Values of primitive properties,
+ * their wrappers, booleans and enums are parsed without creating strings
+ * (except for numbers that cannot be parsed exactly by the fast path).
+ * Empty fields set wrappers to null and leave primitives unchanged.
+ * Blank lines are skipped.
+ * Properties of other types are converted from strings by converters of
+ * {@link ConverterRegistry#getInstance()}.
+ * </p>
+ * <p>
+ * Files can be read in parallel. The file is split into ranges at line
+ * boundaries and every range is parsed separately, so quoted fields of
+ * files read in parallel should not contain line breaks.
+ * </p>
+ */
+public class DelimitedReader<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MIN_SPLIT_SIZE = 1024 * 1024;
+
+    private static final int BOXED = 9;
+    private static final int STRING = 10;
+    private static final int ENUM = 11;
+    private static final int CONVERTED = 12;
+
+    // states of scanning a record for its end
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_END = 3;
+
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final float[] FLOAT_POWERS = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private static final class Binding<T> {
+
+        private final Property<T>[] properties;
+        private final int[] kinds;
+        private final int[] primitiveKinds;
+        private final Enum<?>[][] constants;
+        private final Converter<String, ?>[] converters;
+
+        @SuppressWarnings("unchecked")
+        public Binding(int count) {
+            this.properties = (Property<T>[]) new Property<?>[count];
+            this.kinds = new int[count];
+            this.primitiveKinds = new int[count];
+            this.constants = new Enum<?>[count][];
+            this.converters = (Converter<String, ?>[]) new Converter<?, ?>[count];
+        }
+
+    }
+
+    /**
+     * An iterator of beans read from a text.
+     * <p>
+     * {@link #next()} throws {@link UncheckedIOException} if the text
+     * cannot be read, {@link IllegalArgumentException} if a field cannot
+     * be parsed and {@link IllegalStateException} if a bean cannot be
+     * created or a property cannot be set.
+     * </p>
+     */
+    public static final class Rows<T> implements Iterator<T>, Closeable {
+
+        private final DelimitedReader<T> reader;
+        private final Reader input;
+        private Binding<T> binding;
+
+        private char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean isEnd;
+
+        private int recordStart;
+        private int recordEnd;
+        private long lineNumber;
+        private long lineCount;
+        private boolean hasRecord;
+
+        private int[] fieldStarts = new int[16];
+        private int[] fieldEnds = new int[16];
+        private boolean[] fieldQuotes = new boolean[16];
+
+        private long mantissa;
+        private int exponent;
+        private boolean isNegative;
+
+        private Rows(DelimitedReader<T> reader, Reader input, Binding<T> binding, long lineCount) {
+            this.reader = reader;
+            this.input = input;
+            this.binding = binding;
+            this.lineCount = lineCount;
+        }
+
+        /**
+         * Returns the number of the line the last bean starts at. Lines of
+         * files read in parallel are counted from the start of their ranges.
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        private boolean fill() throws IOException {
+            if (isEnd) {
+                return false;
+            }
+            if (recordStart > 0) {
+                System.arraycopy(buffer, recordStart, buffer, 0, limit - recordStart);
+                position -= recordStart;
+                limit -= recordStart;
+                recordStart = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int count = input.read(buffer, limit, buffer.length - limit);
+            if (count < 0) {
+                isEnd = true;
+                return false;
+            }
+            limit += count;
+            return true;
+        }
+
+        private boolean readRecord() throws IOException {
+            recordStart = position;
+            lineNumber = lineCount + 1;
+            // quotes are recognized only at the start of a field as in parseFields()
+            int state = FIELD_START;
+            char delimiter = reader.delimiter;
+            char quote = reader.quote;
+            while (true) {
+                // the buffer and the limit are changed only by fill()
+                char[] buffer = this.buffer;
+                int limit = this.limit;
+                int index = position;
+                while (index < limit) {
+                    char c = buffer[index];
+                    if (c == '\n') {
+                        lineCount++;
+                        if (state != QUOTED) {
+                            break;
+                        }
+                    } else if (c == quote) {
+                        if (state == FIELD_START || state == QUOTE_END) {
+                            // a doubled quote inside a quoted field stays quoted
+                            state = QUOTED;
+                        } else if (state == QUOTED) {
+                            state = QUOTE_END;
+                        }
+                    } else if (c == delimiter && state != QUOTED) {
+                        state = FIELD_START;
+                    } else if (state != QUOTED) {
+                        state = UNQUOTED;
+                    }
+                    index++;
+                }
+                position = index;
+                if (index < limit) {
+                    recordEnd = index;
+                    position++;
+                    break;
+                }
+                if (!fill()) {
+                    if (recordStart == this.limit) {
+                        return false;
+                    }
+                    recordEnd = this.limit;
+                    break;
+                }
+            }
+            if (recordEnd > recordStart && buffer[recordEnd - 1] == '\r') {
+                recordEnd--;
+            }
+            return true;
+        }
+
+        private List<String> readHeader() throws IOException {
+            if (!readRecord()) {
+                throw new EOFException("there is no header");
+            }
+            List<String> names = new ArrayList<String>();
+            int count = parseFields();
+            for (int column = 0; column < count; column++) {
+                names.add(new String(buffer, fieldStarts[column], fieldEnds[column] - fieldStarts[column]));
+            }
+            if (!names.isEmpty() && names.get(0).startsWith("\uFEFF")) {
+                names.set(0, names.get(0).substring(1));
+            }
+            return names;
+        }
+
+        /**
+         * Finds fields of the record and unescapes quoted ones.
+         *
+         * @return the number of fields.
+         */
+        private int parseFields() {
+            char delimiter = reader.delimiter;
+            char quote = reader.quote;
+            int index = recordStart;
+            int column = 0;
+            while (true) {
+                int start = index;
+                int end;
+                boolean isQuoted = index < recordEnd && buffer[index] == quote;
+                if (isQuoted) {
+                    // quoted fields are unescaped in place
+                    index++;
+                    start = index;
+                    end = index;
+                    while (index < recordEnd) {
+                        char c = buffer[index];
+                        if (c == quote) {
+                            if (index + 1 < recordEnd && buffer[index + 1] == quote) {
+                                buffer[end++] = quote;
+                                index += 2;
+                                continue;
+                            }
+                            index++;
+                            break;
+                        }
+                        buffer[end++] = c;
+                        index++;
+                    }
+                    while (index < recordEnd && buffer[index] != delimiter) {
+                        index++;
+                    }
+                } else {
+                    while (index < recordEnd && buffer[index] != delimiter) {
+                        index++;
+                    }
+                    end = index;
+                }
+                if (column == fieldStarts.length) {
+                    fieldStarts = Arrays.copyOf(fieldStarts, column * 2);
+                    fieldEnds = Arrays.copyOf(fieldEnds, column * 2);
+                    fieldQuotes = Arrays.copyOf(fieldQuotes, column * 2);
+                }
+                fieldStarts[column] = start;
+                fieldEnds[column] = end;
+                fieldQuotes[column] = isQuoted;
+                if (index >= recordEnd) {
+                    return column + 1;
+                }
+                index++;
+                column++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!hasRecord) {
+                try {
+                    // blank lines are skipped instead of creating empty beans
+                    do {
+                        hasRecord = readRecord();
+                    } while (hasRecord && recordEnd == recordStart);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return hasRecord;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasRecord = false;
+            try {
+                T bean = reader.bean.newBean();
+                int count = Math.min(parseFields(), binding.properties.length);
+                for (int column = 0; column < count; column++) {
+                    if (binding.properties[column] != null) {
+                        setField(bean, column, fieldStarts[column], fieldEnds[column], fieldQuotes[column]);
+                    }
+                }
+                return bean;
+            } catch (InstantiationException e) {
+                throw new IllegalStateException(e);
+            } catch (IllegalAccessException e) {
+                throw Arguments.wrap(e);
+            } catch (InvocationTargetException e) {
+                throw Arguments.wrap(e);
+            }
+        }
+
+        private IllegalArgumentException invalidField(int column, int start, int end, IllegalArgumentException e) {
+            return new IllegalArgumentException("cannot parse \"" + new String(buffer, start, end - start)
+                    + "\" of property " + binding.properties[column].getName() + " at line " + lineNumber, e);
+        }
+
+        private void setField(T bean, int column, int start, int end, boolean isQuoted)
+                throws IllegalAccessException, InvocationTargetException {
+            Property<T> property = binding.properties[column];
+            int kind = binding.kinds[column];
+            if (kind == STRING) {
+                property.setValue(bean, new String(buffer, start, end - start));
+                return;
+            }
+            if (start == end && !isQuoted) {
+                if (kind == BOXED || kind == ENUM || kind == CONVERTED) {
+                    property.setValue(bean, null);
+                }
+                return;
+            }
+            try {
+                switch (kind) {
+                    case Primitives.BOOLEAN:
+                        property.setBoolean(bean, parseBoolean(buffer, start, end));
+                        break;
+                    case Primitives.BYTE:
+                        property.setByte(bean, (byte) parseLong(buffer, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE));
+                        break;
+                    case Primitives.SHORT:
+                        property.setShort(bean, (short) parseLong(buffer, start, end, Short.MIN_VALUE, Short.MAX_VALUE));
+                        break;
+                    case Primitives.CHAR:
+                        property.setChar(bean, parseChar(buffer, start, end));
+                        break;
+                    case Primitives.INT:
+                        property.setInt(bean, (int) parseLong(buffer, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                        break;
+                    case Primitives.LONG:
+                        property.setLong(bean, parseLong(buffer, start, end, Long.MIN_VALUE, Long.MAX_VALUE));
+                        break;
+                    case Primitives.FLOAT:
+                        property.setFloat(bean, parseFloat(start, end));
+                        break;
+                    case Primitives.DOUBLE:
+                        property.setDouble(bean, parseDouble(start, end));
+                        break;
+                    case BOXED:
+                        property.setValue(bean, parseBoxed(binding.primitiveKinds[column], start, end));
+                        break;
+                    case ENUM:
+                        property.setValue(bean, parseEnum(binding.constants[column], buffer, start, end));
+                        break;
+                    default:
+                        property.setValue(bean, binding.converters[column].convert(new String(buffer, start, end - start)));
+                        break;
+                }
+            } catch (IllegalArgumentException e) {
+                throw invalidField(column, start, end, e);
+            }
+        }
+
+        private Object parseBoxed(int kind, int start, int end) {
+            switch (kind) {
+                case Primitives.BOOLEAN:
+                    return parseBoolean(buffer, start, end);
+                case Primitives.BYTE:
+                    return (byte) parseLong(buffer, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                case Primitives.SHORT:
+                    return (short) parseLong(buffer, start, end, Short.MIN_VALUE, Short.MAX_VALUE);
+                case Primitives.CHAR:
+                    return parseChar(buffer, start, end);
+                case Primitives.INT:
+                    return (int) parseLong(buffer, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                case Primitives.LONG:
+                    return parseLong(buffer, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+                case Primitives.FLOAT:
+                    return parseFloat(start, end);
+                default:
+                    return parseDouble(start, end);
+            }
+        }
+
+        /**
+         * Parses a decimal number having at most the given number of
+         * significant digits to the unsigned mantissa, the decimal exponent
+         * and the sign, so negative zero keeps its sign.
+         *
+         * @return false if the number should be parsed by the JDK.
+         */
+        private boolean parseDecimal(int start, int end, int maxDigits) {
+            int index = start;
+            boolean isNegative = false;
+            if (index < end && (buffer[index] == '-' || buffer[index] == '+')) {
+                isNegative = buffer[index] == '-';
+                index++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean hasDigits = false;
+            boolean isFraction = false;
+            for (; index < end; index++) {
+                char c = buffer[index];
+                if (c >= '0' && c <= '9') {
+                    hasDigits = true;
+                    if (mantissa != 0 || c != '0') {
+                        if (++digits > maxDigits) {
+                            return false;
+                        }
+                        mantissa = mantissa * 10 + (c - '0');
+                    }
+                    if (isFraction) {
+                        exponent--;
+                    }
+                } else if (c == '.' && !isFraction) {
+                    isFraction = true;
+                } else if ((c == 'e' || c == 'E') && hasDigits) {
+                    try {
+                        exponent += (int) parseLong(buffer, index + 1, end, -1000, 1000);
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                    break;
+                } else {
+                    return false;
+                }
+            }
+            if (!hasDigits) {
+                return false;
+            }
+            this.mantissa = mantissa;
+            this.exponent = exponent;
+            this.isNegative = isNegative;
+            return true;
+        }
+
+        private double parseDouble(int start, int end) {
+            // a mantissa of 15 digits and a power of ten up to 1e22 are exact
+            // doubles, so one multiplication or division is rounded correctly
+            if (parseDecimal(start, end, 15) && exponent >= -22 && exponent <= 22) {
+                double mantissa = this.mantissa;
+                double value = exponent < 0 ? mantissa / DOUBLE_POWERS[-exponent] : mantissa * DOUBLE_POWERS[exponent];
+                return isNegative ? -value : value;
+            }
+            return Double.parseDouble(new String(buffer, start, end - start));
+        }
+
+        private float parseFloat(int start, int end) {
+            if (parseDecimal(start, end, 7) && exponent >= -10 && exponent <= 10) {
+                float mantissa = this.mantissa;
+                float value = exponent < 0 ? mantissa / FLOAT_POWERS[-exponent] : mantissa * FLOAT_POWERS[exponent];
+                return isNegative ? -value : value;
+            }
+            return Float.parseFloat(new String(buffer, start, end - start));
+        }
+
+        /**
+         * Returns a sequential stream of the remaining beans.
+         * Closing the stream closes the text.
+         */
+        public Stream<T> stream() {
+            Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this,
+                    Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+    }
+
+    private final class RangeSpliterator implements Spliterator<T> {
+
+        private final FileChannel channel;
+        private final Charset charset;
+        private final Binding<T> binding;
+        private long start;
+        private final long end;
+        private Rows<T> rows;
+
+        public RangeSpliterator(FileChannel channel, Charset charset, Binding<T> binding, long start, long end) {
+            this.channel = channel;
+            this.charset = charset;
+            this.binding = binding;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (rows == null) {
+                rows = new Rows<T>(DelimitedReader.this,
+                        new InputStreamReader(new RangeInputStream(channel, start, end), charset), binding, 0);
+            }
+            if (!rows.hasNext()) {
+                return false;
+            }
+            action.accept(rows.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (rows != null || end - start < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            try {
+                long split = findLineStart(channel, start + (end - start) / 2, end);
+                if (split >= end) {
+                    return null;
+                }
+                RangeSpliterator prefix = new RangeSpliterator(channel, charset, binding, start, split);
+                start = split;
+                return prefix;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - start;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+    }
+
+    private static final class RangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        public RangeInputStream(FileChannel channel, long position, long end) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] bytes = new byte[1];
+            return read(bytes, 0, 1) < 0 ? -1 : bytes[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            // positional reads do not change the position of the shared channel
+            int count = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (count < 0) {
+                return -1;
+            }
+            position += count;
+            return count;
+        }
+
+    }
+
+    private final Bean<T> bean;
+    private final char delimiter;
+    private final char quote;
+
+    public DelimitedReader(Bean<T> bean) {
+        this(bean, ',', '"');
+    }
+
+    public DelimitedReader(Bean<T> bean, char delimiter, char quote) {
+        if (delimiter == quote || delimiter == '\n' || quote == '\n') {
+            throw new IllegalArgumentException("delimiter and quote should differ from each other and line breaks");
+        }
+        this.bean = bean;
+        this.delimiter = delimiter;
+        this.quote = quote;
+    }
+
+    public Bean<T> getBean() {
+        return bean;
+    }
+
+    /**
+     * Reads the header of the text and binds its columns to properties.
+     *
+     * @throws IllegalArgumentException if a property bound to a column is
+     *                                  of a type that cannot be parsed.
+     */
+    public Rows<T> open(Reader input) throws IOException {
+        Rows<T> rows = new Rows<T>(this, input, null, 0);
+        rows.binding = bind(rows.readHeader());
+        return rows;
+    }
+
+    /**
+     * Reads beans from a file. A parallel stream parses ranges of the file
+     * in separate threads, the order of beans is kept. Closing the stream
+     * closes the file.
+     *
+     * @param charset the charset of the file, a line break should be
+     *                encoded by a single byte in it.
+     */
+    public Stream<T> stream(Path file, Charset charset, boolean parallel) throws IOException {
+        if (!Arrays.equals("\n".getBytes(charset), new byte[]{'\n'})) {
+            throw new IllegalArgumentException("line breaks are not single bytes in " + charset);
+        }
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long dataStart = findLineStart(channel, 0, size);
+            Rows<T> header = new Rows<T>(this,
+                    new InputStreamReader(new RangeInputStream(channel, 0, dataStart), charset), null, 0);
+            Binding<T> binding = bind(header.readHeader());
+            Stream<T> stream = StreamSupport.stream(
+                    new RangeSpliterator(channel, charset, binding, dataStart, size), parallel);
+            return stream.onClose(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long findLineStart(FileChannel channel, long position, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        while (position < end) {
+            ((Buffer) buffer).clear();
+            int count = channel.read(buffer, position);
+            if (count < 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += count;
+        }
+        return end;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Binding<T> bind(List<String> names) {
+        Binding<T> binding = new Binding<T>(names.size());
+        for (int column = 0; column < names.size(); column++) {
+            Property<T> property = bean.getProperty(names.get(column));
+            if (property == null || !property.isWritable()) {
+                continue;
+            }
+            Class<?> type = property.getType();
+            int kind;
+            if (type.isPrimitive()) {
+                kind = Primitives.getKind(type);
+            } else if (type == String.class) {
+                kind = STRING;
+            } else if (type.isEnum()) {
+                kind = ENUM;
+                binding.constants[column] = ((Class<? extends Enum<?>>) type).getEnumConstants();
+            } else {
+                kind = BOXED;
+                binding.primitiveKinds[column] = Primitives.getKind(Primitives.unwrap(type));
+                if (binding.primitiveKinds[column] == Primitives.OBJECT) {
+                    ConverterRegistry registry = ConverterRegistry.getInstance();
+                    if (!registry.canConvert(String.class, type)) {
+                        throw new IllegalArgumentException("property " + property.getName()
+                                + " of type " + type.getName() + " cannot be parsed");
+                    }
+                    kind = CONVERTED;
+                    binding.converters[column] = registry.getConverter(String.class, type);
+                }
+            }
+            binding.properties[column] = property;
+            binding.kinds[column] = kind;
+        }
+        return binding;
+    }
+
+    private static boolean matches(String value, char[] buffer, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(buffer[start + i]) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean parseBoolean(char[] buffer, int start, int end) {
+        if (matches("true", buffer, start, end)) {
+            return true;
+        } else if (matches("false", buffer, start, end)) {
+            return false;
+        } else {
+            throw new NumberFormatException();
+        }
+    }
+
+    private static char parseChar(char[] buffer, int start, int end) {
+        if (end - start != 1) {
+            throw new NumberFormatException();
+        }
+        return buffer[start];
+    }
+
+    private static long parseLong(char[] buffer, int start, int end, long min, long max) {
+        int index = start;
+        boolean isNegative = false;
+        if (index < end && (buffer[index] == '-' || buffer[index] == '+')) {
+            isNegative = buffer[index] == '-';
+            index++;
+        }
+        if (index == end) {
+            throw new NumberFormatException();
+        }
+        // the value is accumulated as a negative number to reach Long.MIN_VALUE
+        long value = 0;
+        for (; index < end; index++) {
+            int digit = buffer[index] - '0';
+            if (digit < 0 || digit > 9 || value < Long.MIN_VALUE / 10) {
+                throw new NumberFormatException();
+            }
+            value = value * 10 - digit;
+            if (value > 0) {
+                throw new NumberFormatException();
+            }
+        }
+        if (!isNegative) {
+            if (value == Long.MIN_VALUE) {
+                throw new NumberFormatException();
+            }
+            value = -value;
+        }
+        if (value < min || value > max) {
+            throw new NumberFormatException();
+        }
+        return value;
+    }
+
+    private static Enum<?> parseEnum(Enum<?>[] constants, char[] buffer, int start, int end) {
+        for (Enum<?> constant : constants) {
+            String name = constant.name();
+            if (name.length() == end - start) {
+                boolean isEqual = true;
+                for (int i = 0; i < name.length() && isEqual; i++) {
+                    isEqual = name.charAt(i) == buffer[start + i];
+                }
+                if (isEqual) {
+                    return constant;
+                }
+            }
+        }
+        throw new NumberFormatException();
+    }
+
+}
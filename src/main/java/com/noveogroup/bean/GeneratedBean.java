@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A base class of beans generated by the annotation processor.
+ * A bean is generated for every class annotated by {@link GenerateBean},
+ * it has the same package and its name is the binary name of the bean class
+ * followed by {@link #CLASS_NAME_SUFFIX}.
+ */
+public abstract class GeneratedBean<T> extends DefaultBean<T> {
+
+    public static final String CLASS_NAME_SUFFIX = "$$Bean";
+
+    protected static final int READABLE = 1;
+    protected static final int WRITABLE = 2;
+    protected static final int DIRECT_READ = 4;
+    protected static final int DIRECT_WRITE = 8;
+
+    /**
+     * Loads a property type that cannot be referenced by the generated code.
+     */
+    protected static Class<?> findClass(Class<?> beanClass, String className) {
+        try {
+            return Class.forName(className, false, beanClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new NoClassDefFoundError(className);
+        }
+    }
+
+    private static <T> List<Property<T>> createProperties(Class<T> beanClass, String[] names, Class<?>[] types,
+                                                          String[] fieldNames, String[] getterNames,
+                                                          String[] setterNames, int[] flags,
+                                                          BeanAccessor beanAccessor) {
+        List<Property<T>> properties = new ArrayList<Property<T>>(names.length);
+        for (int index = 0; index < names.length; index++) {
+            properties.add(new GeneratedProperty<T>(beanClass, index, names[index], types[index],
+                    fieldNames[index], getterNames[index], setterNames[index],
+                    (flags[index] & READABLE) != 0, (flags[index] & WRITABLE) != 0,
+                    beanAccessor, (flags[index] & DIRECT_READ) != 0, (flags[index] & DIRECT_WRITE) != 0));
+        }
+        return properties;
+    }
+
+    protected GeneratedBean(Class<T> beanClass, String[] names, Class<?>[] types,
+                            String[] fieldNames, String[] getterNames, String[] setterNames, int[] flags,
+                            BeanAccessor beanAccessor) {
+        super(beanClass, beanClass.getName(),
+                createProperties(beanClass, names, types, fieldNames, getterNames, setterNames, flags, beanAccessor));
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * A property of a generated bean. Values are accessed by the generated bean
+ * accessor, the reflection is used only to access members that are not
+ * accessible by the generated code and to resolve annotations.
+ */
+public class GeneratedProperty<T> extends AbstractProperty<T> {
+
+    private class Members {
+
+        private final Field field;
+        private final Method getter;
+        private final Method setter;
+        private final Accessor<T> accessor;
+        private final AnnotationIndex annotationIndex;
+
+        public Members() {
+            Class<T> beanClass = getBeanClass();
+            this.field = fieldName == null ? null : findField(beanClass, fieldName);
+            this.getter = getterName == null ? null : findMethod(beanClass, getterName);
+            this.setter = setterName == null ? null : findMethod(beanClass, setterName);
+            this.accessor = new ReflectionAccessorFactory().createAccessor(beanClass, getType(), field, getter, setter);
+            this.annotationIndex = new AnnotationIndex(field, getter, setter);
+        }
+
+    }
+
+    private class ReflectionFallback implements Accessor<T> {
+
+        @Override
+        public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getValue(bean);
+        }
+
+        @Override
+        public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setValue(bean, value);
+        }
+
+        @Override
+        public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getBoolean(bean);
+        }
+
+        @Override
+        public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setBoolean(bean, value);
+        }
+
+        @Override
+        public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getByte(bean);
+        }
+
+        @Override
+        public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setByte(bean, value);
+        }
+
+        @Override
+        public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getShort(bean);
+        }
+
+        @Override
+        public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setShort(bean, value);
+        }
+
+        @Override
+        public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getChar(bean);
+        }
+
+        @Override
+        public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setChar(bean, value);
+        }
+
+        @Override
+        public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getInt(bean);
+        }
+
+        @Override
+        public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setInt(bean, value);
+        }
+
+        @Override
+        public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getLong(bean);
+        }
+
+        @Override
+        public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setLong(bean, value);
+        }
+
+        @Override
+        public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getFloat(bean);
+        }
+
+        @Override
+        public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setFloat(bean, value);
+        }
+
+        @Override
+        public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+            return getMembers().accessor.getDouble(bean);
+        }
+
+        @Override
+        public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+            getMembers().accessor.setDouble(bean, value);
+        }
+
+    }
+
+    // members are found the same way as the introspection does: the topmost class declaring the name wins
+    private static Field findField(Class<?> beanClass, String name) {
+        Field field = null;
+        while (beanClass != null && beanClass != Object.class) {
+            for (Field declaredField : beanClass.getDeclaredFields()) {
+                if (declaredField.getName().equals(name) && !Modifier.isStatic(declaredField.getModifiers())) {
+                    field = declaredField;
+                }
+            }
+            beanClass = beanClass.getSuperclass();
+        }
+        return field;
+    }
+
+    private static Method findMethod(Class<?> beanClass, String name) {
+        Method method = null;
+        while (beanClass != null && beanClass != Object.class) {
+            for (Method declaredMethod : beanClass.getDeclaredMethods()) {
+                int modifiers = declaredMethod.getModifiers();
+                if (declaredMethod.getName().equals(name)
+                        && !Modifier.isStatic(modifiers) && Modifier.isPublic(modifiers)) {
+                    method = declaredMethod;
+                }
+            }
+            beanClass = beanClass.getSuperclass();
+        }
+        return method;
+    }
+
+    private final String fieldName;
+    private final String getterName;
+    private final String setterName;
+
+    private final boolean isReadable;
+    private final boolean isWritable;
+
+    private final Accessor<T> accessor;
+
+    private volatile Members members;
+
+    /**
+     * Creates a property of a generated bean.
+     *
+     * @param fieldName      the name of the property field or null.
+     * @param getterName     the name of the property getter or null.
+     * @param setterName     the name of the property setter or null.
+     * @param beanAccessor   the generated bean accessor, the property index
+     *                       is used as an index of the accessor.
+     * @param isDirectRead   if true then the value is read by the bean accessor.
+     * @param isDirectWrite  if true then the value is written by the bean accessor.
+     */
+    public GeneratedProperty(Class<T> beanClass, int index, String name, Class<?> type,
+                             String fieldName, String getterName, String setterName,
+                             boolean isReadable, boolean isWritable,
+                             BeanAccessor beanAccessor, boolean isDirectRead, boolean isDirectWrite) {
+        super(beanClass, index, name, type);
+        this.fieldName = fieldName;
+        this.getterName = getterName;
+        this.setterName = setterName;
+        this.isReadable = isReadable;
+        this.isWritable = isWritable;
+        this.accessor = new CompiledAccessor<T>(beanAccessor,
+                isDirectRead ? index : -1, getterName != null, beanClass,
+                isDirectWrite ? index : -1, setterName != null, beanClass, type,
+                new ReflectionFallback());
+    }
+
+    private Members getMembers() {
+        Members members = this.members;
+        if (members == null) {
+            members = new Members();
+            this.members = members;
+        }
+        return members;
+    }
+
+    @Override
+    protected Accessor<T> getAccessor() {
+        return accessor;
+    }
+
+    @Override
+    public boolean isReadable() {
+        return isReadable;
+    }
+
+    @Override
+    public boolean isWritable() {
+        return isWritable;
+    }
+
+    @Override
+    public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass) {
+        return getMembers().annotationIndex.isAnnotationPresent(annotationClass);
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return getMembers().annotationIndex.getAnnotation(annotationClass);
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+        return getMembers().annotationIndex.getAnnotations();
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Gives an index to a property that does not know it.
+ */
+final class IndexedProperty<T> implements Property<T> {
+
+    private final Property<T> property;
+    private final int index;
+
+    public IndexedProperty(Property<T> property, int index) {
+        this.property = property;
+        this.index = index;
+    }
+
+    @Override
+    public Class<T> getBeanClass() {
+        return property.getBeanClass();
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String getName() {
+        return property.getName();
+    }
+
+    @Override
+    public Class<?> getType() {
+        return property.getType();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return property.isReadable();
+    }
+
+    @Override
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getValue(bean);
+    }
+
+    @Override
+    public boolean isWritable() {
+        return property.isWritable();
+    }
+
+    @Override
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        property.setValue(bean, value);
+    }
+
+    @Override
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getBoolean(bean);
+    }
+
+    @Override
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        property.setBoolean(bean, value);
+    }
+
+    @Override
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getByte(bean);
+    }
+
+    @Override
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        property.setByte(bean, value);
+    }
+
+    @Override
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getShort(bean);
+    }
+
+    @Override
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        property.setShort(bean, value);
+    }
+
+    @Override
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getChar(bean);
+    }
+
+    @Override
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        property.setChar(bean, value);
+    }
+
+    @Override
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getInt(bean);
+    }
+
+    @Override
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        property.setInt(bean, value);
+    }
+
+    @Override
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getLong(bean);
+    }
+
+    @Override
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        property.setLong(bean, value);
+    }
+
+    @Override
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getFloat(bean);
+    }
+
+    @Override
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        property.setFloat(bean, value);
+    }
+
+    @Override
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        return property.getDouble(bean);
+    }
+
+    @Override
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        property.setDouble(bean, value);
+    }
+
+    @Override
+    public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass) {
+        return property.isAnnotationPresent(annotationClass);
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return property.getAnnotation(annotationClass);
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+        return property.getAnnotations();
+    }
+
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.*;
+
+/**
+ * Accesses a property by functional interfaces. Primitive values of
+ * {@code boolean}, {@code byte}, {@code short}, {@code char},
+ * {@code int}, {@code long}, {@code float} and {@code double} are read
+ * by {@link Predicate}, {@link ToIntFunction}, {@link ToLongFunction}
+ * and {@link ToDoubleFunction}; {@code int}, {@code long} and
+ * {@code double} values are written by {@link ObjIntConsumer},
+ * {@link ObjLongConsumer} and {@link ObjDoubleConsumer}.
+ * Other primitive values are written by the fallback accessor.
+ */
+public class LambdaAccessor<T> implements Accessor<T> {
+
+    private final Function<Object, Object> getter;
+    private final Object typedGetter;
+    private final Class<?> getterClass;
+    private final BiConsumer<Object, Object> setter;
+    private final Object typedSetter;
+    private final Class<?> setterClass;
+    private final Class<?> valueType;
+    private final Accessor<T> fallback;
+
+    /**
+     * @param getterMethod the method called by the getter or null.
+     * @param setterMethod the method called by the setter or null.
+     */
+    public LambdaAccessor(Function<Object, Object> getter, Object typedGetter, Method getterMethod,
+                          BiConsumer<Object, Object> setter, Object typedSetter, Method setterMethod,
+                          Accessor<T> fallback) {
+        this.getter = getter;
+        this.typedGetter = typedGetter;
+        this.getterClass = getterMethod == null ? null : getterMethod.getDeclaringClass();
+        this.setter = setter;
+        this.typedSetter = typedSetter;
+        this.setterClass = setterMethod == null ? null : setterMethod.getDeclaringClass();
+        this.valueType = setterMethod == null ? null : setterMethod.getParameterTypes()[0];
+        this.fallback = fallback;
+    }
+
+    private InvocationTargetException wrapGetter(Throwable throwable, Object bean) {
+        Arguments.checkBean(getterClass, bean);
+        return new InvocationTargetException(throwable);
+    }
+
+    private InvocationTargetException wrapSetter(Throwable throwable, Object bean) {
+        Arguments.checkBean(setterClass, bean);
+        return new InvocationTargetException(throwable);
+    }
+
+    @Override
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter == null) {
+            return fallback.getValue(bean);
+        }
+        try {
+            return getter.apply(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (setter == null) {
+            fallback.setValue(bean, value);
+            return;
+        }
+        try {
+            setter.accept(bean, value);
+        } catch (Throwable throwable) {
+            Arguments.checkBean(setterClass, bean);
+            Arguments.checkValue(valueType, value);
+            // the function takes exact wrappers, widened values never reach the setter
+            if (Arguments.isWidened(valueType, value)) {
+                fallback.setValue(bean, value);
+                return;
+            }
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getBoolean(bean);
+        }
+        try {
+            return ((Predicate<Object>) typedGetter).test(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        fallback.setBoolean(bean, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getByte(bean);
+        }
+        try {
+            return (byte) ((ToIntFunction<Object>) typedGetter).applyAsInt(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        fallback.setByte(bean, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getShort(bean);
+        }
+        try {
+            return (short) ((ToIntFunction<Object>) typedGetter).applyAsInt(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        fallback.setShort(bean, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getChar(bean);
+        }
+        try {
+            return (char) ((ToIntFunction<Object>) typedGetter).applyAsInt(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        fallback.setChar(bean, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getInt(bean);
+        }
+        try {
+            return ((ToIntFunction<Object>) typedGetter).applyAsInt(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setInt(bean, value);
+            return;
+        }
+        try {
+            ((ObjIntConsumer<Object>) typedSetter).accept(bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getLong(bean);
+        }
+        try {
+            return ((ToLongFunction<Object>) typedGetter).applyAsLong(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setLong(bean, value);
+            return;
+        }
+        try {
+            ((ObjLongConsumer<Object>) typedSetter).accept(bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getFloat(bean);
+        }
+        try {
+            return (float) ((ToDoubleFunction<Object>) typedGetter).applyAsDouble(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        fallback.setFloat(bean, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getDouble(bean);
+        }
+        try {
+            return ((ToDoubleFunction<Object>) typedGetter).applyAsDouble(bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setDouble(bean, value);
+            return;
+        }
+        try {
+            ((ObjDoubleConsumer<Object>) typedSetter).accept(bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+}
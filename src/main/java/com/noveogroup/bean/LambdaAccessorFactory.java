@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.*;
+
+/**
+ * Binds getters and setters to classes generated by {@link LambdaMetafactory}.
+ * Fields and methods that cannot be linked this way are accessed by
+ * method handles (and by reflection as the last resort).
+ * <p>
+ * The lookup should have private access, for example the one returned
+ * by {@link MethodHandles#lookup()}.
+ * </p>
+ */
+public class LambdaAccessorFactory extends MethodHandleAccessorFactory {
+
+    public LambdaAccessorFactory() {
+        this(MethodHandles.lookup());
+    }
+
+    public LambdaAccessorFactory(MethodHandles.Lookup lookup) {
+        super(lookup);
+    }
+
+    private boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            ClassLoader classLoader = getLookup().lookupClass().getClassLoader();
+            return Class.forName(type.getName(), false, classLoader) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private boolean isLinkable(Method method) {
+        // generated classes link methods by name from the lookup class
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        if (!isVisible(declaringClass) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private Object createFunction(Class<?> functionClass, String methodName, MethodType methodType,
+                                  Method method, MethodType instantiatedType) {
+        try {
+            MethodHandles.Lookup lookup = getLookup();
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, methodName,
+                    MethodType.methodType(functionClass), methodType,
+                    lookup.unreflect(method), instantiatedType);
+            return callSite.getTarget().invoke();
+        } catch (Throwable ignored) {
+            // the method cannot be linked, fall back to method handles
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function<Object, Object> createGetter(Method getter) {
+        if (getter == null || !isLinkable(getter)) {
+            return null;
+        }
+        return (Function<Object, Object>) createFunction(Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class), getter,
+                MethodType.methodType(wrap(getter.getReturnType()), getter.getDeclaringClass()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Object, Object> createSetter(Method setter) {
+        if (setter == null || !isLinkable(setter)) {
+            return null;
+        }
+        return (BiConsumer<Object, Object>) createFunction(BiConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, Object.class), setter,
+                MethodType.methodType(void.class, setter.getDeclaringClass(), wrap(setter.getParameterTypes()[0])));
+    }
+
+    private Object createTypedGetter(Class<?> type, Method getter) {
+        if (getter == null || !type.isPrimitive() || !isLinkable(getter)) {
+            return null;
+        }
+        // narrow primitive values are widened to int and double
+        Class<?> functionClass;
+        String methodName;
+        Class<?> returnType;
+        if (type == boolean.class) {
+            functionClass = Predicate.class;
+            methodName = "test";
+            returnType = boolean.class;
+        } else if (type == long.class) {
+            functionClass = ToLongFunction.class;
+            methodName = "applyAsLong";
+            returnType = long.class;
+        } else if (type == float.class || type == double.class) {
+            functionClass = ToDoubleFunction.class;
+            methodName = "applyAsDouble";
+            returnType = double.class;
+        } else {
+            functionClass = ToIntFunction.class;
+            methodName = "applyAsInt";
+            returnType = int.class;
+        }
+        return createFunction(functionClass, methodName,
+                MethodType.methodType(returnType, Object.class), getter,
+                MethodType.methodType(returnType, getter.getDeclaringClass()));
+    }
+
+    private Object createTypedSetter(Class<?> type, Method setter) {
+        if (setter == null || !isLinkable(setter)) {
+            return null;
+        }
+        Class<?> functionClass;
+        if (type == int.class) {
+            functionClass = ObjIntConsumer.class;
+        } else if (type == long.class) {
+            functionClass = ObjLongConsumer.class;
+        } else if (type == double.class) {
+            functionClass = ObjDoubleConsumer.class;
+        } else {
+            return null;
+        }
+        return createFunction(functionClass, "accept",
+                MethodType.methodType(void.class, Object.class, type), setter,
+                MethodType.methodType(void.class, setter.getDeclaringClass(), type));
+    }
+
+    @Override
+    public <T> Accessor<T> createAccessor(Class<T> beanClass, Class<?> type, Field field, Method getter, Method setter) {
+        Accessor<T> fallback = super.createAccessor(beanClass, type, field, getter, setter);
+        Function<Object, Object> getterFunction = createGetter(getter);
+        BiConsumer<Object, Object> setterFunction = createSetter(setter);
+        if (getterFunction == null && setterFunction == null) {
+            return fallback;
+        }
+        return new LambdaAccessor<T>(
+                getterFunction, getterFunction == null ? null : createTypedGetter(type, getter), getter,
+                setterFunction, setterFunction == null ? null : createTypedSetter(type, setter), setter,
+                fallback);
+    }
+
+}
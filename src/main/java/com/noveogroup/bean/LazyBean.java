@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bean which properties are created on the first request, see
+ * {@link BeanRegistry#setLazy(boolean)}. Members of properties are known
+ * and validated when the bean is loaded, so indexes of properties are
+ * stable. Methods working with all properties create all of them.
+ */
+final class LazyBean<T> implements Bean<T> {
+
+    private final Class<T> beanClass;
+    private final String name;
+    private final BeanRegistry.PropertyMembers[] members;
+    private final AccessorFactory[] accessorFactories;
+    private final NameTable nameTable;
+    private final AtomicReferenceArray<Property<T>> properties;
+    private volatile DefaultBean<T> bean;
+    private volatile BeanInstantiator<T> instantiator;
+
+    public LazyBean(Class<T> beanClass, String name, List<BeanRegistry.PropertyMembers> members,
+                    List<AccessorFactory> accessorFactories) {
+        this.beanClass = beanClass;
+        this.name = name;
+        this.members = members.toArray(new BeanRegistry.PropertyMembers[members.size()]);
+        this.accessorFactories = accessorFactories.toArray(new AccessorFactory[accessorFactories.size()]);
+        String[] names = new String[this.members.length];
+        for (int index = 0; index < names.length; index++) {
+            names[index] = this.members[index].name;
+        }
+        this.nameTable = new NameTable(names);
+        this.properties = new AtomicReferenceArray<Property<T>>(names.length);
+    }
+
+    private synchronized Property<T> resolve(int index) {
+        Property<T> property = properties.get(index);
+        if (property == null) {
+            BeanRegistry.PropertyMembers members = this.members[index];
+            property = new DefaultProperty<T>(beanClass, index, members.name, members.type,
+                    members.field, members.getter, members.setter, accessorFactories[index]);
+            properties.set(index, property);
+        }
+        return property;
+    }
+
+    private DefaultBean<T> materialize() {
+        DefaultBean<T> bean = this.bean;
+        if (bean == null) {
+            List<Property<T>> list = new ArrayList<Property<T>>(members.length);
+            for (int index = 0; index < members.length; index++) {
+                list.add(getProperty(index));
+            }
+            bean = new DefaultBean<T>(beanClass, name, list);
+            this.bean = bean;
+        }
+        return bean;
+    }
+
+    @Override
+    public Class<T> getBeanClass() {
+        return beanClass;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public T newBean() throws InstantiationException, IllegalAccessException {
+        BeanInstantiator<T> instantiator = this.instantiator;
+        if (instantiator == null) {
+            instantiator = new BeanInstantiator<T>(beanClass);
+            this.instantiator = instantiator;
+        }
+        return instantiator.newInstance();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T[] newBeanArray(int length) {
+        return (T[]) Array.newInstance(beanClass, length);
+    }
+
+    @Override
+    public T[] newBeans(int count) throws InstantiationException, IllegalAccessException {
+        T[] beans = newBeanArray(count);
+        for (int i = 0; i < count; i++) {
+            beans[i] = newBean();
+        }
+        return beans;
+    }
+
+    @Override
+    public int getPropertyCount() {
+        return members.length;
+    }
+
+    @Override
+    public int indexOf(String name) {
+        return nameTable.indexOf(name);
+    }
+
+    @Override
+    public Property<T> getProperty(int index) {
+        Property<T> property = properties.get(index);
+        return property != null ? property : resolve(index);
+    }
+
+    @Override
+    public Property<T> getProperty(String name) {
+        int index = nameTable.indexOf(name);
+        return index < 0 ? null : getProperty(index);
+    }
+
+    @Override
+    public Property<T>[] getPropertyArray() {
+        return materialize().getPropertyArray();
+    }
+
+    @Override
+    public Collection<Property<T>> getProperties() {
+        return materialize().getProperties();
+    }
+
+    @Override
+    public List<Property<T>> getProperties(Class<? extends Annotation> annotationClass) {
+        return materialize().getProperties(annotationClass);
+    }
+
+    @Override
+    public void readValues(T bean, Object[] values) throws IllegalAccessException, InvocationTargetException {
+        materialize().readValues(bean, values);
+    }
+
+    @Override
+    public void writeValues(T bean, Object[] values) throws IllegalAccessException, InvocationTargetException {
+        materialize().writeValues(bean, values);
+    }
+
+    @Override
+    public void readValues(T bean, Object[] values, long[] primitives)
+            throws IllegalAccessException, InvocationTargetException {
+        materialize().readValues(bean, values, primitives);
+    }
+
+    @Override
+    public void writeValues(T bean, Object[] values, long[] primitives)
+            throws IllegalAccessException, InvocationTargetException {
+        materialize().writeValues(bean, values, primitives);
+    }
+
+    @Override
+    public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass) {
+        return beanClass.isAnnotationPresent(annotationClass);
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return beanClass.getAnnotation(annotationClass);
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+        return beanClass.getAnnotations();
+    }
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+/**
+ * A binary snapshot of introspected property members.
+ * <p>
+ * The snapshot is memory-mapped and only the index of classes is read
+ * on loading, records are decoded when the corresponding class is loaded.
+ * A record is used only if the checksum of the class files of the bean class
+ * and its superclasses is not changed since the snapshot was written.
+ * Checksums of class files in jars are taken from the central directory of
+ * the jar and checksums are cached per class, so validation does not
+ * inflate or read class files repeatedly.
+ * </p>
+ */
+final class MetadataSnapshot {
+
+    private static final int MAGIC = 0x4A424853;
+    private static final int VERSION = 2;
+    private static final long NO_CHECKSUM = -1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // class files of loaded classes do not change, so every class file
+    // (including superclasses shared by beans) is checked once
+    private static final ClassValue<Long> CHECKSUMS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return computeChecksum(type);
+        }
+    };
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, short.class, char.class,
+                int.class, long.class, float.class, double.class, void.class}) {
+            PRIMITIVES.put(type.getName(), type);
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> offsets = new HashMap<String, Integer>();
+
+    private MetadataSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("file is not a metadata snapshot");
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String className = readString(buffer);
+                offsets.put(className, buffer.position());
+                buffer.getLong();
+                int length = buffer.getInt();
+                ((Buffer) buffer).position(buffer.position() + length);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("metadata snapshot is truncated");
+        } catch (IllegalArgumentException e) {
+            throw new IOException("metadata snapshot is corrupted");
+        }
+    }
+
+    public static MetadataSnapshot map(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return new MetadataSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    public int getClassCount() {
+        return offsets.size();
+    }
+
+    public static void write(File file, Map<Class<?>, List<BeanRegistry.PropertyMembers>> metadata)
+            throws IOException {
+        // classes without class files cannot be validated and are skipped
+        Map<Class<?>, Long> checksums = new LinkedHashMap<Class<?>, Long>();
+        for (Class<?> beanClass : metadata.keySet()) {
+            long checksum = getChecksum(beanClass);
+            if (checksum != NO_CHECKSUM) {
+                checksums.put(beanClass, checksum);
+            }
+        }
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(checksums.size());
+            for (Map.Entry<Class<?>, Long> entry : checksums.entrySet()) {
+                byte[] record = writeRecord(metadata.get(entry.getKey()));
+                writeString(output, entry.getKey().getName());
+                output.writeLong(entry.getValue());
+                output.writeInt(record.length);
+                output.write(record);
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Returns property members of the bean class or null if the snapshot
+     * has no valid record for it.
+     */
+    public List<BeanRegistry.PropertyMembers> getPropertyMembers(Class<?> beanClass) {
+        Integer offset = offsets.get(beanClass.getName());
+        if (offset == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = this.buffer.duplicate();
+        ((Buffer) buffer).position(offset);
+        if (buffer.getLong() != getChecksum(beanClass)) {
+            return null;
+        }
+        buffer.getInt();
+
+        ClassLoader classLoader = beanClass.getClassLoader();
+        try {
+            int count = buffer.getInt();
+            List<BeanRegistry.PropertyMembers> list = new ArrayList<BeanRegistry.PropertyMembers>(count);
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer);
+                Class<?> type = findClass(readString(buffer), classLoader);
+                Field field = readField(buffer, name, classLoader);
+                Method getter = readMethod(buffer, classLoader);
+                Method setter = readMethod(buffer, classLoader);
+                list.add(new BeanRegistry.PropertyMembers(name, type, field, getter, setter));
+            }
+            return list;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    static long getChecksum(Class<?> beanClass) {
+        long checksum = 1;
+        for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            long classChecksum = CHECKSUMS.get(type);
+            if (classChecksum == NO_CHECKSUM) {
+                return NO_CHECKSUM;
+            }
+            checksum = 31 * checksum + classChecksum;
+        }
+        // the checksum is never equal to NO_CHECKSUM
+        return checksum & Long.MAX_VALUE;
+    }
+
+    private static long computeChecksum(Class<?> type) {
+        String resourceName = type.getName().replace('.', '/') + ".class";
+        ClassLoader classLoader = type.getClassLoader();
+        URL url = classLoader == null
+                ? ClassLoader.getSystemResource(resourceName)
+                : classLoader.getResource(resourceName);
+        if (url == null) {
+            return NO_CHECKSUM;
+        }
+        try {
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                // the central directory of a jar keeps CRCs of entries, so the entry is not inflated
+                JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+                if (entry != null && entry.getCrc() != -1 && entry.getSize() != -1) {
+                    return entry.getCrc() ^ entry.getSize() << 32;
+                }
+            }
+            CRC32 crc = new CRC32();
+            byte[] bytes = new byte[8192];
+            long size = 0;
+            InputStream input = connection.getInputStream();
+            try {
+                for (int count = input.read(bytes); count >= 0; count = input.read(bytes)) {
+                    crc.update(bytes, 0, count);
+                    size += count;
+                }
+            } finally {
+                input.close();
+            }
+            return crc.getValue() ^ size << 32;
+        } catch (IOException e) {
+            return NO_CHECKSUM;
+        }
+    }
+
+    private static byte[] writeRecord(List<BeanRegistry.PropertyMembers> list) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(list.size());
+        for (BeanRegistry.PropertyMembers members : list) {
+            writeString(output, members.name);
+            writeString(output, members.type.getName());
+            writeString(output, members.field == null ? "" : members.field.getDeclaringClass().getName());
+            writeMethod(output, members.getter);
+            writeMethod(output, members.setter);
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream output, Method method) throws IOException {
+        writeString(output, method == null ? "" : method.getDeclaringClass().getName());
+        if (method != null) {
+            writeString(output, method.getName());
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            output.writeShort(parameterTypes.length);
+            for (Class<?> parameterType : parameterTypes) {
+                writeString(output, parameterType.getName());
+            }
+        }
+    }
+
+    private static Field readField(ByteBuffer buffer, String name, ClassLoader classLoader)
+            throws ClassNotFoundException, NoSuchFieldException {
+        String declaringClassName = readString(buffer);
+        if (declaringClassName.isEmpty()) {
+            return null;
+        }
+        return findClass(declaringClassName, classLoader).getDeclaredField(name);
+    }
+
+    private static Method readMethod(ByteBuffer buffer, ClassLoader classLoader)
+            throws ClassNotFoundException, NoSuchMethodException {
+        String declaringClassName = readString(buffer);
+        if (declaringClassName.isEmpty()) {
+            return null;
+        }
+        String name = readString(buffer);
+        Class<?>[] parameterTypes = new Class<?>[buffer.getShort()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = findClass(readString(buffer), classLoader);
+        }
+        return findClass(declaringClassName, classLoader).getDeclaredMethod(name, parameterTypes);
+    }
+
+    private static Class<?> findClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        Class<?> type = PRIMITIVES.get(name);
+        return type != null ? type : Class.forName(name, false, classLoader);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+}
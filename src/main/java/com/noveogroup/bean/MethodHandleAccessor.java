@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+public class MethodHandleAccessor<T> implements Accessor<T> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle getter;
+    private final MethodHandle typedGetter;
+    private final boolean isGetterMethod;
+    private final Class<?> getterClass;
+    private final MethodHandle setter;
+    private final MethodHandle typedSetter;
+    private final boolean isSetterMethod;
+    private final Class<?> setterClass;
+    private final Class<?> valueType;
+    private final Accessor<T> fallback;
+
+    /**
+     * Creates an accessor that uses method handles and delegates to
+     * the fallback accessor when the corresponding handle is null.
+     *
+     * @param getter       a getter of type {@code (Object)type} or null.
+     * @param getterMember the field or the method read by the getter or null.
+     * @param setter       a setter of type {@code (Object,type)void} or null.
+     * @param setterMember the field or the method written by the setter or null.
+     * @param fallback     the fallback accessor.
+     */
+    public MethodHandleAccessor(MethodHandle getter, Member getterMember,
+                                MethodHandle setter, Member setterMember,
+                                Accessor<T> fallback) {
+        this.getter = getter == null ? null : getter.asType(GETTER_TYPE);
+        this.typedGetter = getter;
+        this.isGetterMethod = getterMember instanceof Method;
+        this.getterClass = getterMember == null ? null : getterMember.getDeclaringClass();
+        this.setter = setter == null ? null : setter.asType(SETTER_TYPE);
+        this.typedSetter = setter;
+        this.isSetterMethod = setterMember instanceof Method;
+        this.setterClass = setterMember == null ? null : setterMember.getDeclaringClass();
+        this.valueType = setterMember == null ? null : Arguments.getValueType(setterMember);
+        this.fallback = fallback;
+    }
+
+    static InvocationTargetException wrap(Throwable throwable, boolean isMethod) {
+        // exceptions of getters and setters are wrapped as Method.invoke() does
+        if (!isMethod) {
+            if (throwable instanceof RuntimeException) {
+                throw (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+        }
+        return new InvocationTargetException(throwable);
+    }
+
+    private InvocationTargetException wrapGetter(Throwable throwable, Object bean) {
+        Arguments.checkBean(getterClass, bean);
+        return wrap(throwable, isGetterMethod);
+    }
+
+    private InvocationTargetException wrapSetter(Throwable throwable, Object bean) {
+        Arguments.checkBean(setterClass, bean);
+        return wrap(throwable, isSetterMethod);
+    }
+
+    private InvocationTargetException wrapSetter(Throwable throwable, Object bean, Object value) {
+        Arguments.checkBean(setterClass, bean);
+        Arguments.checkValue(valueType, value);
+        return wrap(throwable, isSetterMethod);
+    }
+
+    @Override
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter == null) {
+            return fallback.getValue(bean);
+        }
+        try {
+            return getter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (setter == null) {
+            fallback.setValue(bean, value);
+            return;
+        }
+        try {
+            setter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean, value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getBoolean(bean);
+        }
+        try {
+            return (boolean) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setBoolean(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getByte(bean);
+        }
+        try {
+            return (byte) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setByte(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getShort(bean);
+        }
+        try {
+            return (short) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setShort(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getChar(bean);
+        }
+        try {
+            return (char) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setChar(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getInt(bean);
+        }
+        try {
+            return (int) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setInt(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getLong(bean);
+        }
+        try {
+            return (long) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setLong(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getFloat(bean);
+        }
+        try {
+            return (float) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setFloat(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (typedGetter == null) {
+            return fallback.getDouble(bean);
+        }
+        try {
+            return (double) typedGetter.invokeExact((Object) bean);
+        } catch (Throwable throwable) {
+            throw wrapGetter(throwable, bean);
+        }
+    }
+
+    @Override
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        if (typedSetter == null) {
+            fallback.setDouble(bean, value);
+            return;
+        }
+        try {
+            typedSetter.invokeExact((Object) bean, value);
+        } catch (Throwable throwable) {
+            throw wrapSetter(throwable, bean);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Binds property members to method handles once. Members that cannot be
+ * accessed by the lookup are accessed by reflection.
+ */
+public class MethodHandleAccessorFactory implements AccessorFactory {
+
+    private final MethodHandles.Lookup lookup;
+
+    public MethodHandleAccessorFactory() {
+        this(MethodHandles.lookup());
+    }
+
+    public MethodHandleAccessorFactory(MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+    }
+
+    public MethodHandles.Lookup getLookup() {
+        return lookup;
+    }
+
+    private MethodHandle findGetter(Class<?> type, Field field, Method getter) {
+        MethodType getterType = MethodType.methodType(type, Object.class);
+        try {
+            if (getter != null) {
+                return lookup.unreflect(getter).asType(getterType);
+            } else if (field != null) {
+                return lookup.unreflectGetter(field).asType(getterType);
+            }
+        } catch (IllegalAccessException ignored) {
+        }
+        return null;
+    }
+
+    private MethodHandle findSetter(Class<?> type, Field field, Method setter) {
+        MethodType setterType = MethodType.methodType(void.class, Object.class, type);
+        try {
+            if (setter != null) {
+                return lookup.unreflect(setter).asType(setterType);
+            } else if (field != null) {
+                return lookup.unreflectSetter(field).asType(setterType);
+            }
+        } catch (IllegalAccessException ignored) {
+        }
+        return null;
+    }
+
+    @Override
+    public <T> Accessor<T> createAccessor(Class<T> beanClass, Class<?> type, Field field, Method getter, Method setter) {
+        return new MethodHandleAccessor<T>(
+                findGetter(type, field, getter), getter != null ? getter : field,
+                findSetter(type, field, setter), setter != null ? setter : field,
+                new ReflectionAccessor<T>(field, getter, setter));
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+/**
+ * An open addressing table of property names. The multiplier of the hash
+ * function is chosen so that the names do not collide if such a multiplier
+ * is found quickly, then a successful lookup takes a single probe.
+ */
+final class NameTable {
+
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final String[] names;
+    private final int[] hashes;
+    private final int[] indexes;
+    private final int multiplier;
+    private final int shift;
+    private final int mask;
+
+    public NameTable(String[] names) {
+        int bits = 1;
+        while ((1 << bits) < names.length * 2) {
+            bits++;
+        }
+
+        // look for a multiplier without collisions, make the table larger if needed
+        int multiplier = findMultiplier(names, bits);
+        for (int maxBits = bits + 2; multiplier == 0 && bits < maxBits; ) {
+            multiplier = findMultiplier(names, ++bits);
+        }
+        if (multiplier == 0) {
+            multiplier = getMultiplier(0);
+        }
+
+        this.multiplier = multiplier;
+        this.shift = 32 - bits;
+        this.mask = (1 << bits) - 1;
+        this.names = new String[1 << bits];
+        this.hashes = new int[1 << bits];
+        this.indexes = new int[1 << bits];
+
+        // collisions (if any) are resolved by linear probing
+        for (int index = 0; index < names.length; index++) {
+            int hash = names[index].hashCode();
+            int slot = (hash * multiplier) >>> shift;
+            while (this.names[slot] != null) {
+                if (this.names[slot].equals(names[index])) {
+                    throw new IllegalArgumentException("duplicate name: " + names[index]);
+                }
+                slot = (slot + 1) & mask;
+            }
+            this.names[slot] = names[index];
+            this.hashes[slot] = hash;
+            this.indexes[slot] = index;
+        }
+    }
+
+    private static int getMultiplier(int attempt) {
+        return (0x9E3779B9 + attempt * 0x7F4A7C16) | 1;
+    }
+
+    private static int findMultiplier(String[] names, int bits) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int multiplier = getMultiplier(attempt);
+            if (isPerfect(names, multiplier, bits)) {
+                return multiplier;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isPerfect(String[] names, int multiplier, int bits) {
+        boolean[] used = new boolean[1 << bits];
+        for (String name : names) {
+            int slot = (name.hashCode() * multiplier) >>> (32 - bits);
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int hash = name.hashCode();
+        int slot = (hash * multiplier) >>> shift;
+        String candidate;
+        while ((candidate = names[slot]) != null) {
+            if (hashes[slot] == hash && candidate.equals(name)) {
+                return indexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A result of {@link BeanRegistry#preload(java.util.Collection, int)}.
+ */
+public class PreloadReport {
+
+    public static class ClassReport {
+
+        private final Class<?> beanClass;
+        private final Bean<?> bean;
+        private final boolean loaded;
+        private final long time;
+        private final Map<String, String> droppedProperties;
+        private final Throwable failure;
+
+        public ClassReport(Class<?> beanClass, Bean<?> bean, boolean loaded, long time,
+                           Map<String, String> droppedProperties, Throwable failure) {
+            this.beanClass = beanClass;
+            this.bean = bean;
+            this.loaded = loaded;
+            this.time = time;
+            this.droppedProperties = Collections.unmodifiableMap(droppedProperties);
+            this.failure = failure;
+        }
+
+        public Class<?> getBeanClass() {
+            return beanClass;
+        }
+
+        /**
+         * Returns the bean or null if loading failed.
+         */
+        public Bean<?> getBean() {
+            return bean;
+        }
+
+        /**
+         * Returns false if the bean was already in the registry.
+         */
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        /**
+         * Returns the loading time in nanoseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Returns reasons of dropping properties mapped by property names.
+         */
+        public Map<String, String> getDroppedProperties() {
+            return droppedProperties;
+        }
+
+        public Throwable getFailure() {
+            return failure;
+        }
+
+    }
+
+    private final List<ClassReport> classReports;
+    private final long time;
+
+    public PreloadReport(List<ClassReport> classReports, long time) {
+        this.classReports = Collections.unmodifiableList(classReports);
+        this.time = time;
+    }
+
+    public List<ClassReport> getClassReports() {
+        return classReports;
+    }
+
+    /**
+     * Returns the total preloading time in nanoseconds.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getLoadedCount() {
+        int count = 0;
+        for (ClassReport classReport : classReports) {
+            if (classReport.isLoaded()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getFailedCount() {
+        int count = 0;
+        for (ClassReport classReport : classReports) {
+            if (classReport.getFailure() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getDroppedPropertyCount() {
+        int count = 0;
+        for (ClassReport classReport : classReports) {
+            count += classReport.getDroppedProperties().size();
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "PreloadReport{classes=" + classReports.size()
+                + ", loaded=" + getLoadedCount()
+                + ", failed=" + getFailedCount()
+                + ", droppedProperties=" + getDroppedPropertyCount()
+                + ", time=" + time / 1000000 + "ms}";
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Kinds of property types and primitive values stored as raw bits.
+ */
+final class Primitives {
+
+    public static final int OBJECT = 0;
+    public static final int BOOLEAN = 1;
+    public static final int BYTE = 2;
+    public static final int SHORT = 3;
+    public static final int CHAR = 4;
+    public static final int INT = 5;
+    public static final int LONG = 6;
+    public static final int FLOAT = 7;
+    public static final int DOUBLE = 8;
+
+    private Primitives() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static int getKind(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class) {
+            return BYTE;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == char.class) {
+            return CHAR;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else {
+            return OBJECT;
+        }
+    }
+
+    public static Class<?> wrap(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == char.class) {
+            return Character.class;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else {
+            return type;
+        }
+    }
+
+    public static Class<?> unwrap(Class<?> type) {
+        if (type == Boolean.class) {
+            return boolean.class;
+        } else if (type == Byte.class) {
+            return byte.class;
+        } else if (type == Short.class) {
+            return short.class;
+        } else if (type == Character.class) {
+            return char.class;
+        } else if (type == Integer.class) {
+            return int.class;
+        } else if (type == Long.class) {
+            return long.class;
+        } else if (type == Float.class) {
+            return float.class;
+        } else if (type == Double.class) {
+            return double.class;
+        } else {
+            return type;
+        }
+    }
+
+    public static <T> long getBits(Property<T> property, int kind, T bean)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case BOOLEAN:
+                return property.getBoolean(bean) ? 1 : 0;
+            case BYTE:
+                return property.getByte(bean);
+            case SHORT:
+                return property.getShort(bean);
+            case CHAR:
+                return property.getChar(bean);
+            case INT:
+                return property.getInt(bean);
+            case LONG:
+                return property.getLong(bean);
+            case FLOAT:
+                return Float.floatToRawIntBits(property.getFloat(bean));
+            case DOUBLE:
+                return Double.doubleToRawLongBits(property.getDouble(bean));
+            default:
+                throw new IllegalArgumentException("property is not primitive");
+        }
+    }
+
+    public static <T> void setBits(Property<T> property, int kind, T bean, long bits)
+            throws IllegalAccessException, InvocationTargetException {
+        switch (kind) {
+            case BOOLEAN:
+                property.setBoolean(bean, bits != 0);
+                break;
+            case BYTE:
+                property.setByte(bean, (byte) bits);
+                break;
+            case SHORT:
+                property.setShort(bean, (short) bits);
+                break;
+            case CHAR:
+                property.setChar(bean, (char) bits);
+                break;
+            case INT:
+                property.setInt(bean, (int) bits);
+                break;
+            case LONG:
+                property.setLong(bean, bits);
+                break;
+            case FLOAT:
+                property.setFloat(bean, Float.intBitsToFloat((int) bits));
+                break;
+            case DOUBLE:
+                property.setDouble(bean, Double.longBitsToDouble(bits));
+                break;
+            default:
+                throw new IllegalArgumentException("property is not primitive");
+        }
+    }
+
+}
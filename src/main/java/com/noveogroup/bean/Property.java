@@ -29,10 +29,24 @@ package com.noveogroup.bean;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 
+/**
+ * A property of a bean. Typed accessors like {@link #getInt(Object)} require
+ * the property to have exactly their type, the default ones go through
+ * {@link #getValue(Object)} and {@link #setValue(Object, Object)}.
+ */
 public interface Property<T> {
 
     public Class<T> getBeanClass();
 
+    /**
+     * Returns the index of the property in its bean.
+     *
+     * @return the index or -1 if the property does not know it.
+     */
+    public default int getIndex() {
+        return -1;
+    }
+
     public String getName();
 
     public Class<?> getType();
@@ -45,6 +59,86 @@ public interface Property<T> {
 
     public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException;
 
+    public default boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), boolean.class);
+        return (Boolean) getValue(bean);
+    }
+
+    public default void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), boolean.class);
+        setValue(bean, value);
+    }
+
+    public default byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), byte.class);
+        return (Byte) getValue(bean);
+    }
+
+    public default void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), byte.class);
+        setValue(bean, value);
+    }
+
+    public default short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), short.class);
+        return (Short) getValue(bean);
+    }
+
+    public default void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), short.class);
+        setValue(bean, value);
+    }
+
+    public default char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), char.class);
+        return (Character) getValue(bean);
+    }
+
+    public default void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), char.class);
+        setValue(bean, value);
+    }
+
+    public default int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), int.class);
+        return (Integer) getValue(bean);
+    }
+
+    public default void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), int.class);
+        setValue(bean, value);
+    }
+
+    public default long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), long.class);
+        return (Long) getValue(bean);
+    }
+
+    public default void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), long.class);
+        setValue(bean, value);
+    }
+
+    public default float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), float.class);
+        return (Float) getValue(bean);
+    }
+
+    public default void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), float.class);
+        setValue(bean, value);
+    }
+
+    public default double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), double.class);
+        return (Double) getValue(bean);
+    }
+
+    public default void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        Arguments.checkType(getType(), double.class);
+        setValue(bean, value);
+    }
+
     public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass);
 
     public <A extends Annotation> A getAnnotation(Class<A> annotationClass);
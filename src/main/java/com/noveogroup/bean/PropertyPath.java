@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled path of nested properties like {@code address.city.name},
+ * {@code items[0].price} or {@code attributes['color']}.
+ * <p>
+ * Numeric indexes access elements of arrays and lists (and map values
+ * by integer keys), quoted or plain keys access map values. Properties are
+ * resolved when the path is compiled and cached per class of the value,
+ * so evaluation does not look beans up in the registry unless the class
+ * of an intermediate value changes.
+ * </p>
+ */
+public final class PropertyPath<T> {
+
+    private static abstract class Step {
+
+        private final String segment;
+
+        protected Step(String segment) {
+            this.segment = segment;
+        }
+
+        public String getSegment() {
+            return segment;
+        }
+
+        public abstract Object get(Object target) throws IllegalAccessException, InvocationTargetException;
+
+        public abstract void set(Object target, Object value) throws IllegalAccessException, InvocationTargetException;
+
+    }
+
+    private static final class PropertyCache {
+
+        private final Class<?> type;
+        private final Property<Object> property;
+
+        public PropertyCache(Class<?> type, Property<Object> property) {
+            this.type = type;
+            this.property = property;
+        }
+
+    }
+
+    private static final class PropertyStep extends Step {
+
+        private final BeanRegistry registry;
+        private final String name;
+        private final Class<?> type;
+        private final Property<Object> property;
+        // fields of the cache are final so it is published safely without volatile
+        private PropertyCache cache;
+
+        public PropertyStep(BeanRegistry registry, String name, Class<?> type, Property<Object> property) {
+            super(name);
+            this.registry = registry;
+            this.name = name;
+            this.type = property == null ? null : type;
+            this.property = property;
+        }
+
+        /**
+         * Returns the class values must have to be read by the accessor
+         * bound at compile time or null if any value can, which is the case
+         * of final declared types.
+         */
+        public Class<?> getGuard() {
+            return Modifier.isFinal(type.getModifiers()) ? null : type;
+        }
+
+        /**
+         * Returns the accessor of the property of the declared type
+         * or null if the property has no accessor to bind to.
+         */
+        @SuppressWarnings("unchecked")
+        public Accessor<Object> getAccessor() {
+            if (property instanceof AbstractProperty) {
+                return ((AbstractProperty<Object>) property).getAccessor();
+            }
+            return null;
+        }
+
+        private Property<Object> resolve(Object target) {
+            Class<?> type = target.getClass();
+            if (type == this.type) {
+                return property;
+            }
+            PropertyCache cache = this.cache;
+            if (cache != null && cache.type == type) {
+                return cache.property;
+            }
+            return lookup(type);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Property<Object> lookup(Class<?> type) {
+            Property<Object> property = (Property<Object>) registry.get(type).getProperty(name);
+            if (property == null) {
+                throw new IllegalArgumentException("there is no property " + name + " in " + type.getName());
+            }
+            this.cache = new PropertyCache(type, property);
+            return property;
+        }
+
+        @Override
+        public Object get(Object target) throws IllegalAccessException, InvocationTargetException {
+            return resolve(target).getValue(target);
+        }
+
+        @Override
+        public void set(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+            resolve(target).setValue(target, value);
+        }
+
+    }
+
+    private static final class IndexStep extends Step {
+
+        private final int index;
+
+        public IndexStep(String segment, int index) {
+            super(segment);
+            this.index = index;
+        }
+
+        @Override
+        public Object get(Object target) {
+            if (target instanceof Object[]) {
+                return ((Object[]) target)[index];
+            } else if (target instanceof List) {
+                return ((List<?>) target).get(index);
+            } else if (target instanceof Map) {
+                return ((Map<?, ?>) target).get(index);
+            } else if (target.getClass().isArray()) {
+                return Array.get(target, index);
+            } else {
+                throw new IllegalArgumentException("cannot index " + target.getClass().getName());
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void set(Object target, Object value) {
+            if (target instanceof Object[]) {
+                ((Object[]) target)[index] = value;
+            } else if (target instanceof List) {
+                ((List<Object>) target).set(index, value);
+            } else if (target instanceof Map) {
+                ((Map<Object, Object>) target).put(index, value);
+            } else if (target.getClass().isArray()) {
+                Array.set(target, index, value);
+            } else {
+                throw new IllegalArgumentException("cannot index " + target.getClass().getName());
+            }
+        }
+
+    }
+
+    private static final class KeyStep extends Step {
+
+        private final String key;
+
+        public KeyStep(String segment, String key) {
+            super(segment);
+            this.key = key;
+        }
+
+        @Override
+        public Object get(Object target) {
+            if (!(target instanceof Map)) {
+                throw new IllegalArgumentException("cannot get a key of " + target.getClass().getName());
+            }
+            return ((Map<?, ?>) target).get(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void set(Object target, Object value) {
+            if (!(target instanceof Map)) {
+                throw new IllegalArgumentException("cannot put a key to " + target.getClass().getName());
+            }
+            ((Map<Object, Object>) target).put(key, value);
+        }
+
+    }
+
+    public static <T> PropertyPath<T> compile(Class<T> rootClass, String expression) {
+        return compile(BeanRegistry.getInstance(), rootClass, expression, false);
+    }
+
+    /**
+     * Compiles the path.
+     *
+     * @param nullSafe if true then getting a value through a null
+     *                 intermediate value returns null and setting it does
+     *                 nothing, otherwise {@link NullPointerException} is thrown.
+     * @throws IllegalArgumentException if the expression is malformed or
+     *                                  a property does not exist in a final class.
+     */
+    public static <T> PropertyPath<T> compile(BeanRegistry registry, Class<T> rootClass,
+                                              String expression, boolean nullSafe) {
+        List<Step> steps = new ArrayList<Step>();
+        Class<?> type = rootClass;
+
+        int position = 0;
+        int length = expression.length();
+        while (position < length) {
+            char c = expression.charAt(position);
+            if (c == '[') {
+                int end = expression.indexOf(']', position);
+                if (end < 0) {
+                    throw new IllegalArgumentException("unclosed bracket at " + position + " in " + expression);
+                }
+                String segment = expression.substring(position + 1, end).trim();
+                steps.add(createIndexStep(segment, position, expression));
+                type = type != null && type.isArray() ? type.getComponentType() : null;
+                position = end + 1;
+            } else {
+                if (c == '.') {
+                    if (steps.isEmpty()) {
+                        throw new IllegalArgumentException("unexpected dot at " + position + " in " + expression);
+                    }
+                    position++;
+                }
+                int end = position;
+                while (end < length && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                String name = expression.substring(position, end).trim();
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("empty property name at " + position + " in " + expression);
+                }
+                Property<Object> property = resolve(registry, type, name);
+                steps.add(new PropertyStep(registry, name, type, property));
+                type = property == null ? null : property.getType();
+                position = end;
+            }
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("path is empty");
+        }
+
+        return new PropertyPath<T>(rootClass, expression, nullSafe, steps.toArray(new Step[steps.size()]),
+                type == null ? Object.class : type);
+    }
+
+    private static Step createIndexStep(String segment, int position, String expression) {
+        if (segment.length() >= 2 && (segment.charAt(0) == '\'' || segment.charAt(0) == '"')
+                && segment.charAt(segment.length() - 1) == segment.charAt(0)) {
+            return new KeyStep(segment, segment.substring(1, segment.length() - 1));
+        }
+        if (segment.isEmpty()) {
+            throw new IllegalArgumentException("empty index at " + position + " in " + expression);
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return new KeyStep(segment, segment);
+            }
+        }
+        try {
+            return new IndexStep(segment, Integer.parseInt(segment));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("index is too large at " + position + " in " + expression);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Property<Object> resolve(BeanRegistry registry, Class<?> type, String name) {
+        // the type is declared and a value can be of its subclass, so the property is checked in final classes only
+        if (type == null || type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        Property<Object> property = (Property<Object>) registry.get(type).getProperty(name);
+        if (property == null && Modifier.isFinal(type.getModifiers())) {
+            throw new IllegalArgumentException("there is no property " + name + " in " + type.getName());
+        }
+        return property;
+    }
+
+    private final Class<T> rootClass;
+    private final String expression;
+    private final boolean nullSafe;
+    private final Step[] steps;
+    private final Class<?> type;
+    // property steps are bound to accessors of their declared types, so a hop
+    // is a class check (none for final types) and an accessor call
+    private final Accessor<Object>[] accessors;
+    private final Class<?>[] guards;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private PropertyPath(Class<T> rootClass, String expression, boolean nullSafe, Step[] steps, Class<?> type) {
+        this.rootClass = rootClass;
+        this.expression = expression;
+        this.nullSafe = nullSafe;
+        this.steps = steps;
+        this.type = type;
+        this.accessors = new Accessor[steps.length];
+        this.guards = new Class<?>[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i] instanceof PropertyStep && ((PropertyStep) steps[i]).type != null) {
+                PropertyStep step = (PropertyStep) steps[i];
+                accessors[i] = step.getAccessor();
+                guards[i] = step.getGuard();
+            }
+        }
+    }
+
+    public Class<T> getRootClass() {
+        return rootClass;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public boolean isNullSafe() {
+        return nullSafe;
+    }
+
+    /**
+     * Returns the declared type of the last segment if it is known
+     * at compile time or {@code Object.class} otherwise.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    private NullPointerException nullValue(int index) {
+        if (index == 0) {
+            return new NullPointerException("root of " + expression + " is null");
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < index; i++) {
+            if (steps[i] instanceof PropertyStep) {
+                builder.append(i == 0 ? "" : ".").append(steps[i].getSegment());
+            } else {
+                builder.append('[').append(steps[i].getSegment()).append(']');
+            }
+        }
+        return new NullPointerException(builder + " of " + expression + " is null");
+    }
+
+    public Object getValue(T root) throws IllegalAccessException, InvocationTargetException {
+        Object value = root;
+        for (int i = 0; i < steps.length; i++) {
+            if (value == null) {
+                if (nullSafe) {
+                    return null;
+                }
+                throw nullValue(i);
+            }
+            value = get(i, value);
+        }
+        return value;
+    }
+
+    private Object get(int index, Object target) throws IllegalAccessException, InvocationTargetException {
+        Accessor<Object> accessor = accessors[index];
+        if (accessor != null) {
+            Class<?> guard = guards[index];
+            if (guard == null || target.getClass() == guard) {
+                return accessor.getValue(target);
+            }
+        }
+        return steps[index].get(target);
+    }
+
+    public void setValue(T root, Object value) throws IllegalAccessException, InvocationTargetException {
+        Object target = root;
+        int last = steps.length - 1;
+        for (int i = 0; i <= last; i++) {
+            if (target == null) {
+                if (nullSafe) {
+                    return;
+                }
+                throw nullValue(i);
+            }
+            if (i == last) {
+                steps[i].set(target, value);
+            } else {
+                target = get(i, target);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+}
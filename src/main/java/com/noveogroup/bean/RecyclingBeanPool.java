@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+
+/**
+ * A pool keeping up to {@code capacity} released beans per thread,
+ * so acquiring and releasing beans neither locks nor allocates.
+ * A bean released by another thread goes to the pool of that thread.
+ */
+public class RecyclingBeanPool<T> implements BeanPool<T> {
+
+    private final Bean<T> bean;
+    private final int capacity;
+    private final boolean reset;
+
+    private final Object[] nullValues;
+    private final long[] zeroPrimitives;
+
+    private final ThreadLocal<ArrayDeque<T>> pools = new ThreadLocal<ArrayDeque<T>>() {
+        @Override
+        protected ArrayDeque<T> initialValue() {
+            return new ArrayDeque<T>(capacity);
+        }
+    };
+
+    /**
+     * Creates a pool.
+     *
+     * @param bean     the bean of pooled instances.
+     * @param capacity the maximum number of pooled instances per thread.
+     * @param reset    if true then writable properties of released beans
+     *                 are set to null, zero or false. Beans that cannot be
+     *                 reset are not pooled.
+     */
+    public RecyclingBeanPool(Bean<T> bean, int capacity, boolean reset) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity should be positive");
+        }
+        this.bean = bean;
+        this.capacity = capacity;
+        this.reset = reset;
+        this.nullValues = new Object[bean.getPropertyCount()];
+        this.zeroPrimitives = new long[bean.getPropertyCount()];
+    }
+
+    public Bean<T> getBean() {
+        return bean;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public T acquire() throws InstantiationException, IllegalAccessException {
+        T instance = pools.get().poll();
+        return instance != null ? instance : bean.newBean();
+    }
+
+    @Override
+    public void release(T instance) {
+        ArrayDeque<T> pool = pools.get();
+        if (pool.size() >= capacity) {
+            return;
+        }
+        if (reset) {
+            try {
+                bean.writeValues(instance, nullValues, zeroPrimitives);
+            } catch (IllegalAccessException e) {
+                return;
+            } catch (InvocationTargetException e) {
+                return;
+            } catch (RuntimeException e) {
+                return;
+            }
+        }
+        pool.push(instance);
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public class ReflectionAccessor<T> implements Accessor<T> {
+
+    private final Field field;
+    private final Method getter;
+    private final Method setter;
+
+    public ReflectionAccessor(Field field, Method getter, Method setter) {
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    @Override
+    public Object getValue(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null) {
+            return getter.invoke(bean);
+        } else if (field != null) {
+            return field.get(bean);
+        } else {
+            throw new IllegalAccessError("property is not readable");
+        }
+    }
+
+    @Override
+    public void setValue(T bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null) {
+            setter.invoke(bean, value);
+        } else if (field != null) {
+            field.set(bean, value);
+        } else {
+            throw new IllegalAccessError("property is not writable");
+        }
+    }
+
+    @Override
+    public boolean getBoolean(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Boolean) getValue(bean);
+        }
+        return field.getBoolean(bean);
+    }
+
+    @Override
+    public void setBoolean(T bean, boolean value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setBoolean(bean, value);
+        }
+    }
+
+    @Override
+    public byte getByte(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Byte) getValue(bean);
+        }
+        return field.getByte(bean);
+    }
+
+    @Override
+    public void setByte(T bean, byte value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setByte(bean, value);
+        }
+    }
+
+    @Override
+    public short getShort(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Short) getValue(bean);
+        }
+        return field.getShort(bean);
+    }
+
+    @Override
+    public void setShort(T bean, short value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setShort(bean, value);
+        }
+    }
+
+    @Override
+    public char getChar(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Character) getValue(bean);
+        }
+        return field.getChar(bean);
+    }
+
+    @Override
+    public void setChar(T bean, char value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setChar(bean, value);
+        }
+    }
+
+    @Override
+    public int getInt(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Integer) getValue(bean);
+        }
+        return field.getInt(bean);
+    }
+
+    @Override
+    public void setInt(T bean, int value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setInt(bean, value);
+        }
+    }
+
+    @Override
+    public long getLong(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Long) getValue(bean);
+        }
+        return field.getLong(bean);
+    }
+
+    @Override
+    public void setLong(T bean, long value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setLong(bean, value);
+        }
+    }
+
+    @Override
+    public float getFloat(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Float) getValue(bean);
+        }
+        return field.getFloat(bean);
+    }
+
+    @Override
+    public void setFloat(T bean, float value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setFloat(bean, value);
+        }
+    }
+
+    @Override
+    public double getDouble(T bean) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null || field == null) {
+            return (Double) getValue(bean);
+        }
+        return field.getDouble(bean);
+    }
+
+    @Override
+    public void setDouble(T bean, double value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null || field == null) {
+            setValue(bean, value);
+        } else {
+            field.setDouble(bean, value);
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a {@link BeanRegistry}, see {@link BeanRegistry#enableMetrics(int)}.
+ */
+public class RegistryMetrics {
+
+    private final int accessSampleRate;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<String, AccessCounter>> accessCounters =
+            new ConcurrentHashMap<Class<?>, ConcurrentMap<String, AccessCounter>>();
+
+    public RegistryMetrics(int accessSampleRate) {
+        if (accessSampleRate < 0) {
+            throw new IllegalArgumentException("sample rate should not be negative");
+        }
+        this.accessSampleRate = accessSampleRate;
+    }
+
+    /**
+     * Returns the rate of sampling property accesses or 0 if they are not counted.
+     */
+    public int getAccessSampleRate() {
+        return accessSampleRate;
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordLoad(boolean reload, long latency) {
+        if (reload) {
+            reloads.increment();
+        } else {
+            misses.increment();
+        }
+        loadLatency.record(latency);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of the first loads of bean classes.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of loads of bean classes which beans were garbage collected.
+     */
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * Returns the histogram of introspection latencies in nanoseconds.
+     */
+    public LatencyHistogram getLoadLatency() {
+        return loadLatency;
+    }
+
+    AccessCounter getAccessCounter(Class<?> beanClass, String propertyName) {
+        ConcurrentMap<String, AccessCounter> counters = accessCounters.get(beanClass);
+        if (counters == null) {
+            ConcurrentMap<String, AccessCounter> newCounters = new ConcurrentHashMap<String, AccessCounter>();
+            counters = accessCounters.putIfAbsent(beanClass, newCounters);
+            if (counters == null) {
+                counters = newCounters;
+            }
+        }
+        AccessCounter counter = counters.get(propertyName);
+        if (counter == null) {
+            AccessCounter newCounter = new AccessCounter(beanClass, propertyName, accessSampleRate);
+            counter = counters.putIfAbsent(propertyName, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    void invalidate(ClassLoader classLoader) {
+        for (Class<?> beanClass : accessCounters.keySet()) {
+            if (BeanRegistry.isLoadedBy(beanClass, classLoader)) {
+                accessCounters.remove(beanClass);
+            }
+        }
+    }
+
+    public List<AccessCounter> getAccessCounters() {
+        List<AccessCounter> list = new ArrayList<AccessCounter>();
+        for (ConcurrentMap<String, AccessCounter> counters : accessCounters.values()) {
+            list.addAll(counters.values());
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "RegistryMetrics{hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", reloads=" + getReloadCount()
+                + ", loadLatency=" + loadLatency + "}";
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+class SampledAccessorFactory implements AccessorFactory {
+
+    private final AccessorFactory accessorFactory;
+    private final RegistryMetrics metrics;
+    private final String propertyName;
+
+    public SampledAccessorFactory(AccessorFactory accessorFactory, RegistryMetrics metrics, String propertyName) {
+        this.accessorFactory = accessorFactory;
+        this.metrics = metrics;
+        this.propertyName = propertyName;
+    }
+
+    @Override
+    public <T> Accessor<T> createAccessor(Class<T> beanClass, Class<?> type,
+                                          Field field, Method getter, Method setter) {
+        // the counter is created here to not count properties dropped by the validation
+        return new SampledAccessor<T>(accessorFactory.createAccessor(beanClass, type, field, getter, setter),
+                metrics.getAccessCounter(beanClass, propertyName));
+    }
+
+}
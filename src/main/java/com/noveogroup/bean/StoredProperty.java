@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+
+/**
+ * A property of records of a {@link BeanStore}. Metadata and annotations
+ * are the ones of the bean property.
+ */
+final class StoredProperty<T> extends AbstractProperty<BeanStore.Flyweight<T>> {
+
+    private static final class StoredAccessor<T> implements Accessor<BeanStore.Flyweight<T>> {
+
+        private final Class<?> type;
+        private final int kind;
+        private final int offset;
+
+        public StoredAccessor(Class<?> type, int kind, int offset) {
+            this.type = type;
+            this.kind = kind;
+            this.offset = offset;
+        }
+
+        private static long toLong(Object value) {
+            return value instanceof Character ? (Character) value : ((Number) value).longValue();
+        }
+
+        private static double toDouble(Object value) {
+            return value instanceof Character ? (Character) value : ((Number) value).doubleValue();
+        }
+
+        @Override
+        public Object getValue(BeanStore.Flyweight<T> bean) {
+            ByteBuffer segment = bean.getSegment();
+            int offset = bean.getOffset() + this.offset;
+            switch (kind) {
+                case Primitives.BOOLEAN:
+                    return segment.get(offset) != 0;
+                case Primitives.BYTE:
+                    return segment.get(offset);
+                case Primitives.SHORT:
+                    return segment.getShort(offset);
+                case Primitives.CHAR:
+                    return segment.getChar(offset);
+                case Primitives.INT:
+                    return segment.getInt(offset);
+                case Primitives.LONG:
+                    return segment.getLong(offset);
+                case Primitives.FLOAT:
+                    return segment.getFloat(offset);
+                default:
+                    return segment.getDouble(offset);
+            }
+        }
+
+        @Override
+        public void setValue(BeanStore.Flyweight<T> bean, Object value) {
+            if (Arguments.isWidened(type, value) || value == null) {
+                // wrong values are reported and narrower ones are widened as by reflection
+                Arguments.checkValue(type, value);
+            }
+            ByteBuffer segment = bean.getSegment();
+            int offset = bean.getOffset() + this.offset;
+            switch (kind) {
+                case Primitives.BOOLEAN:
+                    segment.put(offset, (Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case Primitives.BYTE:
+                    segment.put(offset, (Byte) value);
+                    break;
+                case Primitives.SHORT:
+                    segment.putShort(offset, (short) toLong(value));
+                    break;
+                case Primitives.CHAR:
+                    segment.putChar(offset, (Character) value);
+                    break;
+                case Primitives.INT:
+                    segment.putInt(offset, (int) toLong(value));
+                    break;
+                case Primitives.LONG:
+                    segment.putLong(offset, toLong(value));
+                    break;
+                case Primitives.FLOAT:
+                    segment.putFloat(offset, value instanceof Character ? (Character) value : ((Number) value).floatValue());
+                    break;
+                default:
+                    segment.putDouble(offset, toDouble(value));
+                    break;
+            }
+        }
+
+        @Override
+        public boolean getBoolean(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().get(bean.getOffset() + offset) != 0;
+        }
+
+        @Override
+        public void setBoolean(BeanStore.Flyweight<T> bean, boolean value) {
+            bean.getSegment().put(bean.getOffset() + offset, value ? (byte) 1 : (byte) 0);
+        }
+
+        @Override
+        public byte getByte(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().get(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setByte(BeanStore.Flyweight<T> bean, byte value) {
+            bean.getSegment().put(bean.getOffset() + offset, value);
+        }
+
+        @Override
+        public short getShort(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().getShort(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setShort(BeanStore.Flyweight<T> bean, short value) {
+            bean.getSegment().putShort(bean.getOffset() + offset, value);
+        }
+
+        @Override
+        public char getChar(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().getChar(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setChar(BeanStore.Flyweight<T> bean, char value) {
+            bean.getSegment().putChar(bean.getOffset() + offset, value);
+        }
+
+        @Override
+        public int getInt(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().getInt(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setInt(BeanStore.Flyweight<T> bean, int value) {
+            bean.getSegment().putInt(bean.getOffset() + offset, value);
+        }
+
+        @Override
+        public long getLong(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().getLong(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setLong(BeanStore.Flyweight<T> bean, long value) {
+            bean.getSegment().putLong(bean.getOffset() + offset, value);
+        }
+
+        @Override
+        public float getFloat(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().getFloat(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setFloat(BeanStore.Flyweight<T> bean, float value) {
+            bean.getSegment().putFloat(bean.getOffset() + offset, value);
+        }
+
+        @Override
+        public double getDouble(BeanStore.Flyweight<T> bean) {
+            return bean.getSegment().getDouble(bean.getOffset() + offset);
+        }
+
+        @Override
+        public void setDouble(BeanStore.Flyweight<T> bean, double value) {
+            bean.getSegment().putDouble(bean.getOffset() + offset, value);
+        }
+
+    }
+
+    private final Property<T> property;
+    private final StoredAccessor<T> accessor;
+
+    @SuppressWarnings("unchecked")
+    public StoredProperty(Property<T> property, int kind, int offset) {
+        super((Class<BeanStore.Flyweight<T>>) (Class<?>) BeanStore.Flyweight.class,
+                property.getIndex(), property.getName(), property.getType());
+        this.property = property;
+        this.accessor = new StoredAccessor<T>(property.getType(), kind, offset);
+    }
+
+    @Override
+    protected Accessor<BeanStore.Flyweight<T>> getAccessor() {
+        return accessor;
+    }
+
+    @Override
+    public boolean isReadable() {
+        return true;
+    }
+
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    @Override
+    public <A extends Annotation> boolean isAnnotationPresent(Class<A> annotationClass) {
+        return property.isAnnotationPresent(annotationClass);
+    }
+
+    @Override
+    public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+        return property.getAnnotation(annotationClass);
+    }
+
+    @Override
+    public Annotation[] getAnnotations() {
+        return property.getAnnotations();
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that generated accessors behave as reflection does,
+ * including the exceptions they throw.
+ */
+public class BeanAccessorGeneratorTest {
+
+    public static class Sample {
+
+        public boolean booleanField;
+        public byte byteField;
+        public short shortField;
+        public char charField;
+        public int intField;
+        public long longField;
+        public float floatField;
+        public double doubleField;
+        public String stringField;
+        private long counter;
+
+        public long getCounter() {
+            return counter;
+        }
+
+        public void setCounter(long counter) {
+            this.counter = counter;
+        }
+
+        public String getFailing() {
+            throw new IllegalStateException("getter");
+        }
+
+        public void setFailing(String value) throws Exception {
+            throw new Exception("setter");
+        }
+
+    }
+
+    private static final String[] FIELDS = {
+            "booleanField", "byteField", "shortField", "charField", "intField",
+            "longField", "floatField", "doubleField", "stringField",
+    };
+
+    // values of the fields, the counter and the failing property
+    private static final Object[] VALUES = {
+            true, (byte) -7, (short) 300, 'x', 100000, 1L << 40, 1.5f, -2.25, "text", 42L, "value",
+    };
+
+    // values which are widened, rejected or of a wrong type for some of the properties
+    private static final Object[] ARGUMENTS = {
+            null, true, (byte) 1, (short) 2, 'c', 3, 4L, 5.5f, 6.5, "string", new Object(),
+    };
+
+    private final Accessor<Object>[] reflectionAccessors;
+    private final Accessor<Object>[] compiledAccessors;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BeanAccessorGeneratorTest() throws NoSuchFieldException, NoSuchMethodException {
+        int count = FIELDS.length + 2;
+        Class<?>[] types = new Class<?>[count];
+        Field[] fields = new Field[count];
+        Method[] getters = new Method[count];
+        Method[] setters = new Method[count];
+        for (int i = 0; i < FIELDS.length; i++) {
+            fields[i] = Sample.class.getField(FIELDS[i]);
+            types[i] = fields[i].getType();
+        }
+        fields[count - 2] = Sample.class.getDeclaredField("counter");
+        getters[count - 2] = Sample.class.getMethod("getCounter");
+        setters[count - 2] = Sample.class.getMethod("setCounter", long.class);
+        types[count - 2] = long.class;
+        getters[count - 1] = Sample.class.getMethod("getFailing");
+        setters[count - 1] = Sample.class.getMethod("setFailing", String.class);
+        types[count - 1] = String.class;
+
+        AccessorFactory reflectionFactory = new ReflectionAccessorFactory();
+        AccessorFactory compiledFactory = CompiledAccessorFactory.create(
+                Sample.class, fields, getters, setters, reflectionFactory);
+        reflectionAccessors = new Accessor[count];
+        compiledAccessors = new Accessor[count];
+        for (int i = 0; i < count; i++) {
+            reflectionAccessors[i] = (Accessor) reflectionFactory.createAccessor(
+                    Sample.class, types[i], fields[i], getters[i], setters[i]);
+            compiledAccessors[i] = (Accessor) compiledFactory.createAccessor(
+                    Sample.class, types[i], fields[i], getters[i], setters[i]);
+        }
+    }
+
+    private static String describe(Throwable throwable) {
+        if (throwable instanceof InvocationTargetException) {
+            return "InvocationTargetException caused by " + describe(throwable.getCause());
+        }
+        return throwable.getClass().getName() + (throwable.getCause() == null ? "" : " caused by "
+                + describe(throwable.getCause()));
+    }
+
+    private static String get(Accessor<Object> accessor, Object bean) {
+        try {
+            return "returned " + accessor.getValue(bean);
+        } catch (Throwable throwable) {
+            return "threw " + describe(throwable);
+        }
+    }
+
+    private static String set(Accessor<Object> accessor, Object bean, Object value) {
+        try {
+            accessor.setValue(bean, value);
+            return "returned " + accessor.getValue(bean);
+        } catch (Throwable throwable) {
+            return "threw " + describe(throwable);
+        }
+    }
+
+    @Test
+    public void testGenerated() {
+        for (Accessor<Object> accessor : compiledAccessors) {
+            assertTrue(accessor.getClass().getName(), accessor instanceof CompiledAccessor);
+        }
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        Sample sample = new Sample();
+        for (int i = 0; i < FIELDS.length + 1; i++) {
+            compiledAccessors[i].setValue(sample, VALUES[i]);
+            assertEquals("property " + i, VALUES[i], reflectionAccessors[i].getValue(sample));
+            assertEquals("property " + i, VALUES[i], compiledAccessors[i].getValue(sample));
+        }
+    }
+
+    @Test
+    public void testTypedValues() throws Exception {
+        Sample sample = new Sample();
+        Accessor<Object>[] accessors = compiledAccessors;
+        accessors[0].setBoolean(sample, true);
+        accessors[1].setByte(sample, (byte) -7);
+        accessors[2].setShort(sample, (short) 300);
+        accessors[3].setChar(sample, 'x');
+        accessors[4].setInt(sample, 100000);
+        accessors[5].setLong(sample, 1L << 40);
+        accessors[6].setFloat(sample, 1.5f);
+        accessors[7].setDouble(sample, -2.25);
+        accessors[9].setLong(sample, 42L);
+        assertEquals(true, accessors[0].getBoolean(sample));
+        assertEquals((byte) -7, accessors[1].getByte(sample));
+        assertEquals((short) 300, accessors[2].getShort(sample));
+        assertEquals('x', accessors[3].getChar(sample));
+        assertEquals(100000, accessors[4].getInt(sample));
+        assertEquals(1L << 40, accessors[5].getLong(sample));
+        assertEquals(1.5f, accessors[6].getFloat(sample));
+        assertEquals(-2.25, accessors[7].getDouble(sample));
+        assertEquals(42L, accessors[9].getLong(sample));
+        for (int i = 0; i < 8; i++) {
+            assertEquals("property " + i, VALUES[i], reflectionAccessors[i].getValue(sample));
+        }
+    }
+
+    @Test
+    public void testArguments() {
+        for (int i = 0; i < compiledAccessors.length; i++) {
+            for (Object value : ARGUMENTS) {
+                String message = "property " + i + ", value " + value;
+                assertEquals(message, set(reflectionAccessors[i], new Sample(), value),
+                        set(compiledAccessors[i], new Sample(), value));
+            }
+        }
+    }
+
+    @Test
+    public void testBeans() {
+        for (int i = 0; i < compiledAccessors.length; i++) {
+            for (Object bean : new Object[]{null, new Object(), "bean"}) {
+                String message = "property " + i + ", bean " + bean;
+                assertEquals(message, get(reflectionAccessors[i], bean), get(compiledAccessors[i], bean));
+                assertEquals(message, set(reflectionAccessors[i], bean, VALUES[i]),
+                        set(compiledAccessors[i], bean, VALUES[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testFailures() {
+        int failing = compiledAccessors.length - 1;
+        assertEquals(get(reflectionAccessors[failing], new Sample()), get(compiledAccessors[failing], new Sample()));
+        assertEquals(set(reflectionAccessors[failing], new Sample(), VALUES[failing]),
+                set(compiledAccessors[failing], new Sample(), VALUES[failing]));
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2013 Noveo Group
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * Except as contained in this notice, the name(s) of the above copyright holders
+ * shall not be used in advertising or otherwise to promote the sale, use or
+ * other dealings in this Software without prior written authorization.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.noveogroup.bean;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that numbers parsed by the fast path are rounded as the JDK rounds them.
+ */
+public class DelimitedReaderTest {
+
+    public static class Sample {
+
+        private double doubleValue;
+        private float floatValue;
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public void setDoubleValue(double doubleValue) {
+            this.doubleValue = doubleValue;
+        }
+
+        public float getFloatValue() {
+            return floatValue;
+        }
+
+        public void setFloatValue(float floatValue) {
+            this.floatValue = floatValue;
+        }
+
+    }
+
+    // the fast path takes at most 15 digits and exponents up to 22 for doubles
+    // and 7 digits and exponents up to 10 for floats, the rest goes to the JDK
+    private static final String[] EDGES = {
+            "0", "0.0", "-0.0", "+0.0", "-0", "-0e10", "0.000",
+            "0.1", "0.2", "0.3", ".5", "5.", "1E5", "1e+5", "2.5e-3",
+            "123456789012345", "999999999999999", "100000000000001",
+            "1234567890123456", "9007199254740993",
+            "123456789012345e22", "123456789012345e-22", "-123456789012345e-22",
+            "123456789012345e23", "123456789012345e-23",
+            "1.23456789012345e-8", "12345678901234.5e-21",
+            "1e22", "1e-22", "1e23", "1e-23", "9e22", "9e-22",
+            "1234567", "9999999", "12345678", "16777217", "16777216",
+            "9999999e10", "9999999e-10", "-9999999e-10", "9999999e11", "9999999e-11",
+            "1.234567e-4", "0.000001234567", "3.4028235e38", "1.4e-45",
+            "1.7976931348623157e308", "4.9e-324", "2.2250738585072014e-308",
+    };
+
+    private static Sample read(String field) throws IOException {
+        Bean<Sample> bean = BeanRegistry.getInstance().get(Sample.class);
+        String text = "doubleValue,floatValue\n" + field + "," + field + "\n";
+        DelimitedReader.Rows<Sample> rows = new DelimitedReader<Sample>(bean).open(new StringReader(text));
+        try {
+            return rows.next();
+        } finally {
+            rows.close();
+        }
+    }
+
+    private static void check(String field) throws IOException {
+        Sample sample = read(field);
+        assertEquals("double " + field,
+                Double.doubleToRawLongBits(Double.parseDouble(field)),
+                Double.doubleToRawLongBits(sample.getDoubleValue()));
+        assertEquals("float " + field,
+                Float.floatToRawIntBits(Float.parseFloat(field)),
+                Float.floatToRawIntBits(sample.getFloatValue()));
+    }
+
+    // numbers slightly beyond the limits of the fast path are generated too
+    private static String randomDecimal(Random random, int maxDigits, int maxExponent) {
+        StringBuilder builder = new StringBuilder();
+        if (random.nextBoolean()) {
+            builder.append('-');
+        }
+        int digits = 1 + random.nextInt(maxDigits);
+        for (int i = 0; i < digits; i++) {
+            builder.append((char) ('0' + random.nextInt(10)));
+        }
+        if (random.nextBoolean()) {
+            builder.insert(builder.length() - random.nextInt(digits), '.');
+        }
+        return builder.append('e').append(random.nextInt(2 * maxExponent + 1) - maxExponent).toString();
+    }
+
+    @Test
+    public void testEdges() throws IOException {
+        for (String field : EDGES) {
+            check(field);
+        }
+    }
+
+    @Test
+    public void testNegativeZero() throws IOException {
+        Sample sample = read("-0.0");
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(sample.getDoubleValue()));
+        assertEquals(Float.floatToRawIntBits(-0.0f), Float.floatToRawIntBits(sample.getFloatValue()));
+    }
+
+    @Test
+    public void testRandomDoubles() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            check(randomDecimal(random, 17, 24));
+        }
+    }
+
+    @Test
+    public void testRandomFloats() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            check(randomDecimal(random, 9, 12));
+        }
+    }
+
+}